@@ -0,0 +1,138 @@
+package org.example.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DatabaseNotificationListener {
+
+    private final JdbcConnectionDetails connectionDetails;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final long pollMs;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+    private Thread worker;
+
+    public DatabaseNotificationListener(
+            JdbcConnectionDetails connectionDetails,
+            MeterRegistry meterRegistry,
+            @Value("${db.notifications.enabled}") boolean enabled,
+            @Value("${db.notifications.poll-ms}") long pollMs) {
+        this.connectionDetails = connectionDetails;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.pollMs = pollMs;
+    }
+
+    public void subscribe(String channel, Consumer<String> onNotification, Runnable onResync) {
+        subscriptions.add(new Subscription(channel, onNotification, onResync,
+                meterRegistry.counter("db.notifications.subscriber.failures", "channel", channel)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || running || subscriptions.isEmpty()) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::listen, "db-notification-listener");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(pollMs * 2);
+            worker = null;
+        }
+    }
+
+    private void listen() {
+        boolean reconnect = false;
+        while (running) {
+            // a dedicated connection, so LISTEN never holds a pool slot or waits on an exhausted pool
+            try (Connection connection = DriverManager.getConnection(
+                    connectionDetails.getJdbcUrl(),
+                    connectionDetails.getUsername(),
+                    connectionDetails.getPassword())) {
+                if (!connection.isWrapperFor(PGConnection.class)) {
+                    running = false;
+                    return;
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    for (Subscription subscription : subscriptions) {
+                        statement.execute("LISTEN " + subscription.channel());
+                    }
+                }
+                if (reconnect) {
+                    subscriptions.forEach(subscription ->
+                            deliver(subscription, subscription.onResync()));
+                }
+                reconnect = true;
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollMs);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification);
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                // caches may have loaded rows while nobody was listening, so resync once back
+                reconnect = true;
+                sleepBeforeReconnect();
+            }
+        }
+    }
+
+    private void dispatch(PGNotification notification) {
+        for (Subscription subscription : subscriptions) {
+            if (subscription.channel().equals(notification.getName())) {
+                deliver(subscription,
+                        () -> subscription.onNotification().accept(notification.getParameter()));
+            }
+        }
+    }
+
+    private void deliver(Subscription subscription, Runnable callback) {
+        // one failing subscriber must not stop the listener or starve the others
+        try {
+            callback.run();
+        } catch (RuntimeException e) {
+            subscription.failures().increment();
+        }
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(pollMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private record Subscription(String channel, Consumer<String> onNotification,
+                                Runnable onResync, Counter failures) {
+    }
+}
@@ -1,6 +1,9 @@
 package org.example.controller.category;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 
 import com.itextpdf.text.DocumentException;
@@ -9,16 +12,20 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.example.dto.employee.registration.EmployeeResponseDto;
 import org.example.dto.helper.CategoryResponseDto;
-import org.example.dto.product.ProductDto;
+import org.example.dto.ranking.CategoryRankingDto;
+import org.example.repository.category.CategoryLeaderboard;
 import org.example.service.category.CategoryService;
 import org.example.service.employee.EmployeeService;
+import org.example.service.ranking.RankingService;
 import org.example.service.report.PdfReportGeneratorService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @Tag(name = "Category management",
@@ -30,16 +37,45 @@ public class CategoryController {
 
     private final CategoryService categoryService;
     private final EmployeeService employeeService;
+    private final RankingService rankingService;
     private final PdfReportGeneratorService pdfReportGeneratorService;
 
     @GetMapping("/top")
     @Operation(
             summary = "Get two most popular categories",
-            description = "Get two most popular categories"
+            description = "Get two most popular categories. Served from a leaderboard that is "
+                    + "refreshed periodically; Last-Modified and Age tell when it was last refreshed."
+    )
+    @PreAuthorize("hasAuthority('MANAGER')")
+    public ResponseEntity<List<CategoryResponseDto>> getPopCategories() {
+        CategoryLeaderboard.Snapshot leaderboard = categoryService.getPopCategories();
+        long age = Math.max(0, Duration.between(leaderboard.refreshedAt(), Instant.now())
+                .toSeconds());
+        return ResponseEntity.ok()
+                .lastModified(leaderboard.refreshedAt())
+                .header(HttpHeaders.AGE, String.valueOf(age))
+                .body(leaderboard.categories());
+    }
+
+    @GetMapping("/ranking")
+    @Operation(
+            summary = "Rank categories by units sold in a time window",
+            description = """
+    Rank categories by units sold, best first, from the daily sales rollup.
+    - days: 7 | 30 | 90, the window ending today (default 7)
+    - from, to: custom inclusive date range of at most 90 days, instead of days
+    """
     )
     @PreAuthorize("hasAuthority('MANAGER')")
-    public List<CategoryResponseDto> getPopCategories() {
-        return categoryService.getPopCategories();
+    public List<CategoryRankingDto> getRanking(
+            @RequestParam(required = false) Integer days,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate to,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return rankingService.getTopCategories(days, from, to, limit);
     }
 
     @GetMapping()
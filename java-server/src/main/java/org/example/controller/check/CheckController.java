@@ -1,24 +1,41 @@
 package org.example.controller.check;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 
 import com.itextpdf.text.DocumentException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.example.dto.check.CheckDetailsDto;
+import org.example.dto.check.CheckRequestDto;
 import org.example.dto.employee.registration.EmployeeResponseDto;
 import org.example.dto.helper.CheckResponseDto;
-import org.example.dto.product.ProductDto;
+import org.example.dto.page.PageResponseDto;
+import org.example.dto.revenue.DailyRevenueDto;
+import org.example.dto.revenue.EmployeeRevenueDto;
 import org.example.service.check.CheckService;
 import org.example.service.employee.EmployeeService;
 import org.example.service.report.PdfReportGeneratorService;
+import org.example.service.revenue.RevenueService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 @Tag(name = "Check management",
@@ -29,27 +46,125 @@ import org.springframework.web.bind.annotation.RestController;
 public class CheckController {
 
     private final CheckService checkService;
+    private final RevenueService revenueService;
     private final EmployeeService employeeService;
     private final PdfReportGeneratorService pdfReportGeneratorService;
 
     @GetMapping()
     @Operation(
-            summary = "Get all checks",
-            description = "Get all checks"
+            summary = "Get checks",
+            description = """
+    Get checks, newest first, with optional filters:
+    - from, to: inclusive print date range
+    - id_employee: cashier who printed the check
+    - cursor: continuation token from nextCursor, empty for the first page
+    """
     )
     @PreAuthorize("hasAnyAuthority('MANAGER')")
-    public List<CheckResponseDto> getAll() {
-        return checkService.getAll();
+    public PageResponseDto<CheckResponseDto> getAll(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate to,
+            @RequestParam(required = false, name = "id_employee") String idEmployee,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return checkService.getPage(from, to, idEmployee, cursor, size);
+    }
+
+    @GetMapping("/revenue/daily")
+    @Operation(
+            summary = "Get revenue per day",
+            description = """
+    Check count, sum_total and vat per print date, oldest first.
+    - from, to: inclusive range, the last 30 days by default, at most 366 days
+    - id_employee: only checks printed by this cashier
+    """
+    )
+    @PreAuthorize("hasAuthority('MANAGER')")
+    public List<DailyRevenueDto> getDailyRevenue(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate to,
+            @RequestParam(required = false, name = "id_employee") String idEmployee
+    ) {
+        return revenueService.getDaily(from, to, idEmployee);
+    }
+
+    @GetMapping("/revenue/employees")
+    @Operation(
+            summary = "Get revenue per cashier",
+            description = "Check count, sum_total and vat per cashier over the from, to range "
+                    + "(the last 30 days by default, at most 366 days), highest revenue first."
+    )
+    @PreAuthorize("hasAuthority('MANAGER')")
+    public List<EmployeeRevenueDto> getEmployeeRevenue(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate to
+    ) {
+        return revenueService.getByEmployee(from, to);
+    }
+
+    @PostMapping("/revenue/rebuild")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Operation(
+            summary = "Rebuild revenue rollups",
+            description = "Recompute the revenue rollups from all checks. Check writes wait "
+                    + "until the rebuild finishes."
+    )
+    @PreAuthorize("hasAuthority('MANAGER')")
+    public void rebuildRevenue() {
+        revenueService.rebuild();
+    }
+
+    @GetMapping("/{checkNumber}")
+    @PreAuthorize("hasAnyAuthority('MANAGER', 'CASHIER')")
+    @Operation(
+            summary = "Get a check with its products",
+            description = "Printed checks never change, so the response carries a strong ETag. "
+                    + "Send it back in If-None-Match to get 304 Not Modified."
+    )
+    public ResponseEntity<CheckDetailsDto> getByNumber(@PathVariable String checkNumber) {
+        CheckDetailsDto check = checkService.getByNumber(checkNumber);
+        // the message converter answers 304 itself when If-None-Match matches this ETag
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(eTagOf(check))
+                .body(check);
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(
+            summary = "Create a check",
+            description = "Sell the listed products to a customer card on behalf of the "
+                    + "signed-in cashier. Repeated UPCs are merged. Stock is taken for all "
+                    + "products or for none if any of them is missing or short."
+    )
+    @PreAuthorize("hasAuthority('CASHIER')")
+    public CheckResponseDto create(@RequestBody @Valid CheckRequestDto requestDto) {
+        return checkService.create(requestDto);
     }
 
     @GetMapping(value = "/report", produces = MediaType.APPLICATION_PDF_VALUE)
     @Operation(
             summary = "Download products report",
-            description = "Download checks pdf report"
+            description = "Download checks pdf report. Accepts the same from, to "
+                    + "and id_employee filters as the check listing."
     )
     @PreAuthorize("hasAuthority('MANAGER')")
-    public ResponseEntity<byte[]> checkPdf() throws DocumentException, IOException {
-        List<CheckResponseDto> checks = checkService.getAll();
+    public ResponseEntity<byte[]> checkPdf(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate to,
+            @RequestParam(required = false, name = "id_employee") String idEmployee
+    ) throws DocumentException, IOException {
+        List<CheckResponseDto> checks = checkService.getAll(from, to, idEmployee);
         EmployeeResponseDto manager = employeeService.getMe();
         byte[] pdf = pdfReportGeneratorService.checkToPdf(checks,
                 manager.getEmpl_surname() + " " + manager.getEmpl_name());
@@ -58,4 +173,10 @@ public class CheckController {
                         "attachment; filename=products.pdf")
                 .body(pdf);
     }
+
+    private static String eTagOf(CheckDetailsDto check) {
+        // a deleted check number can be printed again, so the print date is part of the tag
+        String version = check.getCheck_number() + "|" + check.getPrint_date();
+        return DigestUtils.md5DigestAsHex(version.getBytes(StandardCharsets.UTF_8));
+    }
 }
@@ -5,7 +5,9 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.example.dto.employee.registration.EmployeeResponseDto;
+import org.example.dto.helper.CustomerCardDiscountDto;
 import org.example.dto.helper.CustomerCardResponseDto;
+import org.example.dto.page.PageResponseDto;
 import org.example.dto.product.ProductDto;
 import org.example.service.customer_card.CustomerCardService;
 import org.example.service.employee.EmployeeService;
@@ -16,7 +18,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.io.IOException;
@@ -35,12 +39,33 @@ public class CustomerCardController {
 
     @GetMapping()
     @Operation(
-            summary = "Get all customer cards",
-            description = "Get all customer cards"
+            summary = "Get customer cards",
+            description = """
+    Get customer cards ordered by surname with optional filters:
+    - surname: case-insensitive surname prefix
+    - phone: exact phone number
+    - cursor: continuation token from nextCursor, empty for the first page
+    """
     )
-    @PreAuthorize("hasAnyAuthority('MANAGER')")
-    public List<CustomerCardResponseDto> getAll() {
-        return customerCardService.getAll();
+    @PreAuthorize("hasAnyAuthority('MANAGER', 'CASHIER')")
+    public PageResponseDto<CustomerCardResponseDto> getAll(
+            @RequestParam(required = false) String surname,
+            @RequestParam(required = false) String phone,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return customerCardService.getPage(surname, phone, cursor, size);
+    }
+
+    @GetMapping("/{cardNumber}/discount")
+    @Operation(
+            summary = "Get the discount of a customer card",
+            description = "Discount percent and customer name for checkout, "
+                    + "served from memory and kept current as cards change."
+    )
+    @PreAuthorize("hasAnyAuthority('MANAGER', 'CASHIER')")
+    public CustomerCardDiscountDto getDiscount(@PathVariable String cardNumber) {
+        return customerCardService.getDiscount(cardNumber);
     }
 
     @GetMapping(value = "/report", produces = MediaType.APPLICATION_PDF_VALUE)
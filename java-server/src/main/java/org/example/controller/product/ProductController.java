@@ -5,18 +5,25 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.example.dto.employee.registration.EmployeeResponseDto;
 import org.example.dto.page.PageResponseDto;
+import org.example.dto.product.ProductBulkRequestDto;
+import org.example.dto.product.ProductBulkResultDto;
 import org.example.dto.product.ProductDto;
 import org.example.dto.product.ProductRequestDto;
+import org.example.dto.product.ProductSuggestionDto;
+import org.example.dto.ranking.ProductRankingDto;
 import org.example.exception.custom_exception.AuthorizationException;
 import org.example.service.employee.EmployeeService;
 import org.example.service.product.ProductService;
+import org.example.service.ranking.RankingService;
 import org.example.service.report.PdfReportGeneratorService;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -45,6 +52,7 @@ public class ProductController {
     private final static int PAGE_SIZE = 10;
     private final ProductService productService;
     private final EmployeeService employeeService;
+    private final RankingService rankingService;
     private final PdfReportGeneratorService pdfReportGeneratorService;
 
     @GetMapping("/{id}")
@@ -56,6 +64,40 @@ public class ProductController {
         return productService.getById(id);
     }
 
+    @GetMapping("/suggest")
+    @Operation(
+            summary = "Autocomplete product names",
+            description = "Products whose name contains q, names starting with q first. "
+                    + "With similarity=true close misspellings are matched and ranked too."
+    )
+    public List<ProductSuggestionDto> suggest(@RequestParam String q,
+                                              @RequestParam(defaultValue = "10") int limit,
+                                              @RequestParam(defaultValue = "false")
+                                              boolean similarity) {
+        return productService.suggest(q, limit, similarity);
+    }
+
+    @GetMapping("/ranking")
+    @Operation(
+            summary = "Rank products by units sold in a time window",
+            description = """
+    Rank products by units sold, best first, from the daily sales rollup.
+    - days: 7 | 30 | 90, the window ending today (default 7)
+    - from, to: custom inclusive date range of at most 90 days, instead of days
+    """
+    )
+    @PreAuthorize("hasAuthority('MANAGER')")
+    public List<ProductRankingDto> getRanking(
+            @RequestParam(required = false) Integer days,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate to,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return rankingService.getTopProducts(days, from, to, limit);
+    }
+
     @GetMapping("/sold")
     @Operation(
             summary = "Get products' names which cost is more than param",
@@ -69,6 +111,18 @@ public class ProductController {
         return productService.getSold(pageable, minTotalSold != null ? minTotalSold : 0.0);
     }
 
+    @PostMapping("/sold/rebuild")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Operation(
+            summary = "Rebuild sold products summary",
+            description = "Recompute the per-product sales summary behind /products/sold "
+                    + "from the full sale history. It is otherwise kept current as sales are written."
+    )
+    @PreAuthorize("hasAuthority('MANAGER')")
+    public void rebuildSalesSummary() {
+        productService.rebuildSalesSummary();
+    }
+
     @GetMapping
     @Operation(
             summary = "Get all products",
@@ -110,6 +164,20 @@ public class ProductController {
         return productService.save(productRequestDto);
     }
 
+    @PostMapping("/bulk")
+    @Operation(
+            summary = "Bulk upsert products",
+            description = "Load a catalog of products in one request. Items without id_product "
+                    + "are inserted, items with id_product update that product. ids holds the "
+                    + "product id of every item in input order, null for rejected items."
+    )
+    @PreAuthorize("hasAuthority('MANAGER')")
+    public ProductBulkResultDto bulkUpsert(
+            @RequestBody @Valid ProductBulkRequestDto requestDto
+    ) {
+        return productService.saveAll(requestDto.getProducts());
+    }
+
     @PutMapping("/{id}")
     @Operation(
             summary = "Update a product",
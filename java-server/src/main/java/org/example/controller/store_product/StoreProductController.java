@@ -1,21 +1,31 @@
 package org.example.controller.store_product;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.itextpdf.text.DocumentException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.example.dto.employee.registration.EmployeeResponseDto;
 import org.example.dto.page.PageResponseDto;
+import org.example.dto.store_product.batch.BatchBulkRequestDto;
+import org.example.dto.store_product.batch.BatchBulkResultDto;
 import org.example.dto.store_product.batch.BatchRequestDto;
+import org.example.dto.store_product.batch.ExpiringStoreProductDto;
 import org.example.dto.store_product.product.StoreProductDto;
+import org.example.dto.store_product.product.StoreProductImportResultDto;
+import org.example.dto.store_product.product.StoreProductLookupRequestDto;
+import org.example.dto.store_product.product.StoreProductLookupResponseDto;
 import org.example.dto.store_product.product.StoreProductRequestDto;
-import org.example.dto.store_product.product.StoreProductWithNameDto;
 import org.example.service.employee.EmployeeService;
 import org.example.service.report.PdfReportGeneratorService;
 import org.example.service.store_product.BatchService;
+import org.example.service.store_product.StoreProductImportFormat;
 import org.example.service.store_product.StoreProductService;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -33,10 +43,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Tag(name = "Store product management",
         description = "Endpoints for managing store products")
@@ -50,6 +62,7 @@ public class StoreProductController {
     private final EmployeeService employeeService;
     private final BatchService batchService;
     private final PdfReportGeneratorService pdfReportGeneratorService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
     @Operation(
@@ -58,13 +71,19 @@ public class StoreProductController {
     Get all store products with optional filters:
     - sortedBy: name | quantity
     - prom: true | false
+    - cursor: continuation token from nextCursor, empty for the first page;
+      switches from offset paging to keyset paging
     """
     )
     public PageResponseDto<?> getStoreProducts(
             @RequestParam(required = false, name = "sorted_by") String sortedBy,
             @RequestParam(required = false) Boolean prom,
-            @RequestParam(required = false, defaultValue = "0") int page
+            @RequestParam(required = false, defaultValue = "0") int page,
+            @RequestParam(required = false) String cursor
     ) {
+        if (cursor != null) {
+            return storeProductService.getAll(sortedBy, prom, cursor, PAGE_SIZE);
+        }
         Pageable pageable;
         if ("name".equals(sortedBy)) {
             pageable = PageRequest.of(page, PAGE_SIZE, Sort.by("product_name"));
@@ -76,13 +95,29 @@ public class StoreProductController {
         return storeProductService.getAll(sortedBy, prom, pageable);
     }
 
-    @GetMapping("/all")
+    @GetMapping(value = "/all", produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(
             summary = "Get all store products without pagination",
-            description = "Get all store products without pagination"
+            description = "Get all store products without pagination. "
+                    + "The JSON array is streamed row by row as it is read from the database."
     )
-    public List<StoreProductWithNameDto> getAllWithoutPagination() {
-        return storeProductService.getAllWithNameNoPagination();
+    public ResponseEntity<StreamingResponseBody> getAllWithoutPagination() {
+        StreamingResponseBody body = outputStream -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+            generator.writeStartArray();
+            storeProductService.streamAllWithName(dto -> {
+                try {
+                    generator.writeObject(dto);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+            generator.close();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
 
     @PostMapping
@@ -143,6 +178,38 @@ public class StoreProductController {
         return ResponseEntity.unprocessableEntity().build();
     }
 
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @Operation(
+            summary = "Bulk import store products",
+            description = """
+    Import store products from a CSV or NDJSON body.
+    CSV columns: upc,upc_prom,id_product,selling_price,products_number,promotional_product
+    (optional header line). NDJSON: one store product request object per line.
+    Prices get the same VAT/promotion computation as single creation.
+    Rows that fail validation or conflict with existing data are reported in rejected.
+    """
+    )
+    @PreAuthorize("hasAuthority('MANAGER')")
+    public StoreProductImportResultDto importStoreProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body
+    ) {
+        return storeProductService.importProducts(body,
+                StoreProductImportFormat.fromContentType(contentType));
+    }
+
+    @PostMapping("/lookup")
+    @Operation(
+            summary = "Look up a basket of store products",
+            description = "Resolve price, quantity and product name for several UPCs "
+                    + "in one request. UPCs that are unknown or deleted are returned in misses."
+    )
+    public StoreProductLookupResponseDto lookup(
+            @RequestBody @Valid StoreProductLookupRequestDto requestDto
+    ) {
+        return storeProductService.lookup(requestDto.getUpcs());
+    }
+
     @PostMapping("/receive")
     @ResponseStatus(HttpStatus.CREATED)
     @Operation(
@@ -158,11 +225,39 @@ public class StoreProductController {
         return batchService.save(requestDto);
     }
 
+    @PostMapping("/receive/bulk")
+    @Operation(
+            summary = "Receive a whole delivery",
+            description = "Add several batches at once. Quantities and prices are applied "
+                    + "per store product in one pass. Lines whose store product "
+                    + "does not exist are reported in rejected."
+    )
+    @PreAuthorize("hasAuthority('MANAGER')")
+    public BatchBulkResultDto receiveDelivery(
+            @RequestBody @Valid BatchBulkRequestDto requestDto
+    ) {
+        return batchService.saveAll(requestDto.getBatches());
+    }
+
+    @GetMapping("/expiring")
+    @Operation(
+            summary = "Get batches expiring soon",
+            description = "Batches expiring between today and today plus days, "
+                    + "grouped by store product, soonest first."
+    )
+    @PreAuthorize("hasAuthority('MANAGER')")
+    public List<ExpiringStoreProductDto> getExpiring(
+            @RequestParam(defaultValue = "5") int days
+    ) {
+        return batchService.findExpiring(days);
+    }
+
     @DeleteMapping("/expired")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @Operation(
             summary = "Delete expired batches",
-            description = "Deletes all batches whose expiration date has passed"
+            description = "Runs the expired batch purge now. It also runs daily in the background. "
+                    + "Deletes all batches whose expiration date has passed"
                     + "and updates store product quantities"
     )
     @PreAuthorize("hasAuthority('MANAGER')")
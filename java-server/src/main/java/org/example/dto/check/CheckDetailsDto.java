@@ -0,0 +1,13 @@
+package org.example.dto.check;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.example.dto.helper.CheckResponseDto;
+
+@Getter
+@Setter
+public class CheckDetailsDto extends CheckResponseDto {
+    private List<CheckProductDto> products = new ArrayList<>();
+}
@@ -0,0 +1,17 @@
+package org.example.dto.check;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.validator.constraints.Length;
+
+@Getter
+@Setter
+public class CheckItemRequestDto {
+    @NotBlank
+    @Length(max = 12)
+    private String UPC;
+    @Min(1)
+    private int quantity;
+}
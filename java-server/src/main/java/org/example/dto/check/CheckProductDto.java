@@ -0,0 +1,13 @@
+package org.example.dto.check;
+
+import java.math.BigDecimal;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class CheckProductDto {
+    private String product_name;
+    private BigDecimal selling_price;
+    private int product_number;
+}
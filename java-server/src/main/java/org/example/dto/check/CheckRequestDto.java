@@ -0,0 +1,25 @@
+package org.example.dto.check;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.validator.constraints.Length;
+
+@Getter
+@Setter
+public class CheckRequestDto {
+    @NotBlank
+    @Length(max = 10)
+    private String check_number;
+    @NotBlank
+    @Length(max = 13)
+    private String card_number;
+    @NotEmpty
+    @Size(max = 500)
+    private List<@NotNull @Valid CheckItemRequestDto> products;
+}
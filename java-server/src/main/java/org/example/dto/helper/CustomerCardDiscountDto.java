@@ -0,0 +1,12 @@
+package org.example.dto.helper;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class CustomerCardDiscountDto {
+    private String card_number;
+    private String customer_name;
+    private int percent;
+}
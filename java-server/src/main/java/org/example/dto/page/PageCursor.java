@@ -0,0 +1,35 @@
+package org.example.dto.page;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.example.exception.custom_exception.InvalidParameterException;
+
+public final class PageCursor {
+
+    private static final String SEPARATOR = "\u001F";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private PageCursor() {
+    }
+
+    public static String encode(String... values) {
+        return ENCODER.encodeToString(
+                String.join(SEPARATOR, values).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static List<String> decode(String cursor, int expectedValues) {
+        try {
+            String raw = new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+            List<String> values = List.of(raw.split(Pattern.quote(SEPARATOR), -1));
+            if (values.size() != expectedValues) {
+                throw new InvalidParameterException("Malformed page cursor: " + cursor);
+            }
+            return values;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidParameterException("Malformed page cursor: " + cursor);
+        }
+    }
+}
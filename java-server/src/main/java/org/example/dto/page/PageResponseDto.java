@@ -1,5 +1,6 @@
 package org.example.dto.page;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -13,16 +14,44 @@ import lombok.Setter;
 public class PageResponseDto<T> {
     private List<T> content;
     private int pageSize;
-    private long totalElements;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long totalElements;
     private boolean hasNext;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
 
     public static <T> PageResponseDto<T> of(List<T> content,
                                             int pageSize,
                                             long totalElements,
                                             boolean hasNext) {
+        return of(content,
+                pageSize,
+                totalElements,
+                hasNext,
+                null);
+    }
+
+    public static <T> PageResponseDto<T> of(List<T> content,
+                                            int pageSize,
+                                            long totalElements,
+                                            boolean hasNext,
+                                            String nextCursor) {
+        return of(content,
+                pageSize,
+                Long.valueOf(totalElements),
+                hasNext,
+                nextCursor);
+    }
+
+    public static <T> PageResponseDto<T> of(List<T> content,
+                                            int pageSize,
+                                            Long totalElements,
+                                            boolean hasNext,
+                                            String nextCursor) {
         return new PageResponseDto<>(content,
                 pageSize,
                 totalElements,
-                hasNext);
+                hasNext,
+                nextCursor);
     }
 }
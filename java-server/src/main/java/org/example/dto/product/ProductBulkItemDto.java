@@ -0,0 +1,10 @@
+package org.example.dto.product;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ProductBulkItemDto extends ProductRequestDto {
+    private Integer id_product;
+}
@@ -0,0 +1,16 @@
+package org.example.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductBulkRejectDto {
+    private int line;
+    private Integer id_product;
+    private String reason;
+}
@@ -0,0 +1,17 @@
+package org.example.dto.product;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ProductBulkRequestDto {
+    @NotEmpty
+    @Size(max = 5000)
+    private List<@NotNull @Valid ProductBulkItemDto> products;
+}
@@ -0,0 +1,18 @@
+package org.example.dto.product;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductBulkResultDto {
+    private int inserted;
+    private int updated;
+    private List<Integer> ids;
+    private List<ProductBulkRejectDto> rejected;
+}
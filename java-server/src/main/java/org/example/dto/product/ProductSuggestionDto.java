@@ -0,0 +1,15 @@
+package org.example.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductSuggestionDto {
+    private int id_product;
+    private String product_name;
+}
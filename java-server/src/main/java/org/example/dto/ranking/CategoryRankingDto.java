@@ -0,0 +1,14 @@
+package org.example.dto.ranking;
+
+import java.math.BigDecimal;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class CategoryRankingDto {
+    private int category_number;
+    private String category_name;
+    private long units;
+    private BigDecimal revenue;
+}
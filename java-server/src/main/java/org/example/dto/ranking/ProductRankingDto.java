@@ -0,0 +1,14 @@
+package org.example.dto.ranking;
+
+import java.math.BigDecimal;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ProductRankingDto {
+    private int id_product;
+    private String product_name;
+    private long units;
+    private BigDecimal revenue;
+}
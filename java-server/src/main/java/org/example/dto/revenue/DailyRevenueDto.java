@@ -0,0 +1,15 @@
+package org.example.dto.revenue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class DailyRevenueDto {
+    private LocalDate day;
+    private long checks;
+    private BigDecimal sum_total;
+    private BigDecimal vat;
+}
@@ -0,0 +1,16 @@
+package org.example.dto.revenue;
+
+import java.math.BigDecimal;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class EmployeeRevenueDto {
+    private String id_employee;
+    private String empl_surname;
+    private String empl_name;
+    private long checks;
+    private BigDecimal sum_total;
+    private BigDecimal vat;
+}
@@ -0,0 +1,18 @@
+package org.example.dto.store_product.batch;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.example.dto.store_product.product.StoreProductDto;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchBulkResultDto {
+    private int received;
+    private List<StoreProductDto> products;
+    private List<BatchReceiptRejectDto> rejected;
+}
@@ -0,0 +1,18 @@
+package org.example.dto.store_product.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExpiringStoreProductDto {
+    private String UPC;
+    private int quantity;
+    private List<ExpiringBatchDto> batches = new ArrayList<>();
+}
@@ -0,0 +1,16 @@
+package org.example.dto.store_product.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class StoreProductImportRejectDto {
+    private int line;
+    private String UPC;
+    private String reason;
+}
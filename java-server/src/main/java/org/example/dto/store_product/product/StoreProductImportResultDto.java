@@ -0,0 +1,17 @@
+package org.example.dto.store_product.product;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class StoreProductImportResultDto {
+    private int received;
+    private int imported;
+    private List<StoreProductImportRejectDto> rejected;
+}
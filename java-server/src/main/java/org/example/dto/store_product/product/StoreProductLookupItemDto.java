@@ -0,0 +1,14 @@
+package org.example.dto.store_product.product;
+
+import java.math.BigDecimal;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class StoreProductLookupItemDto {
+    private String UPC;
+    private String product_name;
+    private BigDecimal selling_price;
+    private int products_number;
+}
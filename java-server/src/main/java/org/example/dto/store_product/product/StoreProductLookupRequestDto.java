@@ -0,0 +1,16 @@
+package org.example.dto.store_product.product;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class StoreProductLookupRequestDto {
+    @NotEmpty
+    @Size(max = 200)
+    private List<@NotBlank String> upcs;
+}
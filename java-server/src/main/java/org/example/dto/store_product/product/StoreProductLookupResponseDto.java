@@ -0,0 +1,16 @@
+package org.example.dto.store_product.product;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class StoreProductLookupResponseDto {
+    private List<StoreProductLookupItemDto> items;
+    private List<String> misses;
+}
@@ -0,0 +1,10 @@
+package org.example.exception.custom_exception;
+
+import org.example.exception.handler.BaseServiceException;
+import org.springframework.http.HttpStatus;
+
+public class ServiceUnavailableException extends BaseServiceException {
+    public ServiceUnavailableException(String message) {
+        super(message, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.repository.category;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.example.dto.helper.CategoryResponseDto;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@RequiredArgsConstructor
+@Component
+public class CategoryLeaderboard {
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Snapshot snapshot;
+
+    public Snapshot top() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return refresh();
+        }
+        return current;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            refresh();
+        } catch (DataAccessException e) {
+            snapshot = null;
+        }
+    }
+
+    @Scheduled(initialDelayString = "${category.leaderboard.refresh-interval-ms}",
+            fixedDelayString = "${category.leaderboard.refresh-interval-ms}")
+    public Snapshot refresh() {
+        jdbcTemplate.execute("REFRESH MATERIALIZED VIEW CONCURRENTLY category_sales_leaderboard");
+        return load();
+    }
+
+    private Snapshot load() {
+        List<CategoryResponseDto> ranked = jdbcTemplate.query(
+                """
+                SELECT category_number, category_name, total_sold
+                FROM category_sales_leaderboard
+                ORDER BY total_sold DESC, category_number ASC
+                """,
+                (rs, rowNum) -> {
+                    CategoryResponseDto dto = new CategoryResponseDto();
+                    dto.setCategory_number(rs.getInt("category_number"));
+                    dto.setCategory_name(rs.getString("category_name"));
+                    dto.setTotal_sold(rs.getInt("total_sold"));
+                    return dto;
+                }
+        );
+        Snapshot loaded = new Snapshot(leaders(ranked), Instant.now());
+        snapshot = loaded;
+        return loaded;
+    }
+
+    // every category tied for first place, or the leader plus everything tied for second
+    static List<CategoryResponseDto> leaders(List<CategoryResponseDto> ranked) {
+        List<CategoryResponseDto> top = new ArrayList<>();
+        int ranks = 0;
+        Integer previous = null;
+        for (CategoryResponseDto category : ranked) {
+            if (!category.getTotal_sold().equals(previous)) {
+                ranks++;
+                previous = category.getTotal_sold();
+                if (ranks == 2 && top.size() > 1 || ranks > 2) {
+                    break;
+                }
+            }
+            top.add(category);
+        }
+        return List.copyOf(top);
+    }
+
+    public record Snapshot(List<CategoryResponseDto> categories, Instant refreshedAt) {
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.repository.check;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.example.config.DatabaseNotificationListener;
+import org.example.dto.check.CheckDetailsDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CheckCache {
+
+    static final String CHECK_CHANNEL = "check_changed";
+
+    private final Cache<String, CheckDetailsDto> cache;
+    private final AtomicLong version = new AtomicLong();
+
+    public CheckCache(
+            @Value("${check.cache.max-size}") long maxSize,
+            @Value("${check.cache.ttl-ms}") long ttlMs,
+            MeterRegistry meterRegistry,
+            DatabaseNotificationListener notificationListener) {
+        // checks are never edited once printed; the TTL only bounds a missed delete notification
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "check");
+        notificationListener.subscribe(CHECK_CHANNEL, this::invalidate, this::invalidateAll);
+    }
+
+    public Optional<CheckDetailsDto> get(String checkNumber,
+                                         Function<String, Optional<CheckDetailsDto>> loader) {
+        CheckDetailsDto cached = cache.getIfPresent(checkNumber);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long loadVersion = version.get();
+        Optional<CheckDetailsDto> loaded = loader.apply(checkNumber);
+        loaded.ifPresent(check -> cache.asMap().compute(checkNumber, (number, current) ->
+                current != null || version.get() != loadVersion ? current : check));
+        return loaded;
+    }
+
+    public void invalidate(String checkNumber) {
+        version.incrementAndGet();
+        cache.invalidate(checkNumber);
+    }
+
+    public void invalidateAll() {
+        version.incrementAndGet();
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,223 @@
+package org.example.repository.check;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.example.dto.check.CheckRequestDto;
+import org.example.dto.helper.CheckResponseDto;
+import org.example.exception.custom_exception.ServiceUnavailableException;
+import org.example.exception.handler.BaseServiceException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Component
+public class CheckGroupCommitWriter {
+
+    private static final long POLL_MS = 100;
+
+    private final CheckRepository checkRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxBatch;
+    private final long maxWaitNanos;
+    private final long timeoutMs;
+    private final BlockingQueue<PendingCheck> queue;
+    private final Timer latency;
+    private final DistributionSummary batchSize;
+    private final Counter rejected;
+    private volatile boolean running;
+    private Thread worker;
+
+    public CheckGroupCommitWriter(
+            CheckRepository checkRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${check.group-commit.enabled}") boolean enabled,
+            @Value("${check.group-commit.max-batch}") int maxBatch,
+            @Value("${check.group-commit.max-wait-ms}") long maxWaitMs,
+            @Value("${check.group-commit.queue-capacity}") int queueCapacity,
+            @Value("${check.group-commit.timeout-ms}") long timeoutMs,
+            MeterRegistry meterRegistry) {
+        this.checkRepository = checkRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.maxBatch = maxBatch;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.timeoutMs = timeoutMs;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.latency = meterRegistry.timer("check.group-commit.latency");
+        this.batchSize = meterRegistry.summary("check.group-commit.batch.size");
+        this.rejected = meterRegistry.counter("check.group-commit.rejected");
+        meterRegistry.gauge("check.group-commit.queue.size", queue, BlockingQueue::size);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    public CompletableFuture<CheckResponseDto> submit(CheckRequestDto requestDto,
+                                                      String idEmployee) {
+        PendingCheck pending = new PendingCheck(requestDto, idEmployee,
+                new PendingResult(), System.nanoTime());
+        if (!running) {
+            throw new ServiceUnavailableException("Check writer is not running, retry later");
+        }
+        if (!queue.offer(pending)) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Too many checks in flight, retry later");
+        }
+        return pending.result();
+    }
+
+    @PostConstruct
+    public synchronized void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::drain, "check-group-commit");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.join(POLL_MS * 10);
+            worker = null;
+        }
+        List<PendingCheck> leftover = new ArrayList<>();
+        queue.drainTo(leftover);
+        leftover.forEach(pending -> pending.result().completeExceptionally(
+                new ServiceUnavailableException("Check writer stopped, retry later")));
+    }
+
+    private void drain() {
+        List<PendingCheck> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingCheck first = queue.poll(POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < maxBatch) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingCheck next = remaining > 0
+                            ? queue.poll(remaining, TimeUnit.NANOSECONDS)
+                            : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                commit(batch);
+                running = false;
+            } catch (Throwable e) {
+                // keep the worker alive; callers waiting on this batch get the failure instead
+                batch.forEach(pending -> pending.result().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void commit(List<PendingCheck> batch) {
+        // a caller that gave up has cancelled its check, and it must not be written behind its back
+        List<PendingCheck> claimed = batch.stream()
+                .filter(pending -> pending.result().claim())
+                .toList();
+        if (claimed.isEmpty()) {
+            return;
+        }
+        batchSize.record(claimed.size());
+        Map<PendingCheck, CheckResponseDto> written = new LinkedHashMap<>();
+        Map<PendingCheck, RuntimeException> failed = new LinkedHashMap<>();
+        List<PendingCheck> retry = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (PendingCheck pending : claimed) {
+                    Object savepoint = status.createSavepoint();
+                    try {
+                        written.put(pending,
+                                checkRepository.insert(pending.requestDto(), pending.idEmployee()));
+                        status.releaseSavepoint(savepoint);
+                    } catch (BaseServiceException | DataIntegrityViolationException e) {
+                        status.rollbackToSavepoint(savepoint);
+                        failed.put(pending, e);
+                    } catch (DataAccessException e) {
+                        status.rollbackToSavepoint(savepoint);
+                        retry.add(pending);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            // nothing from this batch was committed, so every check gets its own attempt
+            written.clear();
+            failed.clear();
+            retry.clear();
+            retry.addAll(claimed);
+        }
+        written.forEach((pending, check) -> complete(pending, check, null));
+        failed.forEach((pending, e) -> complete(pending, null, e));
+        for (PendingCheck pending : retry) {
+            try {
+                complete(pending, checkRepository.save(pending.requestDto(), pending.idEmployee()),
+                        null);
+            } catch (RuntimeException e) {
+                complete(pending, null, e);
+            }
+        }
+    }
+
+    private void complete(PendingCheck pending, CheckResponseDto check, RuntimeException error) {
+        latency.record(System.nanoTime() - pending.enqueuedAt(), TimeUnit.NANOSECONDS);
+        if (error != null) {
+            pending.result().completeExceptionally(error);
+        } else {
+            pending.result().complete(check);
+        }
+    }
+
+    record PendingCheck(CheckRequestDto requestDto, String idEmployee,
+                        PendingResult result, long enqueuedAt) {
+    }
+
+    static final class PendingResult extends CompletableFuture<CheckResponseDto> {
+
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        boolean claim() {
+            return !isDone() && claimed.compareAndSet(false, true);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            // once the writer has claimed the check its outcome is decided by the transaction
+            return claimed.compareAndSet(false, true) && super.cancel(mayInterruptIfRunning);
+        }
+    }
+}
@@ -1,17 +1,42 @@
 package org.example.repository.check;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import lombok.RequiredArgsConstructor;
+import org.example.dto.check.CheckDetailsDto;
+import org.example.dto.check.CheckItemRequestDto;
+import org.example.dto.check.CheckProductDto;
+import org.example.dto.check.CheckRequestDto;
 import org.example.dto.helper.CheckResponseDto;
+import org.example.dto.page.PageCursor;
+import org.example.dto.page.PageResponseDto;
+import org.example.exception.custom_exception.EntityNotFoundException;
+import org.example.exception.custom_exception.InvalidParameterException;
+import org.example.exception.custom_exception.InvalidProductException;
+import org.example.repository.store_product.StoreProductPriceCache;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @RequiredArgsConstructor
 @Repository
 public class CheckRepository {
 
+    private static final BigDecimal VAT_RATE = new BigDecimal("0.20");
+
     private final JdbcTemplate jdbcTemplate;
+    private final StoreProductPriceCache priceCache;
+    private final CheckCache checkCache;
 
     private final RowMapper<CheckResponseDto> mapper
             = (rs, rowNum) -> {
@@ -25,15 +50,227 @@ public class CheckRepository {
         return dto;
     };
 
-    public List<CheckResponseDto> findAll() {
+    @Transactional
+    public CheckResponseDto save(CheckRequestDto requestDto, String idEmployee) {
+        return insert(requestDto, idEmployee);
+    }
+
+    public CheckResponseDto insert(CheckRequestDto requestDto, String idEmployee) {
+        Map<String, Integer> quantities = new TreeMap<>();
+        for (CheckItemRequestDto item : requestDto.getProducts()) {
+            quantities.merge(item.getUPC(), item.getQuantity(), Integer::sum);
+        }
+        String[] upcs = quantities.keySet().toArray(String[]::new);
+        Integer[] amounts = quantities.values().toArray(Integer[]::new);
+        Set<String> sold = new HashSet<>();
+        CheckResponseDto[] created = new CheckResponseDto[1];
+        jdbcTemplate.query(
+                """
+                WITH items AS (
+                    SELECT *
+                    FROM unnest(?::varchar[], ?::int[]) AS t(UPC, quantity)
+                ),
+                locked AS (
+                    SELECT sp.UPC, i.quantity
+                    FROM store_product sp
+                    JOIN items i ON i.UPC = sp.UPC
+                    WHERE sp.is_deleted = false
+                    ORDER BY sp.UPC
+                    FOR UPDATE OF sp
+                ),
+                stock AS (
+                    UPDATE store_product sp
+                    SET products_number = sp.products_number - l.quantity
+                    FROM locked l
+                    WHERE sp.UPC = l.UPC
+                      AND sp.products_number >= l.quantity
+                    RETURNING sp.UPC, sp.selling_price, l.quantity
+                ),
+                totals AS (
+                    SELECT COUNT(*) AS lines, SUM(selling_price * quantity) AS total
+                    FROM stock
+                ),
+                new_check AS (
+                    INSERT INTO checks (
+                        check_number,
+                        id_employee,
+                        card_number,
+                        print_date,
+                        sum_total,
+                        vat
+                    )
+                    SELECT ?, ?, c.card_number, CURRENT_DATE,
+                           t.total * (1 - c.customer_percent / 100.0),
+                           t.total * ?
+                    FROM totals t
+                    JOIN customer_card c ON c.card_number = ?
+                    WHERE t.lines = ?
+                    RETURNING check_number, id_employee, card_number, print_date, sum_total, vat
+                ),
+                sold AS (
+                    INSERT INTO sale (product_number, UPC, check_number, selling_price)
+                    SELECT s.quantity, s.UPC, n.check_number, s.selling_price
+                    FROM stock s
+                    CROSS JOIN new_check n
+                )
+                SELECT s.UPC, n.check_number, n.id_employee, n.card_number, n.print_date,
+                       n.sum_total, n.vat
+                FROM stock s
+                LEFT JOIN new_check n ON TRUE
+                """,
+                rs -> {
+                    sold.add(rs.getString("UPC"));
+                    if (rs.getString("check_number") != null && created[0] == null) {
+                        created[0] = mapper.mapRow(rs, 0);
+                    }
+                },
+                upcs,
+                amounts,
+                requestDto.getCheck_number(),
+                idEmployee,
+                VAT_RATE,
+                requestDto.getCard_number(),
+                upcs.length
+        );
+        sold.forEach(priceCache::invalidate);
+        if (sold.size() < upcs.length) {
+            Set<String> missing = new TreeSet<>(quantities.keySet());
+            missing.removeAll(sold);
+            throw new InvalidProductException(
+                    "Store product not found or out of stock: " + String.join(", ", missing));
+        }
+        if (created[0] == null) {
+            throw new EntityNotFoundException(
+                    "Customer card not found: " + requestDto.getCard_number());
+        }
+        return created[0];
+    }
+
+    public Optional<CheckDetailsDto> findByNumber(String checkNumber) {
+        return checkCache.get(checkNumber, this::loadByNumber);
+    }
+
+    private Optional<CheckDetailsDto> loadByNumber(String checkNumber) {
+        CheckDetailsDto[] check = new CheckDetailsDto[1];
+        jdbcTemplate.query(
+                """
+                SELECT check_number, id_employee, card_number, print_date, sum_total, vat,
+                       product_name, selling_price, product_number
+                FROM check_list_view
+                WHERE check_number = ?
+                ORDER BY product_name
+                """,
+                rs -> {
+                    if (check[0] == null) {
+                        check[0] = new CheckDetailsDto();
+                        check[0].setCheck_number(rs.getString("check_number"));
+                        check[0].setId_employee(rs.getString("id_employee"));
+                        check[0].setCard_number(rs.getString("card_number"));
+                        check[0].setPrint_date(rs.getTimestamp("print_date").toLocalDateTime());
+                        check[0].setSum_total(rs.getBigDecimal("sum_total"));
+                        check[0].setVat(rs.getBigDecimal("vat"));
+                    }
+                    CheckProductDto product = new CheckProductDto();
+                    product.setProduct_name(rs.getString("product_name"));
+                    product.setSelling_price(rs.getBigDecimal("selling_price"));
+                    product.setProduct_number(rs.getInt("product_number"));
+                    check[0].getProducts().add(product);
+                },
+                checkNumber
+        );
+        return Optional.ofNullable(check[0]);
+    }
+
+    public List<CheckResponseDto> findAll(LocalDate from, LocalDate to, String idEmployee) {
+        List<Object> params = new ArrayList<>();
+        String filter = filter(from, to, idEmployee, params);
         return jdbcTemplate.query(
-                        """
-                        SELECT check_number, id_employee, card_number, print_date, sum_total, vat
-                        FROM checks
-                        ORDER BY check_number
-                        """,
-                        mapper
-                ).stream()
-                .toList();
+                """
+                SELECT check_number, id_employee, card_number, print_date, sum_total, vat
+                FROM checks
+                WHERE TRUE%s
+                ORDER BY print_date DESC, check_number DESC
+                """.formatted(filter),
+                mapper,
+                params.toArray()
+        );
+    }
+
+    public PageResponseDto<CheckResponseDto> findPage(LocalDate from,
+                                                      LocalDate to,
+                                                      String idEmployee,
+                                                      String cursor,
+                                                      int pageSize) {
+        List<Object> params = new ArrayList<>();
+        String filter = filter(from, to, idEmployee, params);
+        boolean firstPage = cursor == null || cursor.isEmpty();
+        // later pages would repeat the same scan, so only the first one carries the total
+        Long total = firstPage ? count(filter, params) : null;
+        StringBuilder keyset = new StringBuilder();
+        if (!firstPage) {
+            List<String> position = PageCursor.decode(cursor, 2);
+            LocalDate printDate;
+            try {
+                printDate = LocalDate.parse(position.get(0));
+            } catch (DateTimeParseException e) {
+                throw new InvalidParameterException("Malformed page cursor: " + cursor);
+            }
+            keyset.append(" AND print_date <= ? AND (print_date, check_number) < (?, ?)");
+            params.add(printDate);
+            params.add(printDate);
+            params.add(position.get(1));
+        }
+        params.add(pageSize + 1);
+        List<CheckResponseDto> rows = jdbcTemplate.query(
+                """
+                SELECT check_number, id_employee, card_number, print_date, sum_total, vat
+                FROM checks
+                WHERE TRUE%s%s
+                ORDER BY print_date DESC, check_number DESC
+                FETCH FIRST ? ROWS ONLY
+                """.formatted(filter, keyset),
+                mapper,
+                params.toArray()
+        );
+        boolean hasNext = rows.size() > pageSize;
+        List<CheckResponseDto> items = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            CheckResponseDto last = items.get(items.size() - 1);
+            nextCursor = PageCursor.encode(last.getPrint_date().toLocalDate().toString(),
+                    last.getCheck_number());
+        }
+        return PageResponseDto.of(items, pageSize, total, hasNext, nextCursor);
+    }
+
+    private long count(String filter, List<Object> params) {
+        Long count = jdbcTemplate.queryForObject(
+                """
+                SELECT COUNT(*)
+                FROM checks
+                WHERE TRUE%s
+                """.formatted(filter),
+                Long.class,
+                params.toArray()
+        );
+        return count != null ? count : 0;
+    }
+
+    private static String filter(LocalDate from, LocalDate to, String idEmployee,
+                                 List<Object> params) {
+        StringBuilder filter = new StringBuilder();
+        if (idEmployee != null) {
+            filter.append(" AND id_employee = ?");
+            params.add(idEmployee);
+        }
+        if (from != null) {
+            filter.append(" AND print_date >= ?");
+            params.add(from);
+        }
+        if (to != null) {
+            filter.append(" AND print_date <= ?");
+            params.add(to);
+        }
+        return filter.toString();
     }
 }
@@ -0,0 +1,122 @@
+package org.example.repository.customer_card;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import org.example.config.DatabaseNotificationListener;
+import org.example.dto.helper.CustomerCardDiscountDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CustomerCardDiscountCache {
+
+    static final String CARD_CHANNEL = "customer_card_changed";
+    // object headers, the DTO fields and the map node, before the string contents
+    private static final int ENTRY_OVERHEAD_BYTES = 160;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<String, CustomerCardDiscountDto> cache;
+    private final AtomicLong version = new AtomicLong();
+
+    private final RowMapper<CustomerCardDiscountDto> mapper
+            = (rs, rowNum) -> {
+        CustomerCardDiscountDto dto = new CustomerCardDiscountDto();
+        dto.setCard_number(rs.getString("card_number"));
+        dto.setCustomer_name(rs.getString("customer_surname") + " "
+                + rs.getString("customer_name"));
+        dto.setPercent(rs.getInt("customer_percent"));
+        return dto;
+    };
+
+    public CustomerCardDiscountCache(
+            JdbcTemplate jdbcTemplate,
+            @Value("${customer-card.cache.max-bytes}") long maxBytes,
+            MeterRegistry meterRegistry,
+            DatabaseNotificationListener notificationListener) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher(CustomerCardDiscountCache::weigh)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "customer_card");
+        // callbacks run on the listener thread, so they only drop entries and leave loading to find
+        notificationListener.subscribe(CARD_CHANNEL, this::invalidate, this::invalidateAll);
+    }
+
+    public Optional<CustomerCardDiscountDto> find(String cardNumber) {
+        CustomerCardDiscountDto cached = cache.getIfPresent(cardNumber);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long loadVersion = version.get();
+        List<CustomerCardDiscountDto> loaded = jdbcTemplate.query(
+                """
+                SELECT card_number, customer_surname, customer_name, customer_percent
+                FROM customer_card
+                WHERE card_number = ?
+                """,
+                mapper,
+                cardNumber
+        );
+        if (loaded.isEmpty()) {
+            return Optional.empty();
+        }
+        // a card changed while it was being read must not be published over the invalidation
+        cache.asMap().compute(cardNumber, (number, current) ->
+                current != null || version.get() != loadVersion ? current : loaded.get(0));
+        return Optional.of(loaded.get(0));
+    }
+
+    public void invalidate(String cardNumber) {
+        version.incrementAndGet();
+        cache.invalidate(cardNumber);
+    }
+
+    public void invalidateAll() {
+        version.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            load();
+        } catch (DataAccessException e) {
+            cache.invalidateAll();
+        }
+    }
+
+    private void load() {
+        long loadVersion = version.get();
+        jdbcTemplate.query(
+                """
+                SELECT card_number, customer_surname, customer_name, customer_percent
+                FROM customer_card
+                """,
+                rs -> {
+                    // once a card changes mid-load the rest of the snapshot may be stale
+                    if (version.get() == loadVersion) {
+                        CustomerCardDiscountDto card = mapper.mapRow(rs, 0);
+                        cache.asMap().putIfAbsent(card.getCard_number(), card);
+                    }
+                }
+        );
+    }
+
+    private static int weigh(String cardNumber, CustomerCardDiscountDto card) {
+        return ENTRY_OVERHEAD_BYTES
+                + 2 * (cardNumber.length() + card.getCard_number().length()
+                + card.getCustomer_name().length());
+    }
+}
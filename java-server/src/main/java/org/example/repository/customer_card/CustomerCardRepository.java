@@ -1,8 +1,11 @@
 package org.example.repository.customer_card;
 
+import java.util.ArrayList;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.example.dto.helper.CustomerCardResponseDto;
+import org.example.dto.page.PageCursor;
+import org.example.dto.page.PageResponseDto;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
@@ -42,4 +45,74 @@ public class CustomerCardRepository {
                 ).stream()
                 .toList();
     }
+
+    public PageResponseDto<CustomerCardResponseDto> findPage(String surname,
+                                                             String phone,
+                                                             String cursor,
+                                                             int pageSize) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder filter = new StringBuilder();
+        if (surname != null) {
+            filter.append(" AND lower(customer_surname) COLLATE \"C\" LIKE lower(?)");
+            params.add(escapeLike(surname) + "%");
+        }
+        if (phone != null) {
+            filter.append(" AND phone_number = ?");
+            params.add(phone);
+        }
+        boolean firstPage = cursor == null || cursor.isEmpty();
+        // later pages would repeat the same scan, so only the first one carries the total
+        Long total = firstPage ? count(filter.toString(), params) : null;
+        if (!firstPage) {
+            List<String> position = PageCursor.decode(cursor, 2);
+            filter.append(" AND (lower(customer_surname) COLLATE \"C\", card_number COLLATE \"C\")"
+                    + " > (lower(?), ?)");
+            params.add(position.get(0));
+            params.add(position.get(1));
+        }
+        params.add(pageSize + 1);
+        // byte order on the lower-cased surname lets the same index serve prefix search and paging
+        List<CustomerCardResponseDto> rows = jdbcTemplate.query(
+                """
+                SELECT card_number, customer_surname AS cust_surname,
+                       customer_name AS cust_name,
+                       customer_patronymic AS cust_patronymic,
+                       phone_number, city, street, zip_code,
+                       customer_percent AS percent
+                FROM customer_card
+                WHERE TRUE%s
+                ORDER BY lower(customer_surname) COLLATE "C", card_number COLLATE "C"
+                FETCH FIRST ? ROWS ONLY
+                """.formatted(filter),
+                mapper,
+                params.toArray()
+        );
+        boolean hasNext = rows.size() > pageSize;
+        List<CustomerCardResponseDto> items = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            CustomerCardResponseDto last = items.get(items.size() - 1);
+            nextCursor = PageCursor.encode(last.getCust_surname(), last.getCard_number());
+        }
+        return PageResponseDto.of(items, pageSize, total, hasNext, nextCursor);
+    }
+
+    private long count(String filter, List<Object> params) {
+        Long count = jdbcTemplate.queryForObject(
+                """
+                SELECT COUNT(*)
+                FROM customer_card
+                WHERE TRUE%s
+                """.formatted(filter),
+                Long.class,
+                params.toArray()
+        );
+        return count != null ? count : 0;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
 }
@@ -0,0 +1,123 @@
+package org.example.repository.product;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import org.example.config.DatabaseNotificationListener;
+import org.example.dto.product.ProductDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Component
+public class ProductCache {
+
+    static final String CATEGORY_CHANNEL = "category_changed";
+
+    private final Cache<Integer, Entry> cache;
+    private final AtomicLong version = new AtomicLong();
+
+    public ProductCache(
+            @Value("${product.cache.max-size}") long maxSize,
+            @Value("${product.cache.ttl-ms}") long ttlMs,
+            MeterRegistry meterRegistry,
+            DatabaseNotificationListener notificationListener) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "product");
+        notificationListener.subscribe(CATEGORY_CHANNEL,
+                this::onCategoryChanged, this::invalidateAll);
+    }
+
+    public Optional<ProductDto> get(int idProduct, IntFunction<Optional<ProductDto>> loader) {
+        Entry cached = cache.getIfPresent(idProduct);
+        if (cached != null) {
+            return Optional.of(copy(cached.product()));
+        }
+        long loadVersion = version.get();
+        Optional<ProductDto> loaded = loader.apply(idProduct);
+        // an invalidation that raced with the load may have removed a newer value,
+        // so only publish what was read if nothing was invalidated in the meantime
+        loaded.ifPresent(product -> cache.asMap().compute(idProduct, (id, current) -> {
+            if (current != null || version.get() != loadVersion) {
+                return current;
+            }
+            return new Entry(copy(product), loadVersion);
+        }));
+        return loaded;
+    }
+
+    public Optional<Long> versionOf(int idProduct) {
+        return Optional.ofNullable(cache.getIfPresent(idProduct)).map(Entry::version);
+    }
+
+    public void invalidate(int idProduct) {
+        invalidate(List.of(idProduct));
+    }
+
+    public void invalidate(Collection<Integer> idProducts) {
+        evict(idProducts);
+        // a read between this write and its commit would cache the old row again
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            evict(idProducts);
+                        }
+                    });
+        }
+    }
+
+    private void evict(Collection<Integer> idProducts) {
+        version.incrementAndGet();
+        cache.invalidateAll(idProducts);
+    }
+
+    public void invalidateCategory(long categoryNumber) {
+        version.incrementAndGet();
+        cache.asMap().values()
+                .removeIf(entry -> entry.product().getCategory_number() == categoryNumber);
+    }
+
+    public void invalidateAll() {
+        version.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private void onCategoryChanged(String payload) {
+        try {
+            invalidateCategory(Long.parseLong(payload));
+        } catch (NumberFormatException e) {
+            invalidateAll();
+        }
+    }
+
+    // callers get their own instance, so nothing they set can leak into the cache
+    private static ProductDto copy(ProductDto product) {
+        ProductDto copy = new ProductDto();
+        copy.setId_product(product.getId_product());
+        copy.setProduct_name(product.getProduct_name());
+        copy.setProducer(product.getProducer());
+        copy.setProduct_characteristics(product.getProduct_characteristics());
+        copy.setCategory_number(product.getCategory_number());
+        copy.setCategory_name(product.getCategory_name());
+        copy.setSold_number(product.getSold_number());
+        copy.setTotal_sold(product.getTotal_sold());
+        return copy;
+    }
+
+    private record Entry(ProductDto product, long version) {
+    }
+}
@@ -2,8 +2,10 @@ package org.example.repository.product;
 
 import lombok.RequiredArgsConstructor;
 import org.example.dto.page.PageResponseDto;
+import org.example.dto.product.ProductBulkItemDto;
 import org.example.dto.product.ProductDto;
 import org.example.dto.product.ProductRequestDto;
+import org.example.dto.product.ProductSuggestionDto;
 import org.example.exception.custom_exception.EntityNotFoundException;
 import org.example.exception.custom_exception.InvalidCategoryException;
 import org.example.mapper.product.ProductMapper;
@@ -13,43 +15,38 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @RequiredArgsConstructor
 @Repository
 public class ProductRepository {
 
+    private static final int BULK_BATCH_SIZE = 1000;
+
     private final JdbcTemplate jdbcTemplate;
     private final ProductRowMapper rowMapper;
     private final ProductMapper productMapper;
+    private final ProductCache productCache;
 
     public PageResponseDto<ProductDto> findSold(Pageable pageable, double minTotalSold) {
         long offset = pageable.getOffset();
         List<ProductDto> products = jdbcTemplate.query(
                 """
-                SELECT p.id_product, p.product_name,
-                       SUM(s1.product_number) AS sold_number,
-                       SUM(s1.selling_price * s1.product_number) AS total_sold
-                FROM product p
-                INNER JOIN store_product sp1
-                    ON sp1.id_product = p.id_product
-                INNER JOIN sale s1
-                    ON s1.UPC = sp1.UPC
-                WHERE NOT EXISTS(
-                        SELECT 1
-                        FROM store_product sp3
-                        WHERE sp3.id_product = p.id_product
-                        AND NOT EXISTS(
-                            SELECT 1
-                            FROM sale s2
-                            WHERE s2.UPC = sp3.UPC
-                        )
-                      )
-                GROUP BY p.id_product, p.product_name
-                HAVING SUM(s1.selling_price * s1.product_number) >= ?
-                ORDER BY p.id_product
+                SELECT p.id_product, p.product_name, s.sold_number, s.total_sold
+                FROM product_sales_summary s
+                INNER JOIN product p
+                    ON p.id_product = s.id_product
+                WHERE s.all_sold
+                  AND s.total_sold >= ?
+                ORDER BY s.id_product
                 OFFSET ? ROWS FETCH NEXT ? ROWS ONLY
                 """,
                 rowMapper,
@@ -65,6 +62,12 @@ public class ProductRepository {
                 offset + products.size() < total);
     }
 
+    public void rebuildSalesSummary() {
+        jdbcTemplate.execute(
+                "SELECT product_sales_summary_refresh(ARRAY(SELECT id_product FROM product))"
+        );
+    }
+
     public PageResponseDto<ProductDto> findAll(Pageable pageable) {
         long offset = pageable.getOffset();
         List<ProductDto> products = jdbcTemplate.query(
@@ -137,6 +140,53 @@ public class ProductRepository {
                 offset + products.size() < total);
     }
 
+    public List<ProductSuggestionDto> suggest(String query, int limit, boolean similarity) {
+        String pattern = escapeLike(query);
+        RowMapper<ProductSuggestionDto> suggestionMapper = (rs, rowNum) -> new ProductSuggestionDto(
+                rs.getInt("id_product"),
+                rs.getString("product_name"));
+        if (similarity) {
+            return jdbcTemplate.query(
+                    """
+                    SELECT id_product, product_name
+                    FROM product
+                    WHERE product_name ILIKE ?
+                       OR product_name % ?
+                    ORDER BY product_name ILIKE ? DESC,
+                             similarity(product_name, ?) DESC,
+                             product_name, id_product
+                    FETCH FIRST ? ROWS ONLY
+                    """,
+                    suggestionMapper,
+                    "%" + pattern + "%",
+                    query,
+                    pattern + "%",
+                    query,
+                    limit
+            );
+        }
+        return jdbcTemplate.query(
+                """
+                SELECT id_product, product_name
+                FROM product
+                WHERE product_name ILIKE ?
+                ORDER BY product_name ILIKE ? DESC,
+                         product_name, id_product
+                FETCH FIRST ? ROWS ONLY
+                """,
+                suggestionMapper,
+                "%" + pattern + "%",
+                pattern + "%",
+                limit
+        );
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
     public PageResponseDto<ProductDto> findByCategoryId(int categoryNumber,
                                                         Pageable pageable) {
         long offset = pageable.getOffset();
@@ -194,6 +244,10 @@ public class ProductRepository {
     }
 
     public Optional<ProductDto> findById(int id) {
+        return productCache.get(id, this::loadById);
+    }
+
+    private Optional<ProductDto> loadById(int id) {
         try {
             Optional<Product> res = Optional.ofNullable(
                     jdbcTemplate.queryForObject(
@@ -256,6 +310,7 @@ public class ProductRepository {
                         product.getId_product()
                 );
 
+                productCache.invalidate(product.getId_product());
                 if (updated == 0) {
                     throw new EntityNotFoundException("Product not found: " + product.getId_product());
                 }
@@ -292,6 +347,7 @@ public class ProductRepository {
                     id
             );
 
+            productCache.invalidate(id);
             if (updatedRows == 0) {
                 throw new EntityNotFoundException("Update failed, product not found: " + id);
             }
@@ -314,6 +370,103 @@ public class ProductRepository {
                         FROM product
                         WHERE id_product = ?
                         """, id);
+        productCache.invalidate(id);
+    }
+
+    public Set<Integer> findExistingCategoryNumbers(Collection<Integer> categoryNumbers) {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                """
+                SELECT category_number::int
+                FROM category
+                WHERE category_number = ANY(?)
+                """,
+                Integer.class,
+                (Object) categoryNumbers.toArray(Integer[]::new)
+        ));
+    }
+
+    @Transactional
+    public List<Integer> insertAll(List<? extends ProductRequestDto> requestDtos) {
+        if (requestDtos.isEmpty()) {
+            return List.of();
+        }
+        List<Integer> ids = jdbcTemplate.queryForList(
+                """
+                SELECT nextval(pg_get_serial_sequence('product', 'id_product'))::int
+                FROM generate_series(1, ?)
+                """,
+                Integer.class,
+                requestDtos.size()
+        );
+        List<NewProduct> products = new ArrayList<>(requestDtos.size());
+        for (int i = 0; i < requestDtos.size(); i++) {
+            products.add(new NewProduct(ids.get(i), requestDtos.get(i)));
+        }
+        try {
+            jdbcTemplate.batchUpdate(
+                    """
+                    INSERT INTO product (
+                        id_product,
+                        category_number,
+                        product_name,
+                        producer,
+                        product_characteristics
+                    ) VALUES (?, ?, ?, ?, ?)
+                    """,
+                    products,
+                    BULK_BATCH_SIZE,
+                    (ps, product) -> {
+                        ps.setInt(1, product.id());
+                        ps.setInt(2, product.requestDto().getCategory_number());
+                        ps.setString(3, product.requestDto().getProduct_name());
+                        ps.setString(4, product.requestDto().getProducer());
+                        ps.setString(5, product.requestDto().getProduct_characteristics());
+                    }
+            );
+        } catch (DataIntegrityViolationException e) {
+            throw new InvalidCategoryException("Invalid category in bulk insert");
+        }
+        return ids;
+    }
+
+    @Transactional
+    public int[] updateAll(List<ProductBulkItemDto> requestDtos) {
+        if (requestDtos.isEmpty()) {
+            return new int[0];
+        }
+        int[][] counts;
+        try {
+            counts = jdbcTemplate.batchUpdate(
+                    """
+                    UPDATE product SET
+                        product_name = ?,
+                        producer = ?,
+                        product_characteristics = ?,
+                        category_number = ?
+                    WHERE id_product = ?
+                    """,
+                    requestDtos,
+                    BULK_BATCH_SIZE,
+                    (ps, requestDto) -> {
+                        ps.setString(1, requestDto.getProduct_name());
+                        ps.setString(2, requestDto.getProducer());
+                        ps.setString(3, requestDto.getProduct_characteristics());
+                        ps.setInt(4, requestDto.getCategory_number());
+                        ps.setInt(5, requestDto.getId_product());
+                    }
+            );
+        } catch (DataIntegrityViolationException e) {
+            throw new InvalidCategoryException("Invalid category in bulk update");
+        }
+        productCache.invalidate(requestDtos.stream().map(ProductBulkItemDto::getId_product).toList());
+        int[] updated = new int[requestDtos.size()];
+        int i = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                updated[i++] = count;
+            }
+        }
+        return updated;
     }
 
     public boolean existsByIdProduct(int idProduct) {
@@ -382,27 +535,16 @@ public class ProductRepository {
         Integer count = jdbcTemplate.queryForObject(
                 """
                 SELECT COUNT(*)
-                FROM (SELECT p.id_product
-                      FROM product p
-                      INNER JOIN store_product sp1
-                          ON sp1.id_product = p.id_product
-                      INNER JOIN sale s1
-                          ON s1.UPC = sp1.UPC
-                      WHERE NOT EXISTS(SELECT 1
-                                       FROM store_product sp3
-                                       WHERE sp3.id_product = p.id_product
-                                             AND NOT EXISTS(SELECT 1
-                                                            FROM sale s2
-                                                            WHERE s2.UPC = sp3.UPC
-                                                            )
-                                       )
-                      GROUP BY p.id_product
-                      HAVING SUM(s1.selling_price * s1.product_number) >= ?
-                      )
+                FROM product_sales_summary
+                WHERE all_sold
+                  AND total_sold >= ?
                 """,
                 Integer.class,
                 minTotalSold
         );
         return count != null ? count : 0;
     }
+
+    private record NewProduct(int id, ProductRequestDto requestDto) {
+    }
 }
@@ -0,0 +1,73 @@
+package org.example.repository.ranking;
+
+import java.time.LocalDate;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.example.dto.ranking.CategoryRankingDto;
+import org.example.dto.ranking.ProductRankingDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@RequiredArgsConstructor
+@Repository
+public class SalesRankingRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<CategoryRankingDto> findTopCategories(LocalDate from, LocalDate to, int limit) {
+        return jdbcTemplate.query(
+                """
+                SELECT c.category_number, c.category_name,
+                       SUM(r.units) AS units, SUM(r.revenue) AS revenue
+                FROM sale_daily_rollup r
+                INNER JOIN store_product sp ON sp.UPC = r.UPC
+                INNER JOIN product p ON p.id_product = sp.id_product
+                INNER JOIN category c ON c.category_number = p.category_number
+                WHERE r.day BETWEEN ? AND ?
+                GROUP BY c.category_number, c.category_name
+                HAVING SUM(r.units) > 0
+                ORDER BY units DESC, revenue DESC, c.category_number
+                FETCH FIRST ? ROWS ONLY
+                """,
+                (rs, rowNum) -> {
+                    CategoryRankingDto dto = new CategoryRankingDto();
+                    dto.setCategory_number(rs.getInt("category_number"));
+                    dto.setCategory_name(rs.getString("category_name"));
+                    dto.setUnits(rs.getLong("units"));
+                    dto.setRevenue(rs.getBigDecimal("revenue"));
+                    return dto;
+                },
+                from,
+                to,
+                limit
+        );
+    }
+
+    public List<ProductRankingDto> findTopProducts(LocalDate from, LocalDate to, int limit) {
+        return jdbcTemplate.query(
+                """
+                SELECT p.id_product, p.product_name,
+                       SUM(r.units) AS units, SUM(r.revenue) AS revenue
+                FROM sale_daily_rollup r
+                INNER JOIN store_product sp ON sp.UPC = r.UPC
+                INNER JOIN product p ON p.id_product = sp.id_product
+                WHERE r.day BETWEEN ? AND ?
+                GROUP BY p.id_product, p.product_name
+                HAVING SUM(r.units) > 0
+                ORDER BY units DESC, revenue DESC, p.id_product
+                FETCH FIRST ? ROWS ONLY
+                """,
+                (rs, rowNum) -> {
+                    ProductRankingDto dto = new ProductRankingDto();
+                    dto.setId_product(rs.getInt("id_product"));
+                    dto.setProduct_name(rs.getString("product_name"));
+                    dto.setUnits(rs.getLong("units"));
+                    dto.setRevenue(rs.getBigDecimal("revenue"));
+                    return dto;
+                },
+                from,
+                to,
+                limit
+        );
+    }
+}
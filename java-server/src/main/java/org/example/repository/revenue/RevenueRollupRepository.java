@@ -0,0 +1,88 @@
+package org.example.repository.revenue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.example.dto.revenue.DailyRevenueDto;
+import org.example.dto.revenue.EmployeeRevenueDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@RequiredArgsConstructor
+@Repository
+public class RevenueRollupRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<DailyRevenueDto> findDaily(LocalDate from, LocalDate to, String idEmployee) {
+        List<Object> params = new ArrayList<>(List.of(from, to));
+        String filter = "";
+        if (idEmployee != null) {
+            filter = " AND id_employee = ?";
+            params.add(idEmployee);
+        }
+        return jdbcTemplate.query(
+                """
+                SELECT day, SUM(checks) AS checks, SUM(sum_total) AS sum_total, SUM(vat) AS vat
+                FROM revenue_daily_rollup
+                WHERE day BETWEEN ? AND ?%s
+                GROUP BY day
+                HAVING SUM(checks) > 0
+                ORDER BY day
+                """.formatted(filter),
+                (rs, rowNum) -> {
+                    DailyRevenueDto dto = new DailyRevenueDto();
+                    dto.setDay(rs.getDate("day").toLocalDate());
+                    dto.setChecks(rs.getLong("checks"));
+                    dto.setSum_total(rs.getBigDecimal("sum_total"));
+                    dto.setVat(rs.getBigDecimal("vat"));
+                    return dto;
+                },
+                params.toArray()
+        );
+    }
+
+    public List<EmployeeRevenueDto> findByEmployee(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(
+                """
+                SELECT r.id_employee, e.empl_surname, e.empl_name,
+                       SUM(r.checks) AS checks, SUM(r.sum_total) AS sum_total, SUM(r.vat) AS vat
+                FROM revenue_daily_rollup r
+                LEFT JOIN employee e ON e.id_employee = r.id_employee
+                WHERE r.day BETWEEN ? AND ?
+                GROUP BY r.id_employee, e.empl_surname, e.empl_name
+                HAVING SUM(r.checks) > 0
+                ORDER BY sum_total DESC, r.id_employee
+                """,
+                (rs, rowNum) -> {
+                    EmployeeRevenueDto dto = new EmployeeRevenueDto();
+                    dto.setId_employee(rs.getString("id_employee"));
+                    dto.setEmpl_surname(rs.getString("empl_surname"));
+                    dto.setEmpl_name(rs.getString("empl_name"));
+                    dto.setChecks(rs.getLong("checks"));
+                    dto.setSum_total(rs.getBigDecimal("sum_total"));
+                    dto.setVat(rs.getBigDecimal("vat"));
+                    return dto;
+                },
+                from,
+                to
+        );
+    }
+
+    @Transactional
+    public void rebuild() {
+        // keeps check writes and their triggers out until the rollup matches the table again
+        jdbcTemplate.execute("LOCK TABLE checks IN SHARE MODE");
+        jdbcTemplate.update("DELETE FROM revenue_daily_rollup");
+        jdbcTemplate.update(
+                """
+                INSERT INTO revenue_daily_rollup (day, id_employee, checks, sum_total, vat)
+                SELECT print_date, id_employee, COUNT(*), SUM(sum_total), SUM(vat)
+                FROM checks
+                GROUP BY print_date, id_employee
+                """
+        );
+    }
+}
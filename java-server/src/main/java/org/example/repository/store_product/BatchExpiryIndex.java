@@ -0,0 +1,80 @@
+package org.example.repository.store_product;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+@RequiredArgsConstructor
+@Component
+public class BatchExpiryIndex {
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile NavigableMap<LocalDate, Map<Long, ExpiringBatch>> byDay =
+            new ConcurrentSkipListMap<>();
+    private volatile boolean loaded;
+
+    public List<ExpiringBatch> expiringBetween(LocalDate from, LocalDate to) {
+        ensureLoaded();
+        List<ExpiringBatch> batches = new ArrayList<>();
+        byDay.subMap(from, true, to, true).values()
+                .forEach(bucket -> batches.addAll(bucket.values()));
+        return batches;
+    }
+
+    public void add(ExpiringBatch batch) {
+        byDay.computeIfAbsent(batch.expiringDate(), day -> new ConcurrentHashMap<>())
+                .put(batch.id(), batch);
+    }
+
+    public void removeExpiredBefore(LocalDate day) {
+        byDay.headMap(day, false).clear();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            rebuild();
+        } catch (DataAccessException e) {
+            loaded = false;
+        }
+    }
+
+    public void rebuild() {
+        NavigableMap<LocalDate, Map<Long, ExpiringBatch>> rebuilt = new ConcurrentSkipListMap<>();
+        jdbcTemplate.query(
+                """
+                SELECT id, UPC, delivery_date, expiring_date, quantity
+                FROM batch
+                WHERE expiring_date >= CURRENT_DATE
+                """,
+                rs -> {
+                    ExpiringBatch batch = new ExpiringBatch(
+                            rs.getLong("id"),
+                            rs.getString("UPC"),
+                            rs.getObject("delivery_date", LocalDate.class),
+                            rs.getObject("expiring_date", LocalDate.class),
+                            rs.getInt("quantity"));
+                    rebuilt.computeIfAbsent(batch.expiringDate(), day -> new ConcurrentHashMap<>())
+                            .put(batch.id(), batch);
+                }
+        );
+        byDay = rebuilt;
+        loaded = true;
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            rebuild();
+        }
+    }
+}
@@ -2,17 +2,27 @@ package org.example.repository.store_product;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import org.example.dto.store_product.batch.BatchRequestDto;
 import org.example.exception.custom_exception.EntityNotFoundException;
 import org.example.exception.custom_exception.InvalidProductException;
+import org.example.mapper.store_product.StoreProductRowMapper;
 import org.example.model.store_product.StoreProduct;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Repository;
 
 @RequiredArgsConstructor
@@ -23,57 +33,83 @@ public class BatchRepository {
     private static final int MIN_QUANTITY_FOR_PROMOTION = 10;
     private static final int DAYS_BEFORE_EXPIRY = 5;
     private static final BigDecimal PROMO_RATE = new BigDecimal("0.8");
+    private static final int PURGE_CHUNK_SIZE = 500;
 
     private final JdbcTemplate jdbcTemplate;
-    private final StoreProductRepository storeProductRepository;
+    private final StoreProductRowMapper storeProductRowMapper;
+    private final StoreProductCounters counters;
+    private final StoreProductPriceCache priceCache;
+    private final BatchExpiryIndex expiryIndex;
 
     public StoreProduct save(BatchRequestDto requestDto) {
-        BigDecimal priceWithVat = requestDto.getPrice()
-                .multiply(BigDecimal.ONE.add(VAT_RATE))
-                .setScale(2, RoundingMode.HALF_UP);
+        BigDecimal priceWithVat = priceWithVat(requestDto.getPrice());
+        BigDecimal promoPrice = promoPrice(priceWithVat);
+        boolean expiresSoon = expiresSoon(requestDto.getExpiring_date());
 
         try {
-            jdbcTemplate.update(
+            List<ReceivedProduct> received = jdbcTemplate.query(
                     """
-                    INSERT INTO batch (
-                        UPC,
-                        delivery_date,
-                        expiring_date,
-                        quantity,
-                        selling_price
-                    ) VALUES (?, ?, ?, ?, ?)
+                    WITH received AS (
+                        UPDATE store_product sp
+                        SET products_number = sp.products_number + ?,
+                            promotional_product = (? AND sp.products_number + ? >= ?),
+                            selling_price = CASE
+                                WHEN ? AND sp.products_number + ? >= ? THEN ?
+                                ELSE ?
+                            END,
+                            regular_price = ?
+                        FROM store_product old
+                        WHERE old.UPC = sp.UPC
+                          AND sp.UPC = ? AND sp.is_deleted = false
+                        RETURNING sp.UPC, sp.UPC_prom, sp.id_product, sp.selling_price,
+                                  sp.products_number, sp.promotional_product,
+                                  old.promotional_product AS was_promotional
+                    ),
+                    inserted AS (
+                        INSERT INTO batch (
+                            UPC,
+                            delivery_date,
+                            expiring_date,
+                            quantity,
+                            selling_price
+                        )
+                        SELECT UPC, ?, ?, ?, selling_price
+                        FROM received
+                        RETURNING id, UPC, delivery_date, expiring_date, quantity
+                    ),
+                    repriced AS (
+                        UPDATE batch b
+                        SET selling_price = r.selling_price
+                        FROM received r
+                        WHERE b.UPC = r.UPC
+                    )
+                    SELECT r.UPC, r.UPC_prom, r.id_product, r.selling_price,
+                           r.products_number, r.promotional_product, r.was_promotional,
+                           i.id AS batch_id, i.delivery_date, i.expiring_date, i.quantity
+                    FROM received r
+                    JOIN inserted i ON i.UPC = r.UPC
                     """,
+                    this::mapReceived,
+                    requestDto.getQuantity(),
+                    expiresSoon, requestDto.getQuantity(), MIN_QUANTITY_FOR_PROMOTION,
+                    expiresSoon, requestDto.getQuantity(), MIN_QUANTITY_FOR_PROMOTION,
+                    promoPrice,
+                    priceWithVat,
+                    priceWithVat,
                     requestDto.getUPC(),
                     requestDto.getDelivery_date(),
                     requestDto.getExpiring_date(),
-                    requestDto.getQuantity(),
-                    priceWithVat
-            );
-            StoreProduct storeProduct = storeProductRepository.findAllInfoByUPC(requestDto.getUPC())
-                    .orElseThrow(() -> new EntityNotFoundException(
-                            "Store product not found: " + requestDto.getUPC()
-                    ));
-            int updatedQuantity = storeProduct.getProducts_number() + requestDto.getQuantity();
-            boolean shouldBePromotional = checkPromotional(updatedQuantity, requestDto.getExpiring_date());
-            BigDecimal finalPrice = shouldBePromotional
-                    ? priceWithVat.multiply(PROMO_RATE).setScale(2, RoundingMode.HALF_UP)
-                    : priceWithVat;
-            storeProductRepository.updateProductPriceAndPromotion(
-                    storeProduct.getUPC(),
-                    finalPrice,
-                    shouldBePromotional
-            );
-            jdbcTemplate.update(
-                    "UPDATE batch SET selling_price = ? WHERE UPC = ?",
-                    finalPrice,
-                    storeProduct.getUPC()
-            );
-            jdbcTemplate.update(
-                    "UPDATE store_product SET products_number = ? WHERE UPC = ?",
-                    updatedQuantity,
-                    storeProduct.getUPC()
+                    requestDto.getQuantity()
             );
-            return storeProductRepository.findAllInfoByUPC(storeProduct.getUPC()).get();
+            if (received.isEmpty()) {
+                throw new EntityNotFoundException("Store product not found: " + requestDto.getUPC());
+            }
+            ReceivedProduct product = received.get(0);
+            counters.recordPromotionChange(product.wasPromotional(),
+                    product.storeProduct().isPromotional_product());
+            priceCache.invalidate(requestDto.getUPC());
+            expiryIndex.add(product.batch());
+            return product.storeProduct();
         } catch (DataIntegrityViolationException e) {
             throw new InvalidProductException(
                     "Invalid product or UPC reference: " + requestDto.getUPC()
@@ -81,36 +117,282 @@ public class BatchRepository {
         }
     }
 
-    private boolean checkPromotional(int totalQuantity, Date expiringDate) {
+    public List<StoreProduct> saveAll(List<BatchRequestDto> requestDtos) {
+        Map<String, DeliveredProduct> delivered = new LinkedHashMap<>();
+        for (BatchRequestDto requestDto : requestDtos) {
+            delivered.merge(requestDto.getUPC(),
+                    new DeliveredProduct(requestDto.getQuantity(),
+                            expiresSoon(requestDto.getExpiring_date()),
+                            requestDto.getPrice()),
+                    (previous, next) -> new DeliveredProduct(
+                            previous.quantity() + next.quantity(),
+                            next.expiresSoon(), next.price()));
+        }
+        String[] lineUPCs = new String[requestDtos.size()];
+        String[] deliveryDates = new String[requestDtos.size()];
+        String[] expiringDates = new String[requestDtos.size()];
+        Integer[] lineQuantities = new Integer[requestDtos.size()];
+        for (int i = 0; i < requestDtos.size(); i++) {
+            BatchRequestDto requestDto = requestDtos.get(i);
+            lineUPCs[i] = requestDto.getUPC();
+            deliveryDates[i] = toLocalDate(requestDto.getDelivery_date()).toString();
+            expiringDates[i] = toLocalDate(requestDto.getExpiring_date()).toString();
+            lineQuantities[i] = requestDto.getQuantity();
+        }
+        String[] upcs = delivered.keySet().toArray(String[]::new);
+        Integer[] quantities = new Integer[upcs.length];
+        Boolean[] expiresSoon = new Boolean[upcs.length];
+        String[] promoPrices = new String[upcs.length];
+        String[] pricesWithVat = new String[upcs.length];
+        for (int i = 0; i < upcs.length; i++) {
+            DeliveredProduct product = delivered.get(upcs[i]);
+            BigDecimal priceWithVat = priceWithVat(product.price());
+            quantities[i] = product.quantity();
+            expiresSoon[i] = product.expiresSoon();
+            promoPrices[i] = promoPrice(priceWithVat).toPlainString();
+            pricesWithVat[i] = priceWithVat.toPlainString();
+        }
+
+        try {
+            List<ReceivedProduct> received = jdbcTemplate.query(
+                    """
+                    WITH delivery AS (
+                        SELECT *
+                        FROM unnest(?::varchar[], ?::int[], ?::boolean[], ?::numeric[], ?::numeric[])
+                            AS d(UPC, quantity, expires_soon, promo_price, price_with_vat)
+                    ),
+                    lines AS (
+                        SELECT *
+                        FROM unnest(?::varchar[], ?::date[], ?::date[], ?::int[])
+                            AS l(UPC, delivery_date, expiring_date, quantity)
+                    ),
+                    locked AS (
+                        SELECT sp.UPC, sp.promotional_product
+                        FROM store_product sp
+                        JOIN delivery d ON d.UPC = sp.UPC
+                        WHERE sp.is_deleted = false
+                        ORDER BY sp.UPC
+                        FOR UPDATE OF sp
+                    ),
+                    received AS (
+                        UPDATE store_product sp
+                        SET products_number = sp.products_number + d.quantity,
+                            promotional_product = (d.expires_soon
+                                AND sp.products_number + d.quantity >= ?),
+                            selling_price = CASE
+                                WHEN d.expires_soon AND sp.products_number + d.quantity >= ?
+                                    THEN d.promo_price
+                                ELSE d.price_with_vat
+                            END,
+                            regular_price = d.price_with_vat
+                        FROM delivery d
+                        JOIN locked k ON k.UPC = d.UPC
+                        WHERE sp.UPC = d.UPC
+                        RETURNING sp.UPC, sp.UPC_prom, sp.id_product, sp.selling_price,
+                                  sp.products_number, sp.promotional_product,
+                                  k.promotional_product AS was_promotional
+                    ),
+                    inserted AS (
+                        INSERT INTO batch (
+                            UPC,
+                            delivery_date,
+                            expiring_date,
+                            quantity,
+                            selling_price
+                        )
+                        SELECT l.UPC, l.delivery_date, l.expiring_date, l.quantity, r.selling_price
+                        FROM lines l
+                        JOIN received r ON r.UPC = l.UPC
+                        RETURNING id, UPC, delivery_date, expiring_date, quantity
+                    ),
+                    repriced AS (
+                        UPDATE batch b
+                        SET selling_price = r.selling_price
+                        FROM received r
+                        WHERE b.UPC = r.UPC
+                    )
+                    SELECT r.UPC, r.UPC_prom, r.id_product, r.selling_price,
+                           r.products_number, r.promotional_product, r.was_promotional,
+                           i.id AS batch_id, i.delivery_date, i.expiring_date, i.quantity
+                    FROM received r
+                    JOIN inserted i ON i.UPC = r.UPC
+                    """,
+                    this::mapReceived,
+                    upcs, quantities, expiresSoon, promoPrices, pricesWithVat,
+                    lineUPCs, deliveryDates, expiringDates, lineQuantities,
+                    MIN_QUANTITY_FOR_PROMOTION, MIN_QUANTITY_FOR_PROMOTION
+            );
+            Map<String, StoreProduct> products = new LinkedHashMap<>();
+            for (ReceivedProduct product : received) {
+                expiryIndex.add(product.batch());
+                if (products.putIfAbsent(product.storeProduct().getUPC(),
+                        product.storeProduct()) == null) {
+                    counters.recordPromotionChange(product.wasPromotional(),
+                            product.storeProduct().isPromotional_product());
+                    priceCache.invalidate(product.storeProduct().getUPC());
+                }
+            }
+            return new ArrayList<>(products.values());
+        } catch (DataIntegrityViolationException e) {
+            throw new InvalidProductException("Invalid batch in delivery: " + e.getMostSpecificCause()
+                    .getMessage());
+        }
+    }
+
+    private ReceivedProduct mapReceived(ResultSet rs, int rowNum) throws SQLException {
+        return new ReceivedProduct(
+                storeProductRowMapper.mapRow(rs, rowNum),
+                rs.getBoolean("was_promotional"),
+                new ExpiringBatch(
+                        rs.getLong("batch_id"),
+                        rs.getString("UPC"),
+                        rs.getObject("delivery_date", LocalDate.class),
+                        rs.getObject("expiring_date", LocalDate.class),
+                        rs.getInt("quantity")));
+    }
+
+    private BigDecimal priceWithVat(BigDecimal price) {
+        return price.multiply(BigDecimal.ONE.add(VAT_RATE))
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private BigDecimal promoPrice(BigDecimal priceWithVat) {
+        return priceWithVat.multiply(PROMO_RATE)
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private LocalDate toLocalDate(Date date) {
+        return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    private boolean expiresSoon(Date expiringDate) {
         LocalDate today = LocalDate.now();
-        LocalDate expiry = expiringDate.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        LocalDate expiry = toLocalDate(expiringDate);
         long daysToExpiry = ChronoUnit.DAYS.between(today, expiry);
-        return daysToExpiry <= DAYS_BEFORE_EXPIRY && totalQuantity >= MIN_QUANTITY_FOR_PROMOTION;
+        return daysToExpiry <= DAYS_BEFORE_EXPIRY;
+    }
+
+    public ExpiredBatchPurge deleteExpired() {
+        int batchesDeleted = 0;
+        Set<String> updatedUPCs = new HashSet<>();
+        int chunkDeleted;
+        do {
+            int[] deleted = {0};
+            jdbcTemplate.query(
+                    """
+                    WITH expired AS (
+                        SELECT id
+                        FROM batch
+                        WHERE expiring_date < CURRENT_DATE
+                        ORDER BY id
+                        LIMIT ?
+                        FOR UPDATE SKIP LOCKED
+                    ),
+                    deleted AS (
+                        DELETE FROM batch b
+                        USING expired e
+                        WHERE b.id = e.id
+                        RETURNING b.UPC, b.quantity
+                    ),
+                    totals AS (
+                        SELECT UPC, SUM(quantity) AS quantity, COUNT(*) AS batches
+                        FROM deleted
+                        GROUP BY UPC
+                    ),
+                    updated AS (
+                        UPDATE store_product sp
+                        SET products_number = sp.products_number - t.quantity
+                        FROM totals t
+                        WHERE sp.UPC = t.UPC
+                    )
+                    SELECT UPC, batches
+                    FROM totals
+                    """,
+                    (RowCallbackHandler) rs -> {
+                        deleted[0] += rs.getInt("batches");
+                        updatedUPCs.add(rs.getString("UPC"));
+                    },
+                    PURGE_CHUNK_SIZE
+            );
+            chunkDeleted = deleted[0];
+            batchesDeleted += chunkDeleted;
+        } while (chunkDeleted == PURGE_CHUNK_SIZE);
+        updatedUPCs.forEach(priceCache::invalidate);
+        expiryIndex.removeExpiredBefore(LocalDate.now());
+        return new ExpiredBatchPurge(batchesDeleted, updatedUPCs.size());
     }
 
-    public void deleteExpired() {
-        var expiredBatches = jdbcTemplate.query(
+    public PromotionRecompute recomputePromotions() {
+        int[] promoted = {0};
+        int[] demoted = {0};
+        List<String> changedUPCs = new ArrayList<>();
+        // both prices are derived from the regular one so promote/demote cycles cannot drift;
+        // a regular price that no longer matches the promotional one was repriced and is ignored
+        jdbcTemplate.query(
                 """
-                SELECT UPC, quantity
-                FROM batch
-                WHERE expiring_date < CURRENT_DATE
+                WITH expiring AS (
+                    SELECT DISTINCT UPC
+                    FROM batch
+                    WHERE expiring_date <= CURRENT_DATE + ?
+                ),
+                target AS (
+                    SELECT sp.UPC, NOT sp.promotional_product AS promotional,
+                           CASE
+                               WHEN NOT sp.promotional_product THEN sp.selling_price
+                               WHEN ROUND(sp.regular_price * ?, 2) = sp.selling_price
+                                   THEN sp.regular_price
+                               ELSE ROUND(sp.selling_price / ?, 2)
+                           END AS regular_price
+                    FROM store_product sp
+                    LEFT JOIN expiring e ON e.UPC = sp.UPC
+                    WHERE sp.is_deleted = false
+                      AND sp.promotional_product
+                          <> (e.UPC IS NOT NULL AND sp.products_number >= ?)
+                    ORDER BY sp.UPC
+                    FOR UPDATE OF sp
+                ),
+                changed AS (
+                    UPDATE store_product sp
+                    SET promotional_product = t.promotional,
+                        regular_price = t.regular_price,
+                        selling_price = CASE
+                            WHEN t.promotional THEN ROUND(t.regular_price * ?, 2)
+                            ELSE t.regular_price
+                        END
+                    FROM target t
+                    WHERE sp.UPC = t.UPC
+                      AND sp.promotional_product <> t.promotional
+                    RETURNING sp.UPC, sp.selling_price, sp.promotional_product
+                ),
+                repriced AS (
+                    UPDATE batch b
+                    SET selling_price = c.selling_price
+                    FROM changed c
+                    WHERE b.UPC = c.UPC
+                )
+                SELECT UPC, promotional_product
+                FROM changed
                 """,
-                (rs, rowNum) -> new Object[]{
-                        rs.getString("UPC"),
-                        rs.getInt("quantity")
-                }
-        );
-        for (Object[] batch : expiredBatches) {
-            String upc = (String) batch[0];
-            int quantity = (int) batch[1];
-            jdbcTemplate.update(
-                    "UPDATE store_product SET products_number = products_number - ? WHERE UPC = ?",
-                    quantity,
-                    upc
-            );
-        }
-        jdbcTemplate.update(
-                "DELETE FROM batch WHERE expiring_date < CURRENT_DATE"
+                (RowCallbackHandler) rs -> {
+                    boolean promotional = rs.getBoolean("promotional_product");
+                    counters.recordPromotionChange(!promotional, promotional);
+                    changedUPCs.add(rs.getString("UPC"));
+                    if (promotional) {
+                        promoted[0]++;
+                    } else {
+                        demoted[0]++;
+                    }
+                },
+                DAYS_BEFORE_EXPIRY, PROMO_RATE, PROMO_RATE, MIN_QUANTITY_FOR_PROMOTION, PROMO_RATE
         );
+        changedUPCs.forEach(priceCache::invalidate);
+        return new PromotionRecompute(promoted[0], demoted[0]);
+    }
+
+    private record ReceivedProduct(StoreProduct storeProduct, boolean wasPromotional,
+                                   ExpiringBatch batch) {
+    }
+
+    private record DeliveredProduct(int quantity, boolean expiresSoon, BigDecimal price) {
     }
 }
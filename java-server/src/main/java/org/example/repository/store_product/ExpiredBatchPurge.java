@@ -0,0 +1,4 @@
+package org.example.repository.store_product;
+
+public record ExpiredBatchPurge(int batchesDeleted, int storeProductsUpdated) {
+}
@@ -0,0 +1,7 @@
+package org.example.repository.store_product;
+
+import java.time.LocalDate;
+
+public record ExpiringBatch(long id, String UPC, LocalDate deliveryDate,
+                            LocalDate expiringDate, int quantity) {
+}
@@ -0,0 +1,4 @@
+package org.example.repository.store_product;
+
+public record PromotionRecompute(int promoted, int demoted) {
+}
@@ -0,0 +1,135 @@
+package org.example.repository.store_product;
+
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@RequiredArgsConstructor
+@Component
+public class StoreProductCounters {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AtomicLong active = new AtomicLong();
+    private final AtomicLong promotional = new AtomicLong();
+    private final Object reconcileLock = new Object();
+    private volatile boolean loaded;
+    private boolean reconciling;
+    private long activeDuringReconcile;
+    private long promotionalDuringReconcile;
+
+    public long active() {
+        ensureLoaded();
+        return active.get();
+    }
+
+    public long promotional() {
+        ensureLoaded();
+        return promotional.get();
+    }
+
+    public long nonPromotional() {
+        ensureLoaded();
+        return active.get() - promotional.get();
+    }
+
+    public void recordInsert(boolean isPromotional) {
+        record(1, isPromotional ? 1 : 0);
+    }
+
+    public void recordDelete(boolean wasPromotional) {
+        record(-1, wasPromotional ? -1 : 0);
+    }
+
+    public void recordPromotionChange(boolean wasPromotional, boolean isPromotional) {
+        if (wasPromotional != isPromotional) {
+            record(0, isPromotional ? 1 : -1);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${store-product.counters.reconcile-interval-ms}",
+            fixedDelayString = "${store-product.counters.reconcile-interval-ms}")
+    public void reconcile() {
+        synchronized (reconcileLock) {
+            synchronized (this) {
+                reconciling = true;
+                activeDuringReconcile = 0;
+                promotionalDuringReconcile = 0;
+            }
+            long[] counted = new long[2];
+            try {
+                jdbcTemplate.query(
+                        """
+                        SELECT COUNT(*) AS active,
+                               COUNT(CASE WHEN promotional_product THEN 1 END) AS promotional
+                        FROM store_product
+                        WHERE is_deleted = false
+                        """,
+                        rs -> {
+                            counted[0] = rs.getLong("active");
+                            counted[1] = rs.getLong("promotional");
+                        }
+                );
+                // writes that committed while the count ran are not in it, so keep them
+                synchronized (this) {
+                    active.set(counted[0] + activeDuringReconcile);
+                    promotional.set(counted[1] + promotionalDuringReconcile);
+                }
+                loaded = true;
+            } finally {
+                synchronized (this) {
+                    reconciling = false;
+                }
+            }
+        }
+    }
+
+    private void record(long activeDelta, long promotionalDelta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(activeDelta, promotionalDelta);
+            return;
+        }
+        PendingDelta pending =
+                (PendingDelta) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingDelta();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.active += activeDelta;
+        pending.promotional += promotionalDelta;
+    }
+
+    private synchronized void add(long activeDelta, long promotionalDelta) {
+        active.addAndGet(activeDelta);
+        promotional.addAndGet(promotionalDelta);
+        if (reconciling) {
+            activeDuringReconcile += activeDelta;
+            promotionalDuringReconcile += promotionalDelta;
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            reconcile();
+        }
+    }
+
+    private class PendingDelta implements TransactionSynchronization {
+        private long active;
+        private long promotional;
+
+        @Override
+        public void afterCommit() {
+            add(active, promotional);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(StoreProductCounters.this);
+        }
+    }
+}
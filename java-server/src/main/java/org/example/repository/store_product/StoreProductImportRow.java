@@ -0,0 +1,6 @@
+package org.example.repository.store_product;
+
+import org.example.dto.store_product.product.StoreProductRequestDto;
+
+public record StoreProductImportRow(int line, StoreProductRequestDto product) {
+}
@@ -0,0 +1,56 @@
+package org.example.repository.store_product;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+import org.example.dto.store_product.product.StoreProductPriceAndQuantityDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Component
+public class StoreProductPriceCache {
+
+    private final Cache<String, StoreProductPriceAndQuantityDto> cache;
+
+    public StoreProductPriceCache(
+            @Value("${store-product.price-cache.max-size}") long maxSize,
+            @Value("${store-product.price-cache.ttl-ms}") long ttlMs,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "store-product-price");
+    }
+
+    public Optional<StoreProductPriceAndQuantityDto> get(
+            String upc,
+            Function<String, Optional<StoreProductPriceAndQuantityDto>> loader) {
+        return Optional.ofNullable(cache.get(upc, key -> loader.apply(key).orElse(null)));
+    }
+
+    public void invalidate(String upc) {
+        cache.invalidate(upc);
+        // a read between this write and its commit would cache the old price and stock again
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            cache.invalidate(upc);
+                        }
+                    });
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
@@ -2,25 +2,44 @@ package org.example.repository.store_product;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import lombok.RequiredArgsConstructor;
+import org.example.dto.page.PageCursor;
 import org.example.dto.page.PageResponseDto;
 import org.example.dto.store_product.product.StoreProductDto;
+import org.example.dto.store_product.product.StoreProductImportRejectDto;
+import org.example.dto.store_product.product.StoreProductImportResultDto;
+import org.example.dto.store_product.product.StoreProductLookupItemDto;
 import org.example.dto.store_product.product.StoreProductPriceAndQuantityDto;
 import org.example.dto.store_product.product.StoreProductRequestDto;
 import org.example.dto.store_product.product.StoreProductWithNameDto;
 import org.example.exception.custom_exception.EntityNotFoundException;
+import org.example.exception.custom_exception.InvalidParameterException;
 import org.example.exception.custom_exception.InvalidProductException;
 import org.example.mapper.store_product.StoreProductMapper;
 import org.example.mapper.store_product.StoreProductRowMapper;
 import org.example.model.store_product.StoreProduct;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @RequiredArgsConstructor
 @Repository
@@ -28,9 +47,13 @@ public class StoreProductRepository {
 
     private static final BigDecimal VAT_RATE = new BigDecimal("0.20");
     private static final BigDecimal PROM_RATE = new BigDecimal("0.80");
+    private static final int STREAM_FETCH_SIZE = 500;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
     private final JdbcTemplate jdbcTemplate;
     private final StoreProductRowMapper rowMapper;
     private final StoreProductMapper storeProductMapper;
+    private final StoreProductCounters counters;
+    private final StoreProductPriceCache priceCache;
 
     private final RowMapper<StoreProductWithNameDto> withNameRowMapper
             = (rs, rowNum) -> {
@@ -67,6 +90,10 @@ public class StoreProductRepository {
     }
 
     public Optional<StoreProductPriceAndQuantityDto> findPriceAndQuantityByUPC(String upc) {
+        return priceCache.get(upc, this::loadPriceAndQuantityByUPC);
+    }
+
+    private Optional<StoreProductPriceAndQuantityDto> loadPriceAndQuantityByUPC(String upc) {
         try {
             return Optional.ofNullable(
                     jdbcTemplate.queryForObject(
@@ -90,6 +117,27 @@ public class StoreProductRepository {
         }
     }
 
+    public List<StoreProductLookupItemDto> findLookupItemsByUPCs(Collection<String> upcs) {
+        return jdbcTemplate.query(
+                """
+                SELECT sp.UPC, p.product_name, sp.selling_price, sp.products_number
+                FROM store_product sp
+                INNER JOIN product p ON sp.id_product = p.id_product
+                WHERE sp.is_deleted = false
+                  AND sp.UPC = ANY(?)
+                """,
+                (rs, rowNum) -> {
+                    StoreProductLookupItemDto dto = new StoreProductLookupItemDto();
+                    dto.setUPC(rs.getString("UPC"));
+                    dto.setProduct_name(rs.getString("product_name"));
+                    dto.setSelling_price(rs.getBigDecimal("selling_price"));
+                    dto.setProducts_number(rs.getInt("products_number"));
+                    return dto;
+                },
+                (Object) upcs.toArray(String[]::new)
+        );
+    }
+
     public PageResponseDto<StoreProductWithNameDto> findAll(Pageable pageable) {
         long offset = pageable.getOffset();
         List<StoreProductWithNameDto> items = jdbcTemplate.query(
@@ -106,7 +154,7 @@ public class StoreProductRepository {
                 offset,
                 pageable.getPageSize()
         );
-        long total = getTotalCount();
+        long total = counters.active();
         return PageResponseDto.of(items, pageable.getPageSize(), total,
                 offset + items.size() < total);
     }
@@ -127,7 +175,7 @@ public class StoreProductRepository {
                 offset,
                 pageable.getPageSize()
         );
-        long total = getTotalCount();
+        long total = counters.active();
         return PageResponseDto.of(items, pageable.getPageSize(), total,
                 offset + items.size() < total);
     }
@@ -146,7 +194,7 @@ public class StoreProductRepository {
                 """,
                 withNameRowMapper, offset, pageable.getPageSize()
         );
-        long total = getTotalCount();
+        long total = counters.active();
         return PageResponseDto.of(items, pageable.getPageSize(), total,
                 offset + items.size() < total);
     }
@@ -166,7 +214,7 @@ public class StoreProductRepository {
                 """,
                 withNameRowMapper, offset, pageable.getPageSize()
         );
-        long total = getPromCount();
+        long total = counters.promotional();
         return PageResponseDto.of(items, pageable.getPageSize(), total,
                 offset + items.size() < total);
     }
@@ -186,7 +234,7 @@ public class StoreProductRepository {
                 """,
                 withNameRowMapper, offset, pageable.getPageSize()
         );
-        long total = getNonPromCount();
+        long total = counters.nonPromotional();
         return PageResponseDto.of(items, pageable.getPageSize(), total,
                 offset + items.size() < total);
     }
@@ -206,7 +254,7 @@ public class StoreProductRepository {
                 """,
                 withNameRowMapper, offset, pageable.getPageSize()
         );
-        long total = getPromCount();
+        long total = counters.promotional();
         return PageResponseDto.of(items, pageable.getPageSize(), total,
                 offset + items.size() < total);
     }
@@ -226,7 +274,7 @@ public class StoreProductRepository {
                 """,
                 withNameRowMapper, offset, pageable.getPageSize()
         );
-        long total = getNonPromCount();
+        long total = counters.nonPromotional();
         return PageResponseDto.of(items, pageable.getPageSize(), total,
                 offset + items.size() < total);
     }
@@ -246,7 +294,7 @@ public class StoreProductRepository {
                 """,
                 withNameRowMapper, offset, pageable.getPageSize()
         );
-        long total = getPromCount();
+        long total = counters.promotional();
         return PageResponseDto.of(items, pageable.getPageSize(), total,
                 offset + items.size() < total);
     }
@@ -266,24 +314,72 @@ public class StoreProductRepository {
                 """,
                 withNameRowMapper, offset, pageable.getPageSize()
         );
-        long total = getNonPromCount();
+        long total = counters.nonPromotional();
         return PageResponseDto.of(items, pageable.getPageSize(), total,
                 offset + items.size() < total);
     }
 
-    public StoreProduct save(StoreProductRequestDto requestDto) {
-        BigDecimal priceWithVat;
-        if (requestDto.isPromotional_product()) {
-            priceWithVat = (requestDto.getSelling_price().multiply(PROM_RATE))
-                    .multiply(BigDecimal.ONE.add(VAT_RATE))
-                    .setScale(2, RoundingMode.HALF_UP);
-        } else {
-            priceWithVat = (requestDto.getSelling_price())
-                    .multiply(BigDecimal.ONE.add(VAT_RATE))
-                    .setScale(2, RoundingMode.HALF_UP);
+    public PageResponseDto<StoreProductWithNameDto> findPage(StoreProductSortKey sortKey,
+                                                             Boolean promotional,
+                                                             String cursor,
+                                                             int pageSize) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder filter = new StringBuilder();
+        if (promotional != null) {
+            filter.append(" AND sp.promotional_product = ?");
+            params.add(promotional);
+        }
+        if (cursor != null && !cursor.isEmpty()) {
+            List<String> position = PageCursor.decode(cursor, 3);
+            if (!sortKey.name().equals(position.get(0))) {
+                throw new InvalidParameterException(
+                        "Page cursor does not match sort order: " + cursor);
+            }
+            if (sortKey == StoreProductSortKey.UPC) {
+                filter.append(" AND sp.UPC > ?");
+            } else {
+                Object key = sortKey.parse(position.get(1));
+                filter.append(" AND %1$s >= ? AND (%1$s, sp.UPC) > (?, ?)"
+                        .formatted(sortKey.column()));
+                params.add(key);
+                params.add(key);
+            }
+            params.add(position.get(2));
+        }
+        params.add(pageSize + 1);
+        String orderBy = sortKey == StoreProductSortKey.UPC
+                ? "sp.UPC"
+                : sortKey.column() + ", sp.UPC";
+        List<StoreProductWithNameDto> rows = jdbcTemplate.query(
+                """
+                SELECT sp.UPC, sp.UPC_prom, sp.id_product, sp.selling_price,
+                       sp.products_number, sp.promotional_product, p.product_name
+                FROM store_product sp
+                INNER JOIN product p ON sp.id_product = p.id_product
+                WHERE sp.is_deleted = false%s
+                ORDER BY %s
+                FETCH FIRST ? ROWS ONLY
+                """.formatted(filter, orderBy),
+                withNameRowMapper,
+                params.toArray()
+        );
+        boolean hasNext = rows.size() > pageSize;
+        List<StoreProductWithNameDto> items = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            StoreProductWithNameDto last = items.get(items.size() - 1);
+            nextCursor = PageCursor.encode(sortKey.name(), sortKey.valueOf(last), last.getUPC());
         }
+        long total = promotional == null
+                ? counters.active()
+                : promotional ? counters.promotional() : counters.nonPromotional();
+        return PageResponseDto.of(items, pageSize, total, hasNext, nextCursor);
+    }
+
+    public StoreProduct save(StoreProductRequestDto requestDto) {
+        BigDecimal priceWithVat = priceWithVat(requestDto);
         try {
-            return jdbcTemplate.queryForObject(
+            StoreProduct saved = jdbcTemplate.queryForObject(
                     """
                     INSERT INTO store_product (
                         UPC,
@@ -306,37 +402,172 @@ public class StoreProductRepository {
                     requestDto.isPromotional_product(),
                     Boolean.FALSE
             );
+            counters.recordInsert(requestDto.isPromotional_product());
+            priceCache.invalidate(requestDto.getUPC());
+            return saved;
         } catch (DataIntegrityViolationException e) {
             throw new InvalidProductException(
                     "Invalid product or UPC reference: " + requestDto.getId_product());
         }
     }
 
+    @Transactional
+    public StoreProductImportResultDto importAll(Iterator<StoreProductImportRow> rows) {
+        jdbcTemplate.execute(
+                """
+                CREATE TEMP TABLE store_product_import (
+                    line_no INT NOT NULL,
+                    UPC VARCHAR(12) NOT NULL,
+                    UPC_prom VARCHAR(12) NULL,
+                    id_product INT NOT NULL,
+                    selling_price DECIMAL(13,4) NOT NULL,
+                    products_number INT NOT NULL,
+                    promotional_product BOOLEAN NOT NULL
+                ) ON COMMIT DROP
+                """
+        );
+        long copied = jdbcTemplate.execute((ConnectionCallback<Long>) con -> copyIn(con, rows));
+        List<StoreProductImportRejectDto> rejected = new ArrayList<>();
+        int[] imported = {0};
+        jdbcTemplate.query(
+                """
+                WITH checked AS (
+                    SELECT i.*,
+                           CASE
+                               WHEN ROW_NUMBER() OVER (PARTITION BY i.UPC ORDER BY i.line_no) > 1
+                                   THEN 'Duplicate UPC in file'
+                               WHEN EXISTS (SELECT 1 FROM store_product sp WHERE sp.UPC = i.UPC)
+                                   THEN 'Store product already exists'
+                               WHEN NOT EXISTS (SELECT 1 FROM product p
+                                                WHERE p.id_product = i.id_product)
+                                   THEN 'Invalid product reference: ' || i.id_product
+                           END AS reason
+                    FROM store_product_import i
+                ),
+                resolved AS (
+                    SELECT c.line_no, c.UPC, c.UPC_prom, c.id_product, c.selling_price,
+                           c.products_number, c.promotional_product,
+                           CASE
+                               WHEN c.reason IS NULL
+                                    AND c.UPC_prom IS NOT NULL
+                                    AND NOT EXISTS (SELECT 1 FROM store_product sp
+                                                    WHERE sp.UPC = c.UPC_prom)
+                                    AND NOT EXISTS (SELECT 1 FROM checked o
+                                                    WHERE o.UPC = c.UPC_prom
+                                                      AND o.reason IS NULL)
+                                   THEN 'Invalid promotional UPC reference: ' || c.UPC_prom
+                               ELSE c.reason
+                           END AS reason
+                    FROM checked c
+                ),
+                inserted AS (
+                    INSERT INTO store_product (
+                        UPC,
+                        UPC_prom,
+                        id_product,
+                        selling_price,
+                        products_number,
+                        promotional_product,
+                        is_deleted
+                    )
+                    SELECT UPC, UPC_prom, id_product, selling_price,
+                           products_number, promotional_product, false
+                    FROM resolved
+                    WHERE reason IS NULL
+                    ON CONFLICT (UPC) DO NOTHING
+                    RETURNING UPC, promotional_product
+                )
+                SELECT r.line_no, r.UPC,
+                       COALESCE(r.reason, 'Store product already exists') AS reason,
+                       NULL AS promotional_product
+                FROM resolved r
+                WHERE r.reason IS NOT NULL
+                   OR NOT EXISTS (SELECT 1 FROM inserted ins WHERE ins.UPC = r.UPC)
+                UNION ALL
+                SELECT NULL, ins.UPC, NULL, ins.promotional_product
+                FROM inserted ins
+                """,
+                (RowCallbackHandler) rs -> {
+                    String reason = rs.getString("reason");
+                    if (reason != null) {
+                        rejected.add(new StoreProductImportRejectDto(
+                                rs.getInt("line_no"), rs.getString("UPC"), reason));
+                    } else {
+                        imported[0]++;
+                        counters.recordInsert(rs.getBoolean("promotional_product"));
+                    }
+                }
+        );
+        return new StoreProductImportResultDto((int) copied, imported[0], rejected);
+    }
+
+    private long copyIn(Connection con, Iterator<StoreProductImportRow> rows)
+            throws SQLException {
+        CopyIn copyIn = con.unwrap(PGConnection.class).getCopyAPI().copyIn(
+                """
+                COPY store_product_import (line_no, UPC, UPC_prom, id_product, selling_price,
+                                           products_number, promotional_product)
+                FROM STDIN WITH (FORMAT csv)
+                """
+        );
+        try {
+            StringBuilder buffer = new StringBuilder(COPY_BUFFER_SIZE);
+            while (rows.hasNext()) {
+                StoreProductImportRow row = rows.next();
+                StoreProductRequestDto product = row.product();
+                buffer.append(row.line()).append(',');
+                appendCsvText(buffer, product.getUPC()).append(',');
+                if (product.getUPC_prom() != null) {
+                    appendCsvText(buffer, product.getUPC_prom());
+                }
+                buffer.append(',').append(product.getId_product())
+                        .append(',').append(priceWithVat(product).toPlainString())
+                        .append(',').append(product.getProducts_number())
+                        .append(',').append(product.isPromotional_product())
+                        .append('\n');
+                if (buffer.length() >= COPY_BUFFER_SIZE) {
+                    writeToCopy(copyIn, buffer);
+                }
+            }
+            writeToCopy(copyIn, buffer);
+            return copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private static StringBuilder appendCsvText(StringBuilder buffer, String value) {
+        return buffer.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private static void writeToCopy(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
     public StoreProductDto updateByUPC(String upc, StoreProductRequestDto requestDto) {
         if (!existsByUPC(upc)) {
             throw new EntityNotFoundException("Store product not found: " + upc);
         }
-        BigDecimal priceWithVat;
-        if (requestDto.isPromotional_product()) {
-            priceWithVat = (requestDto.getSelling_price().multiply(PROM_RATE))
-                    .multiply(BigDecimal.ONE.add(VAT_RATE))
-                    .setScale(2, RoundingMode.HALF_UP);
-        } else {
-            priceWithVat = (requestDto.getSelling_price())
-                    .multiply(BigDecimal.ONE.add(VAT_RATE))
-                    .setScale(2, RoundingMode.HALF_UP);
-        }
+        BigDecimal priceWithVat = priceWithVat(requestDto);
         try {
-            int updatedRows = jdbcTemplate.update(
+            List<Boolean> wasPromotional = jdbcTemplate.query(
                     """
-                    UPDATE store_product
+                    UPDATE store_product sp
                     SET UPC_prom = ?,
                         id_product = ?,
                         selling_price = ?,
                         products_number = ?,
                         promotional_product = ?
-                    WHERE UPC = ? AND is_deleted = false
+                    FROM store_product old
+                    WHERE old.UPC = sp.UPC
+                      AND sp.UPC = ? AND sp.is_deleted = false
+                    RETURNING old.promotional_product
                     """,
+                    (rs, rowNum) -> rs.getBoolean(1),
                     requestDto.getUPC_prom(),
                     requestDto.getId_product(),
                     priceWithVat,
@@ -345,9 +576,12 @@ public class StoreProductRepository {
                     upc
             );
 
-            if (updatedRows == 0) {
+            if (wasPromotional.isEmpty()) {
                 throw new EntityNotFoundException("Update failed, store product not found: " + upc);
             }
+            counters.recordPromotionChange(wasPromotional.get(0),
+                    requestDto.isPromotional_product());
+            priceCache.invalidate(upc);
 
             return findAllInfoByUPC(upc)
                     .map(storeProductMapper::toDto)
@@ -361,11 +595,15 @@ public class StoreProductRepository {
     }
 
     public void softDeleteByUPC(String upc) {
-        jdbcTemplate.update("""
+        jdbcTemplate.query("""
                                 UPDATE store_product
                                 SET is_deleted = true
                                 WHERE UPC = ? AND is_deleted = false
-                                """, upc);
+                                RETURNING promotional_product
+                                """,
+                        (rs, rowNum) -> rs.getBoolean(1), upc)
+                .forEach(counters::recordDelete);
+        priceCache.invalidate(upc);
     }
 
     public boolean existsByUPC(String upc) {
@@ -384,14 +622,20 @@ public class StoreProductRepository {
     public void updateProductPriceAndPromotion(String upc,
                                                BigDecimal price,
                                                boolean promotional) {
-        jdbcTemplate.update(
+        jdbcTemplate.query(
                 """
-                UPDATE store_product
+                UPDATE store_product sp
                 SET selling_price = ?, promotional_product = ?
-                WHERE UPC = ? AND is_deleted = false
+                FROM store_product old
+                WHERE old.UPC = sp.UPC
+                  AND sp.UPC = ? AND sp.is_deleted = false
+                RETURNING old.promotional_product
                 """,
+                (rs, rowNum) -> rs.getBoolean(1),
                 price, promotional, upc
-        );
+        ).forEach(wasPromotional ->
+                counters.recordPromotionChange(wasPromotional, promotional));
+        priceCache.invalidate(upc);
     }
 
     public PageResponseDto<StoreProductDto> findAll(
@@ -429,7 +673,7 @@ public class StoreProductRepository {
             ).stream().map(storeProductMapper::toDto).toList();
         }
 
-        long total = getTotalCount();
+        long total = counters.active();
         boolean hasNext = items.size() == pageable.getPageSize();
         return PageResponseDto.of(items, pageable.getPageSize(), total, hasNext);
     }
@@ -468,57 +712,53 @@ public class StoreProductRepository {
                 .toList();
     }
 
-    public List<StoreProductWithNameDto> findAllWithNameNoPagination() {
-        return jdbcTemplate.query(
-             """
-             SELECT sp.UPC, sp.UPC_prom, sp.id_product, sp.selling_price,
-                       sp.products_number, sp.promotional_product, p.product_name
-                FROM store_product sp
-                INNER JOIN product p
-                ON sp.id_product = p.id_product
-                WHERE sp.is_deleted = false
-                ORDER BY sp.promotional_product DESC
-             """,
-                        withNameRowMapper)
-                .stream()
-                .toList();
-    }
-
-    private long getTotalCount() {
-        Integer count = jdbcTemplate.queryForObject(
-                """
-                SELECT COUNT(*)
-                FROM store_product
-                WHERE is_deleted = false
-                """,
-                Integer.class
-        );
-        return count != null ? count : 0;
-    }
-
-    private long getPromCount() {
-        Integer count = jdbcTemplate.queryForObject(
-                """
-                SELECT COUNT(*)
-                FROM store_product
-                WHERE promotional_product = true
-                  AND is_deleted = false
-                """,
-                Integer.class
-        );
-        return count != null ? count : 0;
+    public void streamAllWithName(Consumer<StoreProductWithNameDto> consumer) {
+        // each chunk is its own statement, so a slow reader holds a connection for one chunk only
+        StoreProductWithNameDto[] last = new StoreProductWithNameDto[1];
+        int[] read = new int[1];
+        do {
+            StoreProductWithNameDto after = last[0];
+            read[0] = 0;
+            jdbcTemplate.query(
+                    con -> {
+                        PreparedStatement ps = con.prepareStatement(
+                                """
+                                SELECT sp.UPC, sp.UPC_prom, sp.id_product, sp.selling_price,
+                                       sp.products_number, sp.promotional_product, p.product_name
+                                FROM store_product sp
+                                INNER JOIN product p
+                                ON sp.id_product = p.id_product
+                                WHERE sp.is_deleted = false%s
+                                ORDER BY sp.promotional_product DESC, sp.UPC DESC
+                                FETCH FIRST ? ROWS ONLY
+                                """.formatted(after == null ? ""
+                                        : " AND (sp.promotional_product, sp.UPC) < (?, ?)"),
+                                ResultSet.TYPE_FORWARD_ONLY,
+                                ResultSet.CONCUR_READ_ONLY
+                        );
+                        int index = 1;
+                        if (after != null) {
+                            ps.setBoolean(index++, after.isPromotional_product());
+                            ps.setString(index++, after.getUPC());
+                        }
+                        ps.setInt(index, STREAM_FETCH_SIZE);
+                        ps.setFetchSize(STREAM_FETCH_SIZE);
+                        return ps;
+                    },
+                    (RowCallbackHandler) rs -> {
+                        last[0] = withNameRowMapper.mapRow(rs, rs.getRow());
+                        read[0]++;
+                        consumer.accept(last[0]);
+                    }
+            );
+        } while (read[0] == STREAM_FETCH_SIZE);
     }
 
-    private long getNonPromCount() {
-        Integer count = jdbcTemplate.queryForObject(
-                """
-                SELECT COUNT(*)
-                FROM store_product
-                WHERE promotional_product = false
-                  AND is_deleted = false
-                """,
-                Integer.class
-        );
-        return count != null ? count : 0;
+    private static BigDecimal priceWithVat(StoreProductRequestDto requestDto) {
+        BigDecimal price = requestDto.isPromotional_product()
+                ? requestDto.getSelling_price().multiply(PROM_RATE)
+                : requestDto.getSelling_price();
+        return price.multiply(BigDecimal.ONE.add(VAT_RATE))
+                .setScale(2, RoundingMode.HALF_UP);
     }
 }
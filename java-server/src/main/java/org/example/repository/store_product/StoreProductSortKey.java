@@ -0,0 +1,49 @@
+package org.example.repository.store_product;
+
+import java.util.function.Function;
+import org.example.dto.store_product.product.StoreProductWithNameDto;
+import org.example.exception.custom_exception.InvalidParameterException;
+
+public enum StoreProductSortKey {
+    UPC("sp.UPC", dto -> dto.getUPC()),
+    NAME("p.product_name", StoreProductWithNameDto::getProduct_name),
+    QUANTITY("sp.products_number", dto -> String.valueOf(dto.getProducts_number()));
+
+    private final String column;
+    private final Function<StoreProductWithNameDto, String> extractor;
+
+    StoreProductSortKey(String column,
+                        Function<StoreProductWithNameDto, String> extractor) {
+        this.column = column;
+        this.extractor = extractor;
+    }
+
+    public static StoreProductSortKey fromParam(String sortedBy) {
+        if ("name".equals(sortedBy)) {
+            return NAME;
+        }
+        if ("quantity".equals(sortedBy)) {
+            return QUANTITY;
+        }
+        return UPC;
+    }
+
+    public String column() {
+        return column;
+    }
+
+    public String valueOf(StoreProductWithNameDto dto) {
+        return extractor.apply(dto);
+    }
+
+    public Object parse(String value) {
+        if (this != QUANTITY) {
+            return value;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidParameterException("Malformed page cursor value: " + value);
+        }
+    }
+}
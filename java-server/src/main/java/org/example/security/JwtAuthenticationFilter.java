@@ -6,6 +6,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
@@ -37,14 +38,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         String token = getToken(request);
 
-        if (token != null && jwtUtil.isValidToken(token)) {
-            String username = jwtUtil.getUsername(token);
-            List<String> roles = jwtUtil.getRoles(token);
-            List<SimpleGrantedAuthority> authorities = roles.stream()
+        Optional<JwtUtil.VerifiedToken> verified = token != null
+                ? jwtUtil.verify(token)
+                : Optional.empty();
+        if (verified.isPresent()) {
+            List<SimpleGrantedAuthority> authorities = verified.get().roles().stream()
                     .map(SimpleGrantedAuthority::new)
                     .collect(Collectors.toList());
             UserDetails userDetails = User.builder()
-                    .username(username)
+                    .username(verified.get().username())
                     .password("")
                     .authorities(authorities)
                     .build();
@@ -1,14 +1,25 @@
 package org.example.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
+import java.util.HexFormat;
 import java.util.List;
-import java.util.function.Function;
+import java.util.Optional;
 import javax.crypto.SecretKey;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
@@ -20,6 +31,7 @@ import org.springframework.stereotype.Component;
 public class JwtUtil {
     private final SecretKey secretKey;
     private final UserDetailsService userDetailsService;
+    private final Cache<String, VerifiedToken> verified;
 
     @Value("${jwt.expiration}")
     private long expiration;
@@ -33,10 +45,30 @@ public class JwtUtil {
     @Value("${jwt.audience}")
     private String audience;
 
+    private JwtParser parser;
+
     public JwtUtil(@Value("${jwt.secret}") String secret,
-                   UserDetailsService userDetailsService) {
+                   @Value("${jwt.cache.max-size}") long cacheMaxSize,
+                   UserDetailsService userDetailsService,
+                   MeterRegistry meterRegistry) {
         secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
         this.userDetailsService = userDetailsService;
+        // keyed by a digest so bearer tokens themselves are not kept on the heap
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new UntilExpiration())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "jwt");
+    }
+
+    @PostConstruct
+    void buildParser() {
+        parser = Jwts.parser()
+                .verifyWith(secretKey)
+                .requireIssuer(issuer)
+                .requireAudience(audience)
+                .build();
     }
 
     public String generateAccessToken(String username) {
@@ -65,37 +97,72 @@ public class JwtUtil {
                 .compact();
     }
 
-    public boolean isValidToken(String token) {
+    public Optional<VerifiedToken> verify(String token) {
+        String key = hash(token);
+        VerifiedToken cached = verified.getIfPresent(key);
+        if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+            return Optional.of(cached);
+        }
         try {
-            Jws<Claims> claimsJws = Jwts.parser()
-                    .verifyWith(secretKey)
-                    .requireIssuer(issuer)
-                    .requireAudience(audience)
-                    .build()
-                    .parseSignedClaims(token);
-            return !claimsJws.getPayload().getExpiration().before(new Date());
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            @SuppressWarnings("unchecked")
+            List<String> roles = (List<String>) claims.get("roles");
+            VerifiedToken verifiedToken = new VerifiedToken(claims.getSubject(),
+                    roles == null ? List.of() : List.copyOf(roles),
+                    claims.getExpiration().toInstant());
+            verified.put(key, verifiedToken);
+            return Optional.of(verifiedToken);
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return Optional.empty();
         }
     }
 
+    public boolean isValidToken(String token) {
+        return verify(token).isPresent();
+    }
+
     public String getUsername(String token) {
-        return getClaimFromToken(token, Claims::getSubject);
+        return verifyOrThrow(token).username();
     }
 
-    @SuppressWarnings("unchecked")
     public List<String> getRoles(String token) {
-        return getClaimFromToken(token, claims -> (List<String>) claims.get("roles"));
+        return verifyOrThrow(token).roles();
     }
 
-    private <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = Jwts.parser()
-                .verifyWith(secretKey)
-                .requireIssuer(issuer)
-                .requireAudience(audience)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claimsResolver.apply(claims);
+    private VerifiedToken verifyOrThrow(String token) {
+        return verify(token).orElseThrow(() -> new JwtException("Invalid or expired token"));
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record VerifiedToken(String username, List<String> roles, Instant expiresAt) {
+    }
+
+    private static class UntilExpiration implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), value.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
     }
 }
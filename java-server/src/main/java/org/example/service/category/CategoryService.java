@@ -2,9 +2,10 @@ package org.example.service.category;
 
 import java.util.List;
 import org.example.dto.helper.CategoryResponseDto;
+import org.example.repository.category.CategoryLeaderboard;
 
 public interface CategoryService {
-    List<CategoryResponseDto> getPopCategories();
+    CategoryLeaderboard.Snapshot getPopCategories();
 
     List<CategoryResponseDto> getAll();
 }
@@ -3,6 +3,7 @@ package org.example.service.category;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.example.dto.helper.CategoryResponseDto;
+import org.example.repository.category.CategoryLeaderboard;
 import org.example.repository.category.CategoryRepository;
 import org.springframework.stereotype.Service;
 
@@ -11,10 +12,11 @@ import org.springframework.stereotype.Service;
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final CategoryLeaderboard categoryLeaderboard;
 
     @Override
-    public List<CategoryResponseDto> getPopCategories() {
-        return categoryRepository.findPopCategories();
+    public CategoryLeaderboard.Snapshot getPopCategories() {
+        return categoryLeaderboard.top();
     }
 
     @Override
@@ -1,8 +1,19 @@
 package org.example.service.check;
 
+import java.time.LocalDate;
 import java.util.List;
+import org.example.dto.check.CheckDetailsDto;
+import org.example.dto.check.CheckRequestDto;
 import org.example.dto.helper.CheckResponseDto;
+import org.example.dto.page.PageResponseDto;
 
 public interface CheckService {
-    List<CheckResponseDto> getAll();
+    CheckResponseDto create(CheckRequestDto requestDto);
+
+    CheckDetailsDto getByNumber(String checkNumber);
+
+    List<CheckResponseDto> getAll(LocalDate from, LocalDate to, String idEmployee);
+
+    PageResponseDto<CheckResponseDto> getPage(LocalDate from, LocalDate to, String idEmployee,
+                                              String cursor, int pageSize);
 }
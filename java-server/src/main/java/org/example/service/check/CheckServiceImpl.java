@@ -1,19 +1,94 @@
 package org.example.service.check;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import lombok.RequiredArgsConstructor;
+import org.example.dto.check.CheckDetailsDto;
+import org.example.dto.check.CheckRequestDto;
 import org.example.dto.helper.CheckResponseDto;
+import org.example.dto.page.PageResponseDto;
+import org.example.exception.custom_exception.EntityNotFoundException;
+import org.example.exception.custom_exception.InvalidParameterException;
+import org.example.exception.custom_exception.ServiceUnavailableException;
+import org.example.repository.check.CheckGroupCommitWriter;
 import org.example.repository.check.CheckRepository;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 @RequiredArgsConstructor
 @Service
 public class CheckServiceImpl implements CheckService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final CheckRepository checkRepository;
+    private final CheckGroupCommitWriter groupCommitWriter;
+
+    @Override
+    public CheckResponseDto create(CheckRequestDto requestDto) {
+        String idEmployee = SecurityContextHolder.getContext().getAuthentication().getName();
+        if (!groupCommitWriter.isEnabled()) {
+            return checkRepository.save(requestDto, idEmployee);
+        }
+        CompletableFuture<CheckResponseDto> result = groupCommitWriter.submit(requestDto, idEmployee);
+        try {
+            try {
+                return result.get(groupCommitWriter.getTimeoutMs(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (result.cancel(false)) {
+                    throw new ServiceUnavailableException("Check was not written in time, retry later");
+                }
+                // the writer took the check before the cancel, so its transaction decides
+                return result.get(groupCommitWriter.getTimeoutMs(), TimeUnit.MILLISECONDS);
+            }
+        } catch (TimeoutException e) {
+            throw new ServiceUnavailableException("Check " + requestDto.getCheck_number()
+                    + " is still being written, look it up before retrying");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (result.cancel(false)) {
+                throw new ServiceUnavailableException("Check write was interrupted, retry later");
+            }
+            throw new ServiceUnavailableException("Check " + requestDto.getCheck_number()
+                    + " is still being written, look it up before retrying");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new ServiceUnavailableException("Check could not be written, retry later");
+        }
+    }
+
+    @Override
+    public CheckDetailsDto getByNumber(String checkNumber) {
+        return checkRepository.findByNumber(checkNumber)
+                .orElseThrow(() -> new EntityNotFoundException("Check not found: " + checkNumber));
+    }
+
+    @Override
+    public List<CheckResponseDto> getAll(LocalDate from, LocalDate to, String idEmployee) {
+        validateRange(from, to);
+        return checkRepository.findAll(from, to, idEmployee);
+    }
 
     @Override
-    public List<CheckResponseDto> getAll() {
-        return checkRepository.findAll();
+    public PageResponseDto<CheckResponseDto> getPage(LocalDate from, LocalDate to,
+                                                     String idEmployee, String cursor,
+                                                     int pageSize) {
+        validateRange(from, to);
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new InvalidParameterException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return checkRepository.findPage(from, to, idEmployee, cursor, pageSize);
+    }
+
+    private static void validateRange(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new InvalidParameterException("from must not be after to");
+        }
     }
 }
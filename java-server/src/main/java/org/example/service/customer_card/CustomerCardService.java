@@ -1,8 +1,15 @@
 package org.example.service.customer_card;
 
 import java.util.List;
+import org.example.dto.helper.CustomerCardDiscountDto;
 import org.example.dto.helper.CustomerCardResponseDto;
+import org.example.dto.page.PageResponseDto;
 
 public interface CustomerCardService {
     List<CustomerCardResponseDto> getAll();
+
+    CustomerCardDiscountDto getDiscount(String cardNumber);
+
+    PageResponseDto<CustomerCardResponseDto> getPage(String surname, String phone,
+                                                     String cursor, int pageSize);
 }
@@ -3,7 +3,12 @@ package org.example.service.customer_card;
 import java.util.List;
 
 import lombok.RequiredArgsConstructor;
+import org.example.dto.helper.CustomerCardDiscountDto;
 import org.example.dto.helper.CustomerCardResponseDto;
+import org.example.dto.page.PageResponseDto;
+import org.example.exception.custom_exception.EntityNotFoundException;
+import org.example.exception.custom_exception.InvalidParameterException;
+import org.example.repository.customer_card.CustomerCardDiscountCache;
 import org.example.repository.customer_card.CustomerCardRepository;
 import org.springframework.stereotype.Service;
 
@@ -11,10 +16,34 @@ import org.springframework.stereotype.Service;
 @Service
 public class CustomerCardServiceImpl implements CustomerCardService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final CustomerCardRepository customerCardRepository;
+    private final CustomerCardDiscountCache discountCache;
 
     @Override
     public List<CustomerCardResponseDto> getAll() {
         return customerCardRepository.findAll();
     }
+
+    @Override
+    public CustomerCardDiscountDto getDiscount(String cardNumber) {
+        return discountCache.find(cardNumber)
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "Customer card not found: " + cardNumber));
+    }
+
+    @Override
+    public PageResponseDto<CustomerCardResponseDto> getPage(String surname, String phone,
+                                                            String cursor, int pageSize) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new InvalidParameterException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return customerCardRepository.findPage(blankToNull(surname), blankToNull(phone),
+                cursor, pageSize);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
 }
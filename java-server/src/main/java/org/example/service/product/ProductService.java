@@ -2,8 +2,11 @@ package org.example.service.product;
 
 import java.util.List;
 import org.example.dto.page.PageResponseDto;
+import org.example.dto.product.ProductBulkItemDto;
+import org.example.dto.product.ProductBulkResultDto;
 import org.example.dto.product.ProductDto;
 import org.example.dto.product.ProductRequestDto;
+import org.example.dto.product.ProductSuggestionDto;
 import org.springframework.data.domain.Pageable;
 
 public interface ProductService {
@@ -12,17 +15,23 @@ public interface ProductService {
 
     PageResponseDto<ProductDto> getSold(Pageable pageable, Double minTotalSold);
 
+    void rebuildSalesSummary();
+
     List<ProductDto> getAllNoPagination();
 
     PageResponseDto<ProductDto> getAll(Pageable pageable, boolean sortedByName);
 
     ProductDto save(ProductRequestDto requestDto);
 
+    ProductBulkResultDto saveAll(List<ProductBulkItemDto> requestDtos);
+
     ProductDto updateProductById(int id, ProductRequestDto requestDto);
 
     PageResponseDto<ProductDto> findByName(String name,
                                            Pageable pageable);
 
+    List<ProductSuggestionDto> suggest(String query, int limit, boolean similarity);
+
     PageResponseDto<ProductDto> findByCategoryId(int category_number,
                                                  Pageable pageable,
                                                  boolean sortedByName);
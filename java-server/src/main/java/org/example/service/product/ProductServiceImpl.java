@@ -2,20 +2,32 @@ package org.example.service.product;
 
 import lombok.RequiredArgsConstructor;
 import org.example.dto.page.PageResponseDto;
+import org.example.dto.product.ProductBulkItemDto;
+import org.example.dto.product.ProductBulkRejectDto;
+import org.example.dto.product.ProductBulkResultDto;
 import org.example.dto.product.ProductDto;
 import org.example.dto.product.ProductRequestDto;
+import org.example.dto.product.ProductSuggestionDto;
+import org.example.exception.custom_exception.InvalidParameterException;
 import org.example.exception.custom_exception.InvalidProductException;
 import org.example.mapper.product.ProductMapper;
 import org.example.model.product.Product;
 import org.example.repository.product.ProductRepository;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
 @Service
 public class ProductServiceImpl implements ProductService {
 
+    private static final int MAX_SUGGESTIONS = 50;
+
     private final ProductRepository repository;
     private final ProductMapper productMapper;
 
@@ -30,6 +42,11 @@ public class ProductServiceImpl implements ProductService {
         return repository.findSold(pageable, minTotalSold);
     }
 
+    @Override
+    public void rebuildSalesSummary() {
+        repository.rebuildSalesSummary();
+    }
+
     @Override
     public List<ProductDto> getAllNoPagination() {
         return repository.findAllNoPagination();
@@ -49,6 +66,51 @@ public class ProductServiceImpl implements ProductService {
         return repository.save(product);
     }
 
+    @Override
+    @Transactional
+    public ProductBulkResultDto saveAll(List<ProductBulkItemDto> requestDtos) {
+        Set<Integer> categories = repository.findExistingCategoryNumbers(requestDtos.stream()
+                .map(ProductBulkItemDto::getCategory_number)
+                .collect(Collectors.toSet()));
+        List<Integer> ids = new ArrayList<>(Collections.nCopies(requestDtos.size(), null));
+        List<ProductBulkRejectDto> rejected = new ArrayList<>();
+        List<Integer> insertLines = new ArrayList<>();
+        List<Integer> updateLines = new ArrayList<>();
+        for (int i = 0; i < requestDtos.size(); i++) {
+            ProductBulkItemDto requestDto = requestDtos.get(i);
+            if (!categories.contains(requestDto.getCategory_number())) {
+                rejected.add(new ProductBulkRejectDto(i + 1, requestDto.getId_product(),
+                        "Invalid category: " + requestDto.getCategory_number()));
+            } else if (requestDto.getId_product() == null) {
+                insertLines.add(i);
+            } else {
+                updateLines.add(i);
+            }
+        }
+
+        List<Integer> insertedIds = repository.insertAll(
+                insertLines.stream().map(requestDtos::get).toList());
+        for (int i = 0; i < insertLines.size(); i++) {
+            ids.set(insertLines.get(i), insertedIds.get(i));
+        }
+
+        int[] updateCounts = repository.updateAll(
+                updateLines.stream().map(requestDtos::get).toList());
+        int updated = 0;
+        for (int i = 0; i < updateLines.size(); i++) {
+            int line = updateLines.get(i);
+            Integer id = requestDtos.get(line).getId_product();
+            if (updateCounts[i] == 0) {
+                rejected.add(new ProductBulkRejectDto(line + 1, id, "Product not found: " + id));
+            } else {
+                ids.set(line, id);
+                updated++;
+            }
+        }
+        rejected.sort((a, b) -> Integer.compare(a.getLine(), b.getLine()));
+        return new ProductBulkResultDto(insertLines.size(), updated, ids, rejected);
+    }
+
     @Override
     public ProductDto updateProductById(int id, ProductRequestDto requestDto) {
         return repository.updateProductById(id, requestDto);
@@ -60,6 +122,19 @@ public class ProductServiceImpl implements ProductService {
         return repository.findByName(name, pageable);
     }
 
+    @Override
+    public List<ProductSuggestionDto> suggest(String query, int limit, boolean similarity) {
+        String trimmed = query == null ? "" : query.trim();
+        if (trimmed.isEmpty()) {
+            throw new InvalidParameterException("Search query must not be blank");
+        }
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new InvalidParameterException(
+                    "limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        return repository.suggest(trimmed, limit, similarity);
+    }
+
     @Override
     public PageResponseDto<ProductDto> findByCategoryId(int category_number,
                                                         Pageable pageable, boolean sortedByName) {
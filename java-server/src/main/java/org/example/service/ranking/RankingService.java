@@ -0,0 +1,15 @@
+package org.example.service.ranking;
+
+import java.time.LocalDate;
+import java.util.List;
+import org.example.dto.ranking.CategoryRankingDto;
+import org.example.dto.ranking.ProductRankingDto;
+
+public interface RankingService {
+
+    List<CategoryRankingDto> getTopCategories(Integer days, LocalDate from, LocalDate to,
+                                              int limit);
+
+    List<ProductRankingDto> getTopProducts(Integer days, LocalDate from, LocalDate to,
+                                           int limit);
+}
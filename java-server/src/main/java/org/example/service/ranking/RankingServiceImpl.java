@@ -0,0 +1,69 @@
+package org.example.service.ranking;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.example.dto.ranking.CategoryRankingDto;
+import org.example.dto.ranking.ProductRankingDto;
+import org.example.exception.custom_exception.InvalidParameterException;
+import org.example.repository.ranking.SalesRankingRepository;
+import org.springframework.stereotype.Service;
+
+@RequiredArgsConstructor
+@Service
+public class RankingServiceImpl implements RankingService {
+
+    private static final Set<Integer> WINDOWS = Set.of(7, 30, 90);
+    private static final int DEFAULT_WINDOW = 7;
+    private static final int MAX_RANGE_DAYS = 90;
+    private static final int MAX_LIMIT = 100;
+
+    private final SalesRankingRepository rankingRepository;
+
+    @Override
+    public List<CategoryRankingDto> getTopCategories(Integer days, LocalDate from, LocalDate to,
+                                                     int limit) {
+        Range range = resolve(days, from, to, limit);
+        return rankingRepository.findTopCategories(range.from(), range.to(), limit);
+    }
+
+    @Override
+    public List<ProductRankingDto> getTopProducts(Integer days, LocalDate from, LocalDate to,
+                                                  int limit) {
+        Range range = resolve(days, from, to, limit);
+        return rankingRepository.findTopProducts(range.from(), range.to(), limit);
+    }
+
+    private Range resolve(Integer days, LocalDate from, LocalDate to, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidParameterException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (from == null && to == null) {
+            int window = days == null ? DEFAULT_WINDOW : days;
+            if (!WINDOWS.contains(window)) {
+                throw new InvalidParameterException("days must be one of 7, 30 or 90");
+            }
+            LocalDate today = LocalDate.now();
+            return new Range(today.minusDays(window - 1), today);
+        }
+        if (days != null) {
+            throw new InvalidParameterException("Use either days or from and to, not both");
+        }
+        if (from == null || to == null) {
+            throw new InvalidParameterException("Both from and to are required for a custom range");
+        }
+        if (from.isAfter(to)) {
+            throw new InvalidParameterException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) + 1 > MAX_RANGE_DAYS) {
+            throw new InvalidParameterException(
+                    "Custom range must not be longer than " + MAX_RANGE_DAYS + " days");
+        }
+        return new Range(from, to);
+    }
+
+    private record Range(LocalDate from, LocalDate to) {
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.service.revenue;
+
+import java.time.LocalDate;
+import java.util.List;
+import org.example.dto.revenue.DailyRevenueDto;
+import org.example.dto.revenue.EmployeeRevenueDto;
+
+public interface RevenueService {
+
+    List<DailyRevenueDto> getDaily(LocalDate from, LocalDate to, String idEmployee);
+
+    List<EmployeeRevenueDto> getByEmployee(LocalDate from, LocalDate to);
+
+    void rebuild();
+}
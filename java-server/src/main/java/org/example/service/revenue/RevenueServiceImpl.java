@@ -0,0 +1,54 @@
+package org.example.service.revenue;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.example.dto.revenue.DailyRevenueDto;
+import org.example.dto.revenue.EmployeeRevenueDto;
+import org.example.exception.custom_exception.InvalidParameterException;
+import org.example.repository.revenue.RevenueRollupRepository;
+import org.springframework.stereotype.Service;
+
+@RequiredArgsConstructor
+@Service
+public class RevenueServiceImpl implements RevenueService {
+
+    private static final int DEFAULT_RANGE_DAYS = 30;
+    private static final int MAX_RANGE_DAYS = 366;
+
+    private final RevenueRollupRepository revenueRepository;
+
+    @Override
+    public List<DailyRevenueDto> getDaily(LocalDate from, LocalDate to, String idEmployee) {
+        Range range = resolve(from, to);
+        return revenueRepository.findDaily(range.from(), range.to(), idEmployee);
+    }
+
+    @Override
+    public List<EmployeeRevenueDto> getByEmployee(LocalDate from, LocalDate to) {
+        Range range = resolve(from, to);
+        return revenueRepository.findByEmployee(range.from(), range.to());
+    }
+
+    @Override
+    public void rebuild() {
+        revenueRepository.rebuild();
+    }
+
+    private Range resolve(LocalDate from, LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1);
+        if (start.isAfter(end)) {
+            throw new InvalidParameterException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(start, end) + 1 > MAX_RANGE_DAYS) {
+            throw new InvalidParameterException(
+                    "Range must not be longer than " + MAX_RANGE_DAYS + " days");
+        }
+        return new Range(start, end);
+    }
+
+    private record Range(LocalDate from, LocalDate to) {
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.service.store_product;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@RequiredArgsConstructor
+@Component
+public class BatchExpiryJob {
+
+    private final BatchService batchService;
+
+    @Scheduled(cron = "${batch.expiry.cron}")
+    public void purgeExpired() {
+        batchService.removeExpired();
+    }
+}
@@ -1,10 +1,19 @@
 package org.example.service.store_product;
 
+import java.util.List;
+import org.example.dto.store_product.batch.BatchBulkResultDto;
 import org.example.dto.store_product.batch.BatchRequestDto;
+import org.example.dto.store_product.batch.ExpiringStoreProductDto;
 import org.example.dto.store_product.product.StoreProductDto;
 
 public interface BatchService {
     StoreProductDto save(BatchRequestDto requestDto);
 
+    BatchBulkResultDto saveAll(List<BatchRequestDto> requestDtos);
+
+    List<ExpiringStoreProductDto> findExpiring(int days);
+
     void removeExpired();
+
+    void recomputePromotions();
 }
@@ -1,25 +1,98 @@
 package org.example.service.store_product;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.example.dto.store_product.batch.BatchBulkResultDto;
+import org.example.dto.store_product.batch.BatchReceiptRejectDto;
 import org.example.dto.store_product.batch.BatchRequestDto;
+import org.example.dto.store_product.batch.ExpiringBatchDto;
+import org.example.dto.store_product.batch.ExpiringStoreProductDto;
 import org.example.dto.store_product.product.StoreProductDto;
+import org.example.exception.custom_exception.InvalidParameterException;
 import org.example.mapper.store_product.StoreProductMapper;
+import org.example.model.store_product.StoreProduct;
+import org.example.repository.store_product.BatchExpiryIndex;
 import org.example.repository.store_product.BatchRepository;
+import org.example.repository.store_product.ExpiredBatchPurge;
+import org.example.repository.store_product.ExpiringBatch;
+import org.example.repository.store_product.PromotionRecompute;
 import org.springframework.stereotype.Service;
 
 @RequiredArgsConstructor
 @Service
 public class BatchServiceImpl implements BatchService {
+    private static final int MAX_EXPIRING_DAYS = 365;
+
     private final BatchRepository batchRepository;
     private final StoreProductMapper storeProductMapper;
+    private final MeterRegistry meterRegistry;
+    private final BatchExpiryIndex expiryIndex;
 
     @Override
     public StoreProductDto save(BatchRequestDto requestDto) {
         return storeProductMapper.toDto(batchRepository.save(requestDto));
     }
 
+    @Override
+    public BatchBulkResultDto saveAll(List<BatchRequestDto> requestDtos) {
+        List<StoreProduct> received = batchRepository.saveAll(requestDtos);
+        Set<String> receivedUPCs = received.stream()
+                .map(StoreProduct::getUPC)
+                .collect(Collectors.toSet());
+        List<BatchReceiptRejectDto> rejected = new ArrayList<>();
+        for (int i = 0; i < requestDtos.size(); i++) {
+            String upc = requestDtos.get(i).getUPC();
+            if (!receivedUPCs.contains(upc)) {
+                rejected.add(new BatchReceiptRejectDto(i + 1, upc, "Store product not found"));
+            }
+        }
+        return new BatchBulkResultDto(requestDtos.size() - rejected.size(),
+                received.stream().map(storeProductMapper::toDto).toList(),
+                rejected);
+    }
+
+    @Override
+    public List<ExpiringStoreProductDto> findExpiring(int days) {
+        if (days < 0 || days > MAX_EXPIRING_DAYS) {
+            throw new InvalidParameterException(
+                    "days must be between 0 and " + MAX_EXPIRING_DAYS);
+        }
+        LocalDate today = LocalDate.now();
+        Map<String, ExpiringStoreProductDto> byUPC = new LinkedHashMap<>();
+        for (ExpiringBatch batch : expiryIndex.expiringBetween(today, today.plusDays(days))) {
+            ExpiringStoreProductDto product = byUPC.computeIfAbsent(batch.UPC(),
+                    upc -> new ExpiringStoreProductDto(upc, 0, new ArrayList<>()));
+            product.setQuantity(product.getQuantity() + batch.quantity());
+            product.getBatches().add(new ExpiringBatchDto(batch.id(), batch.deliveryDate(),
+                    batch.expiringDate(), batch.quantity()));
+        }
+        return new ArrayList<>(byUPC.values());
+    }
+
     @Override
     public void removeExpired() {
-        batchRepository.deleteExpired();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        ExpiredBatchPurge purge = batchRepository.deleteExpired();
+        sample.stop(meterRegistry.timer("batch.expiry.duration"));
+        meterRegistry.counter("batch.expiry.batches.deleted").increment(purge.batchesDeleted());
+        meterRegistry.counter("batch.expiry.store.products.updated")
+                .increment(purge.storeProductsUpdated());
+    }
+
+    @Override
+    public void recomputePromotions() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        PromotionRecompute recompute = batchRepository.recomputePromotions();
+        sample.stop(meterRegistry.timer("batch.promotion.duration"));
+        meterRegistry.counter("batch.promotion.promoted").increment(recompute.promoted());
+        meterRegistry.counter("batch.promotion.demoted").increment(recompute.demoted());
     }
 }
@@ -0,0 +1,17 @@
+package org.example.service.store_product;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@RequiredArgsConstructor
+@Component
+public class PromotionRecomputeJob {
+
+    private final BatchService batchService;
+
+    @Scheduled(cron = "${batch.promotion.cron}")
+    public void recomputePromotions() {
+        batchService.recomputePromotions();
+    }
+}
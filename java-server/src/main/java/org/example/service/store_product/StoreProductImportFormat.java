@@ -0,0 +1,25 @@
+package org.example.service.store_product;
+
+import org.example.exception.custom_exception.InvalidParameterException;
+import org.springframework.http.MediaType;
+
+public enum StoreProductImportFormat {
+    CSV(MediaType.parseMediaType("text/csv")),
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"));
+
+    private final MediaType mediaType;
+
+    StoreProductImportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public static StoreProductImportFormat fromContentType(String contentType) {
+        MediaType requested = MediaType.parseMediaType(contentType);
+        for (StoreProductImportFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(requested)) {
+                return format;
+            }
+        }
+        throw new InvalidParameterException("Unsupported import format: " + contentType);
+    }
+}
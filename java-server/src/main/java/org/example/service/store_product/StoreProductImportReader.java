@@ -0,0 +1,151 @@
+package org.example.service.store_product;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.Getter;
+import org.example.dto.store_product.product.StoreProductImportRejectDto;
+import org.example.dto.store_product.product.StoreProductRequestDto;
+import org.example.repository.store_product.StoreProductImportRow;
+
+class StoreProductImportReader implements Iterator<StoreProductImportRow> {
+
+    private static final int MAX_UPC_LENGTH = 12;
+    private static final int CSV_COLUMNS = 6;
+    private static final String CSV_HEADER_PREFIX = "upc,";
+
+    private final BufferedReader reader;
+    private final StoreProductImportFormat format;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    @Getter
+    private final List<StoreProductImportRejectDto> rejected = new ArrayList<>();
+    @Getter
+    private int received;
+    private int lineNumber;
+    private StoreProductImportRow next;
+
+    StoreProductImportReader(BufferedReader reader,
+                             StoreProductImportFormat format,
+                             ObjectMapper objectMapper,
+                             Validator validator) {
+        this.reader = reader;
+        this.format = format;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = readNext();
+        }
+        return next != null;
+    }
+
+    @Override
+    public StoreProductImportRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        StoreProductImportRow row = next;
+        next = null;
+        return row;
+    }
+
+    private StoreProductImportRow readNext() {
+        String line;
+        while ((line = readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == StoreProductImportFormat.CSV && lineNumber == 1
+                    && line.trim().toLowerCase().startsWith(CSV_HEADER_PREFIX)) {
+                continue;
+            }
+            received++;
+            StoreProductRequestDto product;
+            try {
+                product = format == StoreProductImportFormat.CSV
+                        ? parseCsv(line)
+                        : objectMapper.readValue(line, StoreProductRequestDto.class);
+            } catch (IllegalArgumentException | JsonProcessingException e) {
+                reject(null, "Malformed row: " + e.getMessage());
+                continue;
+            }
+            String reason = validate(product);
+            if (reason != null) {
+                reject(product.getUPC(), reason);
+                continue;
+            }
+            return new StoreProductImportRow(lineNumber, product);
+        }
+        return null;
+    }
+
+    private StoreProductRequestDto parseCsv(String line) {
+        String[] columns = line.split(",", -1);
+        if (columns.length != CSV_COLUMNS) {
+            throw new IllegalArgumentException(
+                    "expected " + CSV_COLUMNS + " columns, got " + columns.length);
+        }
+        StoreProductRequestDto product = new StoreProductRequestDto();
+        product.setUPC(columns[0].trim());
+        product.setUPC_prom(columns[1].isBlank() ? null : columns[1].trim());
+        product.setId_product(Integer.parseInt(columns[2].trim()));
+        product.setSelling_price(new BigDecimal(columns[3].trim()));
+        product.setProducts_number(Integer.parseInt(columns[4].trim()));
+        product.setPromotional_product(parseBoolean(columns[5].trim()));
+        return product;
+    }
+
+    private static boolean parseBoolean(String value) {
+        if ("true".equalsIgnoreCase(value)) {
+            return true;
+        }
+        if ("false".equalsIgnoreCase(value)) {
+            return false;
+        }
+        throw new IllegalArgumentException("not a boolean: " + value);
+    }
+
+    private String validate(StoreProductRequestDto product) {
+        Set<ConstraintViolation<StoreProductRequestDto>> violations = validator.validate(product);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        if (product.getUPC().length() > MAX_UPC_LENGTH
+                || (product.getUPC_prom() != null
+                && product.getUPC_prom().length() > MAX_UPC_LENGTH)) {
+            return "UPC must be at most " + MAX_UPC_LENGTH + " characters";
+        }
+        return null;
+    }
+
+    private void reject(String upc, String reason) {
+        rejected.add(new StoreProductImportRejectDto(lineNumber, upc, reason));
+    }
+
+    private String readLine() {
+        try {
+            return reader.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
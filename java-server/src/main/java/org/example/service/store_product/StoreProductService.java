@@ -1,8 +1,12 @@
 package org.example.service.store_product;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.function.Consumer;
 import org.example.dto.page.PageResponseDto;
 import org.example.dto.store_product.product.StoreProductDto;
+import org.example.dto.store_product.product.StoreProductImportResultDto;
+import org.example.dto.store_product.product.StoreProductLookupResponseDto;
 import org.example.dto.store_product.product.StoreProductPriceAndQuantityDto;
 import org.example.dto.store_product.product.StoreProductRequestDto;
 import org.example.dto.store_product.product.StoreProductWithNameDto;
@@ -14,7 +18,7 @@ public interface StoreProductService {
 
     List<StoreProductDto> getAllNoPagination();
 
-    List<StoreProductWithNameDto> getAllWithNameNoPagination();
+    void streamAllWithName(Consumer<StoreProductWithNameDto> consumer);
 
     PageResponseDto<StoreProductWithNameDto> getAllSortedByQuantity(Pageable pageable);
 
@@ -42,5 +46,14 @@ public interface StoreProductService {
 
     StoreProductPriceAndQuantityDto findPriceAndQuantityByUPC(String upc);
 
+    StoreProductLookupResponseDto lookup(List<String> upcs);
+
+    StoreProductImportResultDto importProducts(InputStream body, StoreProductImportFormat format);
+
     PageResponseDto<?> getAll(String sortedBy, Boolean prom, Pageable pageable);
+
+    PageResponseDto<StoreProductWithNameDto> getAll(String sortedBy,
+                                                    Boolean prom,
+                                                    String cursor,
+                                                    int pageSize);
 }
@@ -1,15 +1,34 @@
 package org.example.service.store_product;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.example.dto.page.PageResponseDto;
 import org.example.dto.store_product.product.StoreProductDto;
+import org.example.dto.store_product.product.StoreProductImportRejectDto;
+import org.example.dto.store_product.product.StoreProductImportResultDto;
+import org.example.dto.store_product.product.StoreProductLookupItemDto;
+import org.example.dto.store_product.product.StoreProductLookupResponseDto;
 import org.example.dto.store_product.product.StoreProductPriceAndQuantityDto;
 import org.example.dto.store_product.product.StoreProductRequestDto;
 import org.example.dto.store_product.product.StoreProductWithNameDto;
 import org.example.exception.custom_exception.EntityNotFoundException;
 import org.example.mapper.store_product.StoreProductMapper;
 import org.example.repository.store_product.StoreProductRepository;
+import org.example.repository.store_product.StoreProductSortKey;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
@@ -19,6 +38,8 @@ public class StoreProductServiceImpl implements StoreProductService {
 
     private final StoreProductRepository repository;
     private final StoreProductMapper storeProductMapper;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
 
     public PageResponseDto<?> getAll(String sortedBy, Boolean prom, Pageable pageable) {
         if ("name".equals(sortedBy)) {
@@ -44,6 +65,14 @@ public class StoreProductServiceImpl implements StoreProductService {
         return getAll(pageable);
     }
 
+    @Override
+    public PageResponseDto<StoreProductWithNameDto> getAll(String sortedBy,
+                                                           Boolean prom,
+                                                           String cursor,
+                                                           int pageSize) {
+        return repository.findPage(StoreProductSortKey.fromParam(sortedBy), prom, cursor, pageSize);
+    }
+
     @Override
     public PageResponseDto<StoreProductWithNameDto> getAll(
             Pageable pageable) {
@@ -56,8 +85,8 @@ public class StoreProductServiceImpl implements StoreProductService {
     }
 
     @Override
-    public List<StoreProductWithNameDto> getAllWithNameNoPagination() {
-        return repository.findAllWithNameNoPagination();
+    public void streamAllWithName(Consumer<StoreProductWithNameDto> consumer) {
+        repository.streamAllWithName(consumer);
     }
 
     @Override
@@ -134,4 +163,36 @@ public class StoreProductServiceImpl implements StoreProductService {
         return repository.findPriceAndQuantityByUPC(upc)
                 .orElseThrow(() -> new EntityNotFoundException("No product found with UPC: " + upc));
     }
+
+    @Override
+    public StoreProductLookupResponseDto lookup(List<String> upcs) {
+        Set<String> requested = new LinkedHashSet<>(upcs);
+        Map<String, StoreProductLookupItemDto> found = repository.findLookupItemsByUPCs(requested)
+                .stream()
+                .collect(Collectors.toMap(StoreProductLookupItemDto::getUPC, Function.identity()));
+        List<StoreProductLookupItemDto> items = new ArrayList<>();
+        List<String> misses = new ArrayList<>();
+        for (String upc : requested) {
+            StoreProductLookupItemDto item = found.get(upc);
+            if (item != null) {
+                items.add(item);
+            } else {
+                misses.add(upc);
+            }
+        }
+        return new StoreProductLookupResponseDto(items, misses);
+    }
+
+    @Override
+    public StoreProductImportResultDto importProducts(InputStream body,
+                                                      StoreProductImportFormat format) {
+        StoreProductImportReader reader = new StoreProductImportReader(
+                new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)),
+                format, objectMapper, validator);
+        StoreProductImportResultDto result = repository.importAll(reader);
+        List<StoreProductImportRejectDto> rejected = new ArrayList<>(reader.getRejected());
+        rejected.addAll(result.getRejected());
+        rejected.sort(Comparator.comparingInt(StoreProductImportRejectDto::getLine));
+        return new StoreProductImportResultDto(reader.getReceived(), result.getImported(), rejected);
+    }
 }
@@ -0,0 +1,26 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public final class Migrations {
+
+    private static final Path MIGRATIONS = Path.of("../migrations");
+
+    private Migrations() {
+    }
+
+    public static void applyAll(JdbcTemplate jdbcTemplate) {
+        try (Stream<Path> files = Files.list(MIGRATIONS)) {
+            for (Path file : files.filter(f -> f.toString().endsWith(".up.sql")).sorted().toList()) {
+                jdbcTemplate.execute(Files.readString(file));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
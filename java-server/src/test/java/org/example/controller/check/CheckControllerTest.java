@@ -0,0 +1,118 @@
+package org.example.controller.check;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import org.example.dto.check.CheckDetailsDto;
+import org.example.dto.check.CheckProductDto;
+import org.example.exception.custom_exception.EntityNotFoundException;
+import org.example.service.check.CheckService;
+import org.example.service.employee.EmployeeService;
+import org.example.service.report.PdfReportGeneratorService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = "FRONT_URL=http://localhost:3000")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CheckControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CheckService checkService;
+
+    @MockBean
+    private PdfReportGeneratorService pdfReportGeneratorService;
+
+    @MockBean
+    private EmployeeService employeeService;
+
+    private CheckDetailsDto check;
+
+    @BeforeEach
+    void setUp() {
+        CheckProductDto product = new CheckProductDto();
+        product.setProduct_name("Apple");
+        product.setSelling_price(new BigDecimal("5.00"));
+        product.setProduct_number(2);
+
+        check = new CheckDetailsDto();
+        check.setCheck_number("CHK1");
+        check.setId_employee("EMP1");
+        check.setCard_number("CARD1");
+        check.setPrint_date(LocalDateTime.of(2024, 1, 1, 0, 0));
+        check.setSum_total(new BigDecimal("10.00"));
+        check.setVat(new BigDecimal("2.00"));
+        check.getProducts().add(product);
+    }
+
+    @Test
+    @WithMockUser(authorities = "CASHIER")
+    @DisplayName("GET /checks/{checkNumber} - should return the check with a strong ETag")
+    void getByNumber_ok() throws Exception {
+        when(checkService.getByNumber("CHK1")).thenReturn(check);
+
+        String eTag = mockMvc.perform(get("/checks/CHK1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(jsonPath("$.check_number").value("CHK1"))
+                .andExpect(jsonPath("$.products[0].product_name").value("Apple"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertEquals('"', eTag.charAt(0));
+        assertEquals('"', eTag.charAt(eTag.length() - 1));
+    }
+
+    @Test
+    @WithMockUser(authorities = "CASHIER")
+    @DisplayName("GET /checks/{checkNumber} - should answer 304 when the ETag matches")
+    void getByNumber_notModified() throws Exception {
+        when(checkService.getByNumber("CHK1")).thenReturn(check);
+        String eTag = mockMvc.perform(get("/checks/CHK1"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/checks/CHK1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+    }
+
+    @Test
+    @WithMockUser(authorities = "GUEST")
+    @DisplayName("GET /checks/{checkNumber} - should be forbidden without an employee role")
+    void getByNumber_withoutRole_Forbidden() throws Exception {
+        mockMvc.perform(get("/checks/CHK1"))
+                .andExpect(status().isForbidden());
+        verify(checkService, never()).getByNumber(anyString());
+    }
+
+    @Test
+    @WithMockUser(authorities = "MANAGER")
+    @DisplayName("GET /checks/{checkNumber} - should return 404 for an unknown check")
+    void getByNumber_notFound() throws Exception {
+        when(checkService.getByNumber("CHK9"))
+                .thenThrow(new EntityNotFoundException("Check not found: CHK9"));
+
+        mockMvc.perform(get("/checks/CHK9"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -12,8 +12,12 @@ import java.util.List;
 
 import org.example.dto.employee.registration.EmployeeResponseDto;
 import org.example.dto.page.PageResponseDto;
+import org.example.dto.product.ProductBulkItemDto;
+import org.example.dto.product.ProductBulkRequestDto;
+import org.example.dto.product.ProductBulkResultDto;
 import org.example.dto.product.ProductDto;
 import org.example.dto.product.ProductRequestDto;
+import org.example.dto.product.ProductSuggestionDto;
 import org.example.service.employee.EmployeeService;
 import org.example.service.product.ProductService;
 import org.example.service.report.PdfReportGeneratorService;
@@ -120,6 +124,78 @@ class ProductControllerTest {
         verify(productService).findByName(eq("Apple"), any(Pageable.class));
     }
 
+    @Test
+    @WithMockUser(authorities = "CASHIER")
+    @DisplayName("GET /products/suggest - should return ranked suggestions")
+    void suggest_ok() throws Exception {
+        when(productService.suggest("Ap", 5, true))
+                .thenReturn(List.of(new ProductSuggestionDto(1, "Apple")));
+
+        mockMvc.perform(get("/products/suggest")
+                        .param("q", "Ap")
+                        .param("limit", "5")
+                        .param("similarity", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id_product").value(1))
+                .andExpect(jsonPath("$[0].product_name").value("Apple"));
+    }
+
+    @Test
+    @WithMockUser(authorities = "MANAGER")
+    @DisplayName("POST /products/sold/rebuild - manager can rebuild the sales summary")
+    void rebuildSalesSummary_manager_noContent() throws Exception {
+        mockMvc.perform(post("/products/sold/rebuild").with(csrf()))
+                .andExpect(status().isNoContent());
+
+        verify(productService).rebuildSalesSummary();
+    }
+
+    @Test
+    @WithMockUser(authorities = "MANAGER")
+    @DisplayName("POST /products/bulk - manager can load a catalog")
+    void bulkUpsert_manager_ok() throws Exception {
+        ProductBulkItemDto item = new ProductBulkItemDto();
+        item.setProduct_name("Orange");
+        item.setProducer("Producer A");
+        item.setProduct_characteristics("Fresh");
+        item.setCategory_number(10);
+        ProductBulkRequestDto request = new ProductBulkRequestDto();
+        request.setProducts(List.of(item));
+        when(productService.saveAll(anyList()))
+                .thenReturn(new ProductBulkResultDto(1, 0, List.of(42), List.of()));
+
+        mockMvc.perform(post("/products/bulk")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(1))
+                .andExpect(jsonPath("$.ids[0]").value(42));
+    }
+
+    @Test
+    @WithMockUser(authorities = "MANAGER")
+    @DisplayName("POST /products/bulk - empty catalog is rejected")
+    void bulkUpsert_empty_unprocessable() throws Exception {
+        mockMvc.perform(post("/products/bulk")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"products\": []}"))
+                .andExpect(status().isUnprocessableEntity());
+
+        verify(productService, never()).saveAll(anyList());
+    }
+
+    @Test
+    @WithMockUser(authorities = "CASHIER")
+    @DisplayName("POST /products/sold/rebuild - cashier forbidden")
+    void rebuildSalesSummary_cashier_forbidden() throws Exception {
+        mockMvc.perform(post("/products/sold/rebuild").with(csrf()))
+                .andExpect(status().isForbidden());
+
+        verify(productService, never()).rebuildSalesSummary();
+    }
+
     @Test
     @WithMockUser(authorities = "MANAGER")
     @DisplayName("GET /products?name - manager forbidden")
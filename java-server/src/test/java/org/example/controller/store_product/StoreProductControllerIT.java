@@ -1,5 +1,6 @@
 package org.example.controller.store_product;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -8,6 +9,7 @@ import org.example.RestPage;
 import org.example.dto.employee.login.EmployeeLoginRequestDto;
 import org.example.dto.employee.login.EmployeeLoginResponseDto;
 import org.example.dto.store_product.product.StoreProductDto;
+import org.example.dto.store_product.product.StoreProductWithNameDto;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -77,4 +79,17 @@ public class StoreProductControllerIT {
                     "Products should be sorted by quantity in ascending order");
         }
     }
+
+    @Test
+    @DisplayName("GET /store-products/all streams every active store product with its name")
+    void getAllWithoutPagination_StreamsActiveProducts() {
+        List<StoreProductWithNameDto> storeProducts = restClient.get()
+                .uri("/store-products/all")
+                .retrieve()
+                .body(new ParameterizedTypeReference<List<StoreProductWithNameDto>>() {});
+
+        assertNotNull(storeProducts);
+        assertFalse(storeProducts.isEmpty());
+        assertTrue(storeProducts.stream().allMatch(p -> p.getProduct_name() != null));
+    }
 }
@@ -3,6 +3,7 @@ package org.example.controller.store_product;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyList;
 import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.never;
@@ -10,6 +11,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -17,26 +19,40 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.math.BigDecimal;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.example.dto.employee.registration.EmployeeResponseDto;
 import org.example.dto.page.PageResponseDto;
 import org.example.dto.product.ProductDto;
+import org.example.dto.store_product.batch.BatchBulkRequestDto;
+import org.example.dto.store_product.batch.BatchBulkResultDto;
+import org.example.dto.store_product.batch.BatchReceiptRejectDto;
 import org.example.dto.store_product.batch.BatchRequestDto;
+import org.example.dto.store_product.batch.ExpiringBatchDto;
+import org.example.dto.store_product.batch.ExpiringStoreProductDto;
 import org.example.dto.store_product.product.StoreProductDto;
+import org.example.dto.store_product.product.StoreProductImportRejectDto;
+import org.example.dto.store_product.product.StoreProductImportResultDto;
+import org.example.dto.store_product.product.StoreProductLookupItemDto;
+import org.example.dto.store_product.product.StoreProductLookupRequestDto;
+import org.example.dto.store_product.product.StoreProductLookupResponseDto;
 import org.example.dto.store_product.product.StoreProductPriceAndQuantityDto;
 import org.example.dto.store_product.product.StoreProductRequestDto;
 import org.example.dto.store_product.product.StoreProductWithNameDto;
 import org.example.service.employee.EmployeeService;
 import org.example.service.report.PdfReportGeneratorService;
 import org.example.service.store_product.BatchService;
+import org.example.service.store_product.StoreProductImportFormat;
 import org.example.service.store_product.StoreProductService;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.BeforeEach;
@@ -52,6 +68,7 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
         properties = "FRONT_URL=http://localhost:3000")
@@ -184,6 +201,56 @@ class StoreProductControllerTest {
                 .getAll(eq("quantity"), any(), any(Pageable.class));
     }
 
+    @Test
+    @WithMockUser(authorities = "MANAGER")
+    @DisplayName("GET /store-products?cursor= - should switch to keyset paging")
+    void getStoreProducts_withCursor_usesKeysetPaging() throws Exception {
+        PageResponseDto<StoreProductWithNameDto> page = PageResponseDto.of(
+                new ArrayList<>(List.of(getProductWithNameDto(storeProductDto1, false))),
+                10,
+                2,
+                true,
+                "next-token"
+        );
+        when(storeProductService.getAll(eq("name"), any(), eq(""), eq(10))).thenReturn(page);
+
+        mockMvc.perform(get("/store-products")
+                        .param("sorted_by", "name")
+                        .param("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").value("next-token"));
+
+        verify(storeProductService, never()).getAll(any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("GET /store-products/all - should stream all products as a JSON array")
+    void getAllWithoutPagination_streamsJsonArray() throws Exception {
+        StoreProductWithNameDto first = new StoreProductWithNameDto();
+        first.setUPC("1234567890");
+        first.setProduct_name("Product 1");
+        StoreProductWithNameDto second = new StoreProductWithNameDto();
+        second.setUPC("0987654321");
+        second.setProduct_name("Product 2");
+        doAnswer(invocation -> {
+            Consumer<StoreProductWithNameDto> consumer = invocation.getArgument(0);
+            consumer.accept(first);
+            consumer.accept(second);
+            return null;
+        }).when(storeProductService).streamAllWithName(any());
+
+        MvcResult started = mockMvc.perform(get("/store-products/all"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].upc").value("1234567890"))
+                .andExpect(jsonPath("$[1].product_name").value("Product 2"));
+    }
+
     @Test
     @WithMockUser(authorities = "MANAGER")
     @DisplayName("POST /store-products - Manager should create store product successfully")
@@ -332,6 +399,78 @@ class StoreProductControllerTest {
         verify(storeProductService, times(1)).findPriceAndQuantityByUPC("1234567890");
     }
 
+    @Test
+    @WithMockUser(authorities = "MANAGER")
+    @DisplayName("POST /store-products/import - Manager should import a CSV body")
+    void importStoreProducts_csv_asManager_Ok() throws Exception {
+        when(storeProductService.importProducts(any(), eq(StoreProductImportFormat.CSV)))
+                .thenReturn(new StoreProductImportResultDto(2, 1, List.of(
+                        new StoreProductImportRejectDto(2, "0987654321", "Duplicate UPC in file"))));
+
+        mockMvc.perform(post("/store-products/import")
+                        .with(csrf())
+                        .contentType("text/csv")
+                        .content("1234567890,,1,100.00,50,false\n0987654321,,1,100.00,50,false\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(2))
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.rejected[0].line").value(2))
+                .andExpect(jsonPath("$.rejected[0].reason").value("Duplicate UPC in file"));
+    }
+
+    @Test
+    @WithMockUser(authorities = "CASHIER")
+    @DisplayName("POST /store-products/import - Cashier should get forbidden")
+    void importStoreProducts_asCashier_Forbidden() throws Exception {
+        mockMvc.perform(post("/store-products/import")
+                        .with(csrf())
+                        .contentType("application/x-ndjson")
+                        .content("{}\n"))
+                .andExpect(status().isForbidden());
+
+        verify(storeProductService, never()).importProducts(any(), any());
+    }
+
+    @Test
+    @WithMockUser(authorities = "CASHIER")
+    @DisplayName("POST /store-products/lookup - Cashier should resolve a basket")
+    void lookup_asCashier_Ok() throws Exception {
+        StoreProductLookupRequestDto request = new StoreProductLookupRequestDto();
+        request.setUpcs(List.of("1234567890", "0000000000"));
+        StoreProductLookupItemDto item = new StoreProductLookupItemDto();
+        item.setUPC("1234567890");
+        item.setProduct_name("Product 1");
+        item.setSelling_price(BigDecimal.valueOf(100.0));
+        item.setProducts_number(50);
+        when(storeProductService.lookup(List.of("1234567890", "0000000000")))
+                .thenReturn(new StoreProductLookupResponseDto(List.of(item), List.of("0000000000")));
+
+        mockMvc.perform(post("/store-products/lookup")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].upc").value("1234567890"))
+                .andExpect(jsonPath("$.items[0].product_name").value("Product 1"))
+                .andExpect(jsonPath("$.misses[0]").value("0000000000"));
+    }
+
+    @Test
+    @WithMockUser(authorities = "CASHIER")
+    @DisplayName("POST /store-products/lookup - should reject an empty basket")
+    void lookup_emptyBasket_UnprocessableEntity() throws Exception {
+        StoreProductLookupRequestDto request = new StoreProductLookupRequestDto();
+        request.setUpcs(List.of());
+
+        mockMvc.perform(post("/store-products/lookup")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isUnprocessableEntity());
+
+        verify(storeProductService, never()).lookup(anyList());
+    }
+
     @Test
     @WithMockUser(authorities = "MANAGER")
     @DisplayName("POST /store-products/receive - Manager should receive new batch successfully")
@@ -377,6 +516,86 @@ class StoreProductControllerTest {
         verify(batchService, never()).save(any(BatchRequestDto.class));
     }
 
+    @Test
+    @WithMockUser(authorities = "MANAGER")
+    @DisplayName("POST /store-products/receive/bulk - Manager should receive a delivery")
+    void receiveDelivery_asManager_Ok() throws Exception {
+        BatchBulkRequestDto request = new BatchBulkRequestDto();
+        request.setBatches(List.of(batchRequestDto, batchRequestDto));
+        when(batchService.saveAll(anyList())).thenReturn(new BatchBulkResultDto(1,
+                List.of(storeProductDto1),
+                List.of(new BatchReceiptRejectDto(2, "1234567890", "Store product not found"))));
+
+        mockMvc.perform(post("/store-products/receive/bulk")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(1))
+                .andExpect(jsonPath("$.products[0].upc").value("1234567890"))
+                .andExpect(jsonPath("$.rejected[0].line").value(2));
+
+        verify(batchService, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    @WithMockUser(authorities = "CASHIER")
+    @DisplayName("POST /store-products/receive/bulk - Cashier should get forbidden")
+    void receiveDelivery_asCashier_Forbidden() throws Exception {
+        BatchBulkRequestDto request = new BatchBulkRequestDto();
+        request.setBatches(List.of(batchRequestDto));
+
+        mockMvc.perform(post("/store-products/receive/bulk")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isForbidden());
+
+        verify(batchService, never()).saveAll(anyList());
+    }
+
+    @Test
+    @WithMockUser(authorities = "MANAGER")
+    @DisplayName("POST /store-products/receive/bulk - should return unprocessable entity for invalid line")
+    void receiveDelivery_invalidLine_UnprocessableEntity() throws Exception {
+        BatchBulkRequestDto request = new BatchBulkRequestDto();
+        request.setBatches(List.of(batchRequestDto, new BatchRequestDto()));
+
+        mockMvc.perform(post("/store-products/receive/bulk")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isUnprocessableEntity());
+
+        verify(batchService, never()).saveAll(anyList());
+    }
+
+    @Test
+    @WithMockUser(authorities = "MANAGER")
+    @DisplayName("GET /store-products/expiring - Manager should get batches expiring soon")
+    void getExpiring_asManager_Ok() throws Exception {
+        ExpiringStoreProductDto expiring = new ExpiringStoreProductDto("1234567890", 20,
+                List.of(new ExpiringBatchDto(1L, LocalDate.of(2025, 1, 2),
+                        LocalDate.of(2025, 1, 5), 20)));
+        when(batchService.findExpiring(3)).thenReturn(List.of(expiring));
+
+        mockMvc.perform(get("/store-products/expiring").param("days", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].upc").value("1234567890"))
+                .andExpect(jsonPath("$[0].quantity").value(20))
+                .andExpect(jsonPath("$[0].batches[0].expiring_date").value("2025-01-05"));
+    }
+
+    @Test
+    @WithMockUser(authorities = "CASHIER")
+    @DisplayName("GET /store-products/expiring - Cashier should get forbidden")
+    void getExpiring_asCashier_Forbidden() throws Exception {
+        mockMvc.perform(get("/store-products/expiring"))
+                .andExpect(status().isForbidden());
+
+        verify(batchService, never()).findExpiring(5);
+    }
+
     @Test
     @WithMockUser(authorities = "MANAGER")
     @DisplayName("DELETE /store-products/expired - Manager should delete expired batches successfully")
@@ -0,0 +1,35 @@
+package org.example.dto.page;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import org.example.exception.custom_exception.InvalidParameterException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Page Cursor Tests")
+class PageCursorTest {
+
+    @Test
+    @DisplayName("decode should restore encoded values including separators and empty parts")
+    void decode_shouldRoundTrip() {
+        String cursor = PageCursor.encode("NAME", "Milk: 2.5%, 1l", "");
+
+        assertEquals(List.of("NAME", "Milk: 2.5%, 1l", ""), PageCursor.decode(cursor, 3));
+    }
+
+    @Test
+    @DisplayName("decode should reject tokens that are not base64")
+    void decode_notBase64_shouldThrowException() {
+        assertThrows(InvalidParameterException.class, () -> PageCursor.decode("%%%", 3));
+    }
+
+    @Test
+    @DisplayName("decode should reject tokens with unexpected number of values")
+    void decode_wrongArity_shouldThrowException() {
+        String cursor = PageCursor.encode("NAME", "Milk");
+
+        assertThrows(InvalidParameterException.class, () -> PageCursor.decode(cursor, 3));
+    }
+}
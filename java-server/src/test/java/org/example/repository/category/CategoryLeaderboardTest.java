@@ -0,0 +1,74 @@
+package org.example.repository.category;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import org.example.dto.helper.CategoryResponseDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Category Leaderboard Tests")
+class CategoryLeaderboardTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private CategoryLeaderboard leaderboard;
+
+    @Test
+    @DisplayName("a single leader should be returned with every category tied for second")
+    void leaders_singleLeader_shouldIncludeSecondPlace() {
+        List<CategoryResponseDto> top = CategoryLeaderboard.leaders(List.of(
+                category(1, 50), category(2, 30), category(3, 30), category(4, 10)));
+
+        assertEquals(List.of(1, 2, 3), top.stream().map(CategoryResponseDto::getCategory_number).toList());
+    }
+
+    @Test
+    @DisplayName("tied leaders should be returned without second place")
+    void leaders_tiedLeaders_shouldExcludeSecondPlace() {
+        List<CategoryResponseDto> top = CategoryLeaderboard.leaders(List.of(
+                category(1, 50), category(2, 50), category(3, 30)));
+
+        assertEquals(List.of(1, 2), top.stream().map(CategoryResponseDto::getCategory_number).toList());
+    }
+
+    @Test
+    @DisplayName("top should refresh once and then serve the snapshot from memory")
+    @SuppressWarnings("unchecked")
+    void top_shouldServeSnapshotFromMemory() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class)))
+                .thenReturn(List.of(category(1, 50), category(2, 30)));
+
+        CategoryLeaderboard.Snapshot first = leaderboard.top();
+        CategoryLeaderboard.Snapshot second = leaderboard.top();
+
+        assertSame(first, second);
+        assertEquals(2, second.categories().size());
+        verify(jdbcTemplate, times(1))
+                .execute("REFRESH MATERIALIZED VIEW CONCURRENTLY category_sales_leaderboard");
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowMapper.class));
+    }
+
+    private static CategoryResponseDto category(int number, int totalSold) {
+        CategoryResponseDto dto = new CategoryResponseDto();
+        dto.setCategory_number(number);
+        dto.setCategory_name("Category " + number);
+        dto.setTotal_sold(totalSold);
+        return dto;
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.repository.check;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Optional;
+import java.util.function.Consumer;
+import org.example.config.DatabaseNotificationListener;
+import org.example.dto.check.CheckDetailsDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+@DisplayName("Check Cache Tests")
+class CheckCacheTest {
+
+    private DatabaseNotificationListener notificationListener;
+    private CheckCache cache;
+
+    @BeforeEach
+    void setUp() {
+        notificationListener = mock(DatabaseNotificationListener.class);
+        cache = new CheckCache(100, 60_000, new SimpleMeterRegistry(), notificationListener);
+    }
+
+    @Test
+    @DisplayName("check notification should evict only that check")
+    @SuppressWarnings("unchecked")
+    void notification_shouldEvictChangedCheck() {
+        ArgumentCaptor<Consumer<String>> onChange = ArgumentCaptor.forClass(Consumer.class);
+        verify(notificationListener).subscribe(eq(CheckCache.CHECK_CHANNEL),
+                onChange.capture(), any(Runnable.class));
+        int[] loads = {0};
+        cache.get("CHK1", number -> load(loads, number));
+        cache.get("CHK2", number -> load(loads, number));
+
+        onChange.getValue().accept("CHK1");
+        cache.get("CHK1", number -> load(loads, number));
+        cache.get("CHK2", number -> load(loads, number));
+
+        assertEquals(3, loads[0]);
+    }
+
+    @Test
+    @DisplayName("resync after a listener reconnect should drop every check")
+    void resync_shouldDropAllChecks() {
+        ArgumentCaptor<Runnable> resync = ArgumentCaptor.forClass(Runnable.class);
+        verify(notificationListener).subscribe(eq(CheckCache.CHECK_CHANNEL), any(),
+                resync.capture());
+        int[] loads = {0};
+        cache.get("CHK1", number -> load(loads, number));
+        cache.get("CHK2", number -> load(loads, number));
+
+        resync.getValue().run();
+        cache.get("CHK1", number -> load(loads, number));
+        cache.get("CHK2", number -> load(loads, number));
+
+        assertEquals(4, loads[0]);
+    }
+
+    private static Optional<CheckDetailsDto> load(int[] loads, String checkNumber) {
+        loads[0]++;
+        CheckDetailsDto dto = new CheckDetailsDto();
+        dto.setCheck_number(checkNumber);
+        return Optional.of(dto);
+    }
+}
@@ -0,0 +1,190 @@
+package org.example.repository.check;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.example.Migrations;
+import org.example.dto.check.CheckItemRequestDto;
+import org.example.dto.check.CheckRequestDto;
+import org.example.exception.custom_exception.InvalidProductException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@SpringBootTest(properties = "FRONT_URL=http://localhost:3000")
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+class CheckCreationConcurrencyIT {
+
+    private static final int CASHIERS = 8;
+    private static final int CHECKS_PER_CASHIER = 25;
+    private static final int SCARCE_STOCK = 150;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private CheckRepository checkRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DROP SCHEMA public CASCADE; CREATE SCHEMA public");
+        Migrations.applyAll(jdbcTemplate);
+        jdbcTemplate.execute("""
+                INSERT INTO employee VALUES ('EMP1', 'Doe', 'Jane', NULL, 'CASHIER', 1000,
+                    '1990-01-01', '2020-01-01', '+380000000000', 'Kyiv', 'Main', '01001', 'x');
+                INSERT INTO customer_card VALUES ('CARD1', 'Roe', 'Ann', NULL, '+380000000001',
+                    NULL, NULL, NULL, 10);
+                INSERT INTO category VALUES (1, 'Dairy');
+                INSERT INTO product VALUES (1, 1, 'Milk', 'Zlagoda', '1L');
+                INSERT INTO store_product VALUES
+                    ('000000000001', NULL, 1, 10, 100000, false, false),
+                    ('000000000002', NULL, 1, 5, %d, false, false),
+                    ('000000000003', NULL, 1, 10, 100000, false, false),
+                    ('000000000004', NULL, 1, 5, 100000, false, false);
+                """.formatted(SCARCE_STOCK));
+    }
+
+    @Test
+    @DisplayName("parallel cashiers should never oversell and beat the multi-statement flow")
+    void parallelCheckouts_shouldKeepStockConsistentAndCutLatency() throws Exception {
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        long cteNanos = runInParallel((cashier, n) -> {
+            try {
+                checkRepository.save(check("A" + cashier + "-" + n,
+                        "000000000001", "000000000002"), "EMP1");
+                sold.incrementAndGet();
+            } catch (InvalidProductException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        int attempts = CASHIERS * CHECKS_PER_CASHIER;
+        assertEquals(SCARCE_STOCK, sold.get());
+        assertEquals(attempts - SCARCE_STOCK, rejected.get());
+        assertEquals(0, quantityOf("000000000002"));
+        assertEquals(100000 - 2 * SCARCE_STOCK, quantityOf("000000000001"));
+        assertEquals(SCARCE_STOCK, count("SELECT COUNT(*) FROM checks"));
+        assertEquals(2 * SCARCE_STOCK, count("SELECT COUNT(*) FROM sale"));
+        assertEquals(0, new BigDecimal("22.50").compareTo(jdbcTemplate.queryForObject(
+                "SELECT sum_total FROM checks FETCH FIRST 1 ROWS ONLY", BigDecimal.class)));
+
+        long legacyNanos = runInParallel((cashier, n) ->
+                legacyCreate("B" + cashier + "-" + n, "000000000003", "000000000004"));
+
+        assertTrue(cteNanos < legacyNanos,
+                "single-statement checkout took " + cteNanos / attempts
+                        + " ns/op, multi-statement flow took " + legacyNanos / attempts + " ns/op");
+    }
+
+    private long runInParallel(Checkout checkout) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CASHIERS);
+        try {
+            List<Callable<Object>> tasks = new ArrayList<>();
+            for (int i = 0; i < CASHIERS; i++) {
+                int cashier = i;
+                tasks.add(() -> {
+                    for (int n = 0; n < CHECKS_PER_CASHIER; n++) {
+                        checkout.run(cashier, n);
+                    }
+                    return null;
+                });
+            }
+            long start = System.nanoTime();
+            for (Future<Object> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+            return System.nanoTime() - start;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void legacyCreate(String checkNumber, String firstUPC, String secondUPC) {
+        transactionTemplate.executeWithoutResult(status -> {
+            BigDecimal total = BigDecimal.ZERO;
+            for (String upc : List.of(firstUPC, secondUPC)) {
+                BigDecimal price = jdbcTemplate.queryForObject(
+                        "SELECT selling_price FROM store_product WHERE UPC = ? AND products_number >= ?",
+                        BigDecimal.class, upc, quantityFor(upc, firstUPC));
+                total = total.add(price.multiply(BigDecimal.valueOf(quantityFor(upc, firstUPC))));
+            }
+            Integer percent = jdbcTemplate.queryForObject(
+                    "SELECT customer_percent FROM customer_card WHERE card_number = 'CARD1'",
+                    Integer.class);
+            jdbcTemplate.update("INSERT INTO checks VALUES (?, 'EMP1', 'CARD1', CURRENT_DATE, ?, ?)",
+                    checkNumber,
+                    total.multiply(BigDecimal.valueOf(100 - percent)).movePointLeft(2),
+                    total.multiply(new BigDecimal("0.20")));
+            for (String upc : List.of(firstUPC, secondUPC)) {
+                jdbcTemplate.update("INSERT INTO sale VALUES (?, ?, ?, "
+                                + "(SELECT selling_price FROM store_product WHERE UPC = ?))",
+                        quantityFor(upc, firstUPC), upc, checkNumber, upc);
+            }
+            for (String upc : List.of(firstUPC, secondUPC)) {
+                jdbcTemplate.update(
+                        "UPDATE store_product SET products_number = products_number - ? WHERE UPC = ?",
+                        quantityFor(upc, firstUPC), upc);
+            }
+        });
+    }
+
+    private static int quantityFor(String upc, String firstUPC) {
+        return upc.equals(firstUPC) ? 2 : 1;
+    }
+
+    private static CheckRequestDto check(String checkNumber, String firstUPC, String secondUPC) {
+        CheckRequestDto requestDto = new CheckRequestDto();
+        requestDto.setCheck_number(checkNumber);
+        requestDto.setCard_number("CARD1");
+        requestDto.setProducts(List.of(item(firstUPC), item(secondUPC), item(firstUPC)));
+        return requestDto;
+    }
+
+    private static CheckItemRequestDto item(String upc) {
+        CheckItemRequestDto item = new CheckItemRequestDto();
+        item.setUPC(upc);
+        item.setQuantity(1);
+        return item;
+    }
+
+    private int quantityOf(String upc) {
+        return jdbcTemplate.queryForObject(
+                "SELECT products_number FROM store_product WHERE UPC = ?", Integer.class, upc);
+    }
+
+    private int count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Integer.class);
+    }
+
+    @FunctionalInterface
+    private interface Checkout {
+        void run(int cashier, int n);
+    }
+}
@@ -0,0 +1,293 @@
+package org.example.repository.check;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.example.dto.check.CheckRequestDto;
+import org.example.dto.helper.CheckResponseDto;
+import org.example.exception.custom_exception.InvalidProductException;
+import org.example.exception.custom_exception.ServiceUnavailableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Check Group Commit Writer Tests")
+class CheckGroupCommitWriterTest {
+
+    @Mock
+    private CheckRepository checkRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TransactionStatus status;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CheckGroupCommitWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        writer = new CheckGroupCommitWriter(checkRepository,
+                new TransactionTemplate(transactionManager), true, 32, 5, 2, 1000, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("commit should write the whole batch in one transaction")
+    void commit_batch_shouldShareTransaction() throws Exception {
+        CheckRequestDto first = request("CHK1");
+        CheckRequestDto second = request("CHK2");
+        CheckResponseDto firstCheck = new CheckResponseDto();
+        CheckResponseDto secondCheck = new CheckResponseDto();
+        when(transactionManager.getTransaction(any())).thenReturn(status);
+        when(checkRepository.insert(first, "EMP1")).thenReturn(firstCheck);
+        when(checkRepository.insert(second, "EMP2")).thenReturn(secondCheck);
+
+        CheckGroupCommitWriter.PendingCheck a = pending(first, "EMP1");
+        CheckGroupCommitWriter.PendingCheck b = pending(second, "EMP2");
+        writer.commit(List.of(a, b));
+
+        assertSame(firstCheck, a.result().get());
+        assertSame(secondCheck, b.result().get());
+        verify(transactionManager, times(1)).getTransaction(any());
+        verify(transactionManager).commit(status);
+        assertEquals(2.0, meterRegistry.summary("check.group-commit.batch.size").totalAmount());
+        assertEquals(2, meterRegistry.timer("check.group-commit.latency").count());
+    }
+
+    @Test
+    @DisplayName("commit should roll back only the check that was rejected")
+    void commit_rejectedCheck_shouldNotFailOthers() throws Exception {
+        CheckRequestDto bad = request("CHK1");
+        CheckRequestDto good = request("CHK2");
+        CheckResponseDto goodCheck = new CheckResponseDto();
+        Object badSavepoint = new Object();
+        Object goodSavepoint = new Object();
+        when(transactionManager.getTransaction(any())).thenReturn(status);
+        when(status.createSavepoint()).thenReturn(badSavepoint, goodSavepoint);
+        when(checkRepository.insert(bad, "EMP1"))
+                .thenThrow(new InvalidProductException("Not enough stock"));
+        when(checkRepository.insert(good, "EMP1")).thenReturn(goodCheck);
+
+        CheckGroupCommitWriter.PendingCheck a = pending(bad, "EMP1");
+        CheckGroupCommitWriter.PendingCheck b = pending(good, "EMP1");
+        writer.commit(List.of(a, b));
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> a.result().get());
+        assertEquals(InvalidProductException.class, failure.getCause().getClass());
+        assertSame(goodCheck, b.result().get());
+        verify(status).rollbackToSavepoint(badSavepoint);
+        verify(status).releaseSavepoint(goodSavepoint);
+        verify(checkRepository, never()).save(any(), any());
+    }
+
+    @Test
+    @DisplayName("commit should retry a check alone after a lock failure")
+    void commit_lockFailure_shouldRetryAlone() throws Exception {
+        CheckRequestDto requestDto = request("CHK1");
+        CheckResponseDto check = new CheckResponseDto();
+        when(transactionManager.getTransaction(any())).thenReturn(status);
+        when(checkRepository.insert(requestDto, "EMP1"))
+                .thenThrow(new CannotAcquireLockException("deadlock detected"));
+        when(checkRepository.save(requestDto, "EMP1")).thenReturn(check);
+
+        CheckGroupCommitWriter.PendingCheck pending = pending(requestDto, "EMP1");
+        writer.commit(List.of(pending));
+
+        assertSame(check, pending.result().get());
+        verify(checkRepository).save(eq(requestDto), eq("EMP1"));
+    }
+
+    @Test
+    @DisplayName("submit should reject checks once the queue is full")
+    void submit_fullQueue_shouldReject() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            entered.countDown();
+            release.await();
+            return status;
+        });
+
+        writer.start();
+        try {
+            writer.submit(request("CHK1"), "EMP1");
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+            writer.submit(request("CHK2"), "EMP1");
+            writer.submit(request("CHK3"), "EMP1");
+
+            assertThrows(ServiceUnavailableException.class,
+                    () -> writer.submit(request("CHK4"), "EMP1"));
+            assertEquals(1.0, meterRegistry.counter("check.group-commit.rejected").count());
+            assertEquals(2.0, meterRegistry.get("check.group-commit.queue.size").gauge().value());
+        } finally {
+            release.countDown();
+            writer.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("a check cancelled after its wait timed out should never be written")
+    void submit_cancelledAfterTimeout_shouldNotPersist() throws Exception {
+        CheckRequestDto kept = request("CHK1");
+        CheckRequestDto abandoned = request("CHK2");
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            entered.countDown();
+            release.await();
+            return status;
+        }).thenReturn(status);
+        when(checkRepository.insert(kept, "EMP1")).thenReturn(new CheckResponseDto());
+
+        writer.start();
+        try {
+            CompletableFuture<CheckResponseDto> first = writer.submit(kept, "EMP1");
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+            CompletableFuture<CheckResponseDto> timedOut = writer.submit(abandoned, "EMP1");
+            assertThrows(TimeoutException.class,
+                    () -> timedOut.get(10, TimeUnit.MILLISECONDS));
+            assertTrue(timedOut.cancel(false));
+            release.countDown();
+
+            first.get(5, TimeUnit.SECONDS);
+            CompletableFuture<CheckResponseDto> next = writer.submit(kept, "EMP1");
+            next.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            writer.stop();
+        }
+
+        verify(checkRepository, never()).insert(eq(abandoned), any());
+        verify(checkRepository, never()).save(eq(abandoned), any());
+    }
+
+    @Test
+    @DisplayName("a check the writer already claimed should not be cancellable")
+    void cancel_claimedCheck_shouldKeepOutcome() throws Exception {
+        CheckRequestDto requestDto = request("CHK1");
+        CheckResponseDto check = new CheckResponseDto();
+        CheckGroupCommitWriter.PendingCheck pending = pending(requestDto, "EMP1");
+        when(transactionManager.getTransaction(any())).thenReturn(status);
+        when(checkRepository.insert(requestDto, "EMP1")).thenAnswer(invocation -> {
+            assertFalse(pending.result().cancel(false));
+            return check;
+        });
+
+        writer.commit(List.of(pending));
+
+        assertSame(check, pending.result().get());
+    }
+
+    @Test
+    @DisplayName("submit should reject checks while the writer is not running")
+    void submit_notRunning_shouldReject() {
+        assertThrows(ServiceUnavailableException.class,
+                () -> writer.submit(request("CHK1"), "EMP1"));
+        assertEquals(0.0, meterRegistry.get("check.group-commit.queue.size").gauge().value());
+    }
+
+    @Test
+    @DisplayName("start should drain submitted checks in the background")
+    void start_submittedChecks_shouldComplete() throws Exception {
+        CheckRequestDto requestDto = request("CHK1");
+        CheckResponseDto check = new CheckResponseDto();
+        when(transactionManager.getTransaction(any())).thenReturn(status);
+        when(checkRepository.insert(requestDto, "EMP1")).thenReturn(check);
+
+        writer.start();
+        try {
+            assertSame(check, writer.submit(requestDto, "EMP1").get(5, TimeUnit.SECONDS));
+        } finally {
+            writer.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("stop should fail checks the worker did not reach")
+    void stop_leftoverChecks_shouldFail() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            entered.countDown();
+            release.await();
+            return status;
+        });
+
+        writer.start();
+        CompletableFuture<CheckResponseDto> leftover;
+        try {
+            writer.submit(request("CHK1"), "EMP1");
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+            leftover = writer.submit(request("CHK2"), "EMP1");
+            writer.stop();
+        } finally {
+            release.countDown();
+        }
+
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> leftover.get(5, TimeUnit.SECONDS));
+        assertEquals(ServiceUnavailableException.class, failure.getCause().getClass());
+    }
+
+    @Test
+    @DisplayName("an error in a batch should fail that batch and keep the worker running")
+    void drain_error_shouldFailBatchAndContinue() throws Exception {
+        CheckRequestDto requestDto = request("CHK2");
+        CheckResponseDto check = new CheckResponseDto();
+        when(transactionManager.getTransaction(any()))
+                .thenThrow(new NoClassDefFoundError("org/postgresql/Driver"))
+                .thenReturn(status);
+        when(checkRepository.insert(requestDto, "EMP1")).thenReturn(check);
+
+        writer.start();
+        try {
+            CompletableFuture<CheckResponseDto> failed = writer.submit(request("CHK1"), "EMP1");
+            ExecutionException failure = assertThrows(ExecutionException.class,
+                    () -> failed.get(5, TimeUnit.SECONDS));
+            assertEquals(NoClassDefFoundError.class, failure.getCause().getClass());
+
+            assertSame(check, writer.submit(requestDto, "EMP1").get(5, TimeUnit.SECONDS));
+        } finally {
+            writer.stop();
+        }
+    }
+
+    private static CheckGroupCommitWriter.PendingCheck pending(CheckRequestDto requestDto,
+                                                               String idEmployee) {
+        return new CheckGroupCommitWriter.PendingCheck(requestDto, idEmployee,
+                new CheckGroupCommitWriter.PendingResult(), System.nanoTime());
+    }
+
+    private static CheckRequestDto request(String checkNumber) {
+        CheckRequestDto requestDto = new CheckRequestDto();
+        requestDto.setCheck_number(checkNumber);
+        requestDto.setCard_number("CARD1");
+        return requestDto;
+    }
+}
@@ -0,0 +1,267 @@
+package org.example.repository.check;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import org.example.config.DatabaseNotificationListener;
+import org.example.dto.check.CheckDetailsDto;
+import org.example.dto.check.CheckItemRequestDto;
+import org.example.dto.check.CheckProductDto;
+import org.example.dto.check.CheckRequestDto;
+import org.example.dto.helper.CheckResponseDto;
+import org.example.dto.page.PageCursor;
+import org.example.dto.page.PageResponseDto;
+import org.example.exception.custom_exception.EntityNotFoundException;
+import org.example.exception.custom_exception.InvalidParameterException;
+import org.example.exception.custom_exception.InvalidProductException;
+import org.example.repository.store_product.StoreProductPriceCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Check Repository Tests")
+class CheckRepositoryTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private StoreProductPriceCache priceCache;
+
+    @Spy
+    private CheckCache checkCache = new CheckCache(100, 60_000, new SimpleMeterRegistry(),
+            mock(DatabaseNotificationListener.class));
+
+    @InjectMocks
+    private CheckRepository repository;
+
+    @Test
+    @DisplayName("save should merge repeated UPCs and bind them in lock order")
+    void save_repeatedUPCs_shouldCollapseItems() throws Exception {
+        Object[][] bound = new Object[1][];
+        ResultSet rs = soldRow("000000000001", "CHK1");
+        ResultSet next = soldRow("000000000002", null);
+        doAnswer(invocation -> {
+            Object[] args = invocation.getArguments();
+            bound[0] = Arrays.copyOfRange(args, 2, args.length);
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(rs);
+            handler.processRow(next);
+            return null;
+        }).when(jdbcTemplate).query(contains("INSERT INTO sale"),
+                any(RowCallbackHandler.class), any(Object[].class));
+
+        CheckResponseDto created = repository.save(request(
+                item("000000000002", 1), item("000000000001", 2), item("000000000002", 3)),
+                "EMP1");
+
+        assertEquals("CHK1", created.getCheck_number());
+        assertArrayEquals(new String[] {"000000000001", "000000000002"}, (Object[]) bound[0][0]);
+        assertArrayEquals(new Integer[] {2, 4}, (Object[]) bound[0][1]);
+        assertEquals("EMP1", bound[0][3]);
+        assertEquals(2, bound[0][6]);
+        verify(priceCache).invalidate("000000000001");
+        verify(priceCache).invalidate("000000000002");
+    }
+
+    @Test
+    @DisplayName("save should fail when a product is missing or short of stock")
+    void save_insufficientStock_shouldThrow() throws Exception {
+        ResultSet rs = soldRow("000000000001", null);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(contains("INSERT INTO sale"),
+                any(RowCallbackHandler.class), any(Object[].class));
+
+        InvalidProductException e = assertThrows(InvalidProductException.class,
+                () -> repository.save(request(item("000000000001", 1), item("000000000002", 9)),
+                        "EMP1"));
+        assertTrue(e.getMessage().endsWith("000000000002"));
+    }
+
+    @Test
+    @DisplayName("save should fail when the customer card does not exist")
+    void save_unknownCard_shouldThrow() throws Exception {
+        ResultSet rs = soldRow("000000000001", null);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(contains("INSERT INTO sale"),
+                any(RowCallbackHandler.class), any(Object[].class));
+
+        assertThrows(EntityNotFoundException.class,
+                () -> repository.save(request(item("000000000001", 1)), "EMP1"));
+    }
+
+    @Test
+    @DisplayName("findByNumber should fold the view rows into one check and cache it")
+    void findByNumber_twoProducts_shouldReadOnce() throws Exception {
+        ResultSet first = viewRow("Apple", 2);
+        ResultSet second = viewRow("Bread", 1);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(first);
+            handler.processRow(second);
+            return null;
+        }).when(jdbcTemplate).query(contains("FROM check_list_view"),
+                any(RowCallbackHandler.class), eq("CHK1"));
+
+        CheckDetailsDto check = repository.findByNumber("CHK1").orElseThrow();
+        CheckDetailsDto again = repository.findByNumber("CHK1").orElseThrow();
+
+        assertSame(check, again);
+        assertEquals("CHK1", check.getCheck_number());
+        assertEquals(List.of("Apple", "Bread"),
+                check.getProducts().stream().map(CheckProductDto::getProduct_name).toList());
+        verify(jdbcTemplate, times(1)).query(contains("FROM check_list_view"),
+                any(RowCallbackHandler.class), eq("CHK1"));
+    }
+
+    @Test
+    @DisplayName("findByNumber should not cache a check that does not exist")
+    void findByNumber_missing_shouldReturnEmpty() {
+        assertTrue(repository.findByNumber("CHK9").isEmpty());
+        assertTrue(repository.findByNumber("CHK9").isEmpty());
+
+        verify(jdbcTemplate, times(2)).query(contains("FROM check_list_view"),
+                any(RowCallbackHandler.class), eq("CHK9"));
+    }
+
+    @Test
+    @DisplayName("findPage should return a cursor pointing at the last check of a full page")
+    @SuppressWarnings("unchecked")
+    void findPage_morePages_shouldReturnCursor() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), any(Object[].class)))
+                .thenReturn(3L);
+        when(jdbcTemplate.query(contains("FETCH FIRST"), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(List.of(check("CHK3", 3), check("CHK2", 2), check("CHK1", 1)));
+
+        PageResponseDto<CheckResponseDto> page = repository.findPage(
+                null, null, "EMP1", null, 2);
+
+        assertEquals(2, page.getContent().size());
+        assertTrue(page.isHasNext());
+        assertEquals(3, page.getTotalElements());
+        assertEquals(List.of("2024-01-02", "CHK2"), PageCursor.decode(page.getNextCursor(), 2));
+    }
+
+    @Test
+    @DisplayName("findPage should continue after the cursor position within the filters")
+    @SuppressWarnings("unchecked")
+    void findPage_withCursor_shouldBindKeyset() {
+        Object[][] bound = new Object[1][];
+        when(jdbcTemplate.query(contains("(print_date, check_number) < (?, ?)"),
+                any(RowMapper.class), any(Object[].class)))
+                .thenAnswer(invocation -> {
+                    Object[] args = invocation.getArguments();
+                    bound[0] = Arrays.copyOfRange(args, 2, args.length);
+                    return List.of(check("CHK1", 1));
+                });
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 1, 31);
+
+        PageResponseDto<CheckResponseDto> page = repository.findPage(from, to, "EMP1",
+                PageCursor.encode("2024-01-02", "CHK2"), 2);
+
+        assertNull(page.getNextCursor());
+        assertNull(page.getTotalElements());
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Long.class), any(Object[].class));
+        LocalDate cursorDate = LocalDate.of(2024, 1, 2);
+        assertArrayEquals(new Object[] {"EMP1", from, to, cursorDate, cursorDate, "CHK2", 3},
+                bound[0]);
+    }
+
+    @Test
+    @DisplayName("findPage should reject a cursor that does not hold a date")
+    void findPage_malformedCursor_shouldThrow() {
+        assertThrows(InvalidParameterException.class, () -> repository.findPage(
+                null, null, null, PageCursor.encode("yesterday", "CHK2"), 2));
+    }
+
+    private static ResultSet soldRow(String upc, String checkNumber) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString("UPC")).thenReturn(upc);
+        when(rs.getString("check_number")).thenReturn(checkNumber);
+        if (checkNumber != null) {
+            when(rs.getString("id_employee")).thenReturn("EMP1");
+            when(rs.getString("card_number")).thenReturn("CARD1");
+            when(rs.getTimestamp("print_date"))
+                    .thenReturn(Timestamp.valueOf(LocalDateTime.of(2024, 1, 1, 0, 0)));
+            when(rs.getBigDecimal("sum_total")).thenReturn(new BigDecimal("10.00"));
+            when(rs.getBigDecimal("vat")).thenReturn(new BigDecimal("2.00"));
+        }
+        return rs;
+    }
+
+    private static ResultSet viewRow(String productName, int quantity) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString("product_name")).thenReturn(productName);
+        when(rs.getBigDecimal("selling_price")).thenReturn(new BigDecimal("5.00"));
+        when(rs.getInt("product_number")).thenReturn(quantity);
+        if ("Apple".equals(productName)) {
+            when(rs.getString("check_number")).thenReturn("CHK1");
+            when(rs.getString("id_employee")).thenReturn("EMP1");
+            when(rs.getString("card_number")).thenReturn("CARD1");
+            when(rs.getTimestamp("print_date"))
+                    .thenReturn(Timestamp.valueOf(LocalDateTime.of(2024, 1, 1, 0, 0)));
+            when(rs.getBigDecimal("sum_total")).thenReturn(new BigDecimal("15.00"));
+            when(rs.getBigDecimal("vat")).thenReturn(new BigDecimal("3.00"));
+        }
+        return rs;
+    }
+
+    private static CheckRequestDto request(CheckItemRequestDto... items) {
+        CheckRequestDto requestDto = new CheckRequestDto();
+        requestDto.setCheck_number("CHK1");
+        requestDto.setCard_number("CARD1");
+        requestDto.setProducts(List.of(items));
+        return requestDto;
+    }
+
+    private static CheckItemRequestDto item(String upc, int quantity) {
+        CheckItemRequestDto item = new CheckItemRequestDto();
+        item.setUPC(upc);
+        item.setQuantity(quantity);
+        return item;
+    }
+
+    private static CheckResponseDto check(String number, int day) {
+        CheckResponseDto dto = new CheckResponseDto();
+        dto.setCheck_number(number);
+        dto.setPrint_date(LocalDateTime.of(2024, 1, day, 0, 0));
+        return dto;
+    }
+}
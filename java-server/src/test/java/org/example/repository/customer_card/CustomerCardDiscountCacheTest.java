@@ -0,0 +1,144 @@
+package org.example.repository.customer_card;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.function.Consumer;
+import org.example.config.DatabaseNotificationListener;
+import org.example.dto.helper.CustomerCardDiscountDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+@DisplayName("Customer Card Discount Cache Tests")
+class CustomerCardDiscountCacheTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private DatabaseNotificationListener notificationListener;
+    private CustomerCardDiscountCache cache;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        notificationListener = mock(DatabaseNotificationListener.class);
+        cache = new CustomerCardDiscountCache(jdbcTemplate, 1 << 20, meterRegistry,
+                notificationListener);
+    }
+
+    @Test
+    @DisplayName("warmUp should load every card so lookups never query")
+    @SuppressWarnings("unchecked")
+    void warmUp_shouldServeLookupsFromMemory() throws Exception {
+        ResultSet rs = cardRow("CARD1", "Roe", "Ann", 5);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(any(String.class), any(RowCallbackHandler.class));
+
+        cache.warmUp();
+        CustomerCardDiscountDto card = cache.find("CARD1").orElseThrow();
+
+        assertEquals("Roe Ann", card.getCustomer_name());
+        assertEquals(5, card.getPercent());
+        verify(jdbcTemplate, never()).query(contains("WHERE card_number = ?"),
+                any(RowMapper.class), any(Object[].class));
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", "customer_card").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("misses should load the single card and unknown cards should not be cached")
+    @SuppressWarnings("unchecked")
+    void find_miss_shouldLoadOneCard() {
+        when(jdbcTemplate.query(contains("WHERE card_number = ?"), any(RowMapper.class),
+                eq("CARD1"))).thenReturn(List.of(discount("CARD1", 5)));
+        when(jdbcTemplate.query(contains("WHERE card_number = ?"), any(RowMapper.class),
+                eq("CARD9"))).thenReturn(List.of());
+
+        cache.find("CARD1");
+        assertTrue(cache.find("CARD1").isPresent());
+        assertTrue(cache.find("CARD9").isEmpty());
+        assertTrue(cache.find("CARD9").isEmpty());
+
+        verify(jdbcTemplate, times(1)).query(contains("WHERE card_number = ?"),
+                any(RowMapper.class), eq("CARD1"));
+        verify(jdbcTemplate, times(2)).query(contains("WHERE card_number = ?"),
+                any(RowMapper.class), eq("CARD9"));
+    }
+
+    @Test
+    @DisplayName("a card change notification should drop the card and let the next read reload it")
+    @SuppressWarnings("unchecked")
+    void notification_shouldInvalidateChangedCard() {
+        ArgumentCaptor<Consumer<String>> onChange = ArgumentCaptor.forClass(Consumer.class);
+        verify(notificationListener).subscribe(eq(CustomerCardDiscountCache.CARD_CHANNEL),
+                onChange.capture(), any(Runnable.class));
+        when(jdbcTemplate.query(contains("WHERE card_number = ?"), any(RowMapper.class),
+                eq("CARD1"))).thenReturn(List.of(discount("CARD1", 5)),
+                List.of(discount("CARD1", 10)));
+
+        cache.find("CARD1");
+        onChange.getValue().accept("CARD1");
+
+        verify(jdbcTemplate, times(1)).query(contains("WHERE card_number = ?"),
+                any(RowMapper.class), eq("CARD1"));
+        assertEquals(10, cache.find("CARD1").orElseThrow().getPercent());
+    }
+
+    @Test
+    @DisplayName("resync after a listener reconnect should drop every card without querying")
+    @SuppressWarnings("unchecked")
+    void resync_shouldDropAllCards() {
+        ArgumentCaptor<Runnable> resync = ArgumentCaptor.forClass(Runnable.class);
+        verify(notificationListener).subscribe(eq(CustomerCardDiscountCache.CARD_CHANNEL),
+                any(), resync.capture());
+        when(jdbcTemplate.query(contains("WHERE card_number = ?"), any(RowMapper.class),
+                eq("CARD1"))).thenReturn(List.of(discount("CARD1", 5)),
+                List.of(discount("CARD1", 10)));
+
+        cache.find("CARD1");
+        resync.getValue().run();
+
+        verify(jdbcTemplate, times(1)).query(contains("WHERE card_number = ?"),
+                any(RowMapper.class), eq("CARD1"));
+        assertEquals(10, cache.find("CARD1").orElseThrow().getPercent());
+    }
+
+    private static ResultSet cardRow(String cardNumber, String surname, String name,
+                                     int percent) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString("card_number")).thenReturn(cardNumber);
+        when(rs.getString("customer_surname")).thenReturn(surname);
+        when(rs.getString("customer_name")).thenReturn(name);
+        when(rs.getInt("customer_percent")).thenReturn(percent);
+        return rs;
+    }
+
+    private static CustomerCardDiscountDto discount(String cardNumber, int percent) {
+        CustomerCardDiscountDto dto = new CustomerCardDiscountDto();
+        dto.setCard_number(cardNumber);
+        dto.setCustomer_name("Roe Ann");
+        dto.setPercent(percent);
+        return dto;
+    }
+}
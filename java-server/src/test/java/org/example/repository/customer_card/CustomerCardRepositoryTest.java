@@ -0,0 +1,85 @@
+package org.example.repository.customer_card;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+import org.example.dto.helper.CustomerCardResponseDto;
+import org.example.dto.page.PageCursor;
+import org.example.dto.page.PageResponseDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Customer Card Repository Tests")
+class CustomerCardRepositoryTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private CustomerCardRepository repository;
+
+    @Test
+    @DisplayName("findPage should return a cursor pointing at the last card of a full page")
+    @SuppressWarnings("unchecked")
+    void findPage_morePages_shouldReturnCursor() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), any(Object[].class)))
+                .thenReturn(3L);
+        when(jdbcTemplate.query(contains("FETCH FIRST"), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(List.of(card("CARD1", "Abramenko"), card("CARD2", "Bondar"),
+                        card("CARD3", "Bondar")));
+
+        PageResponseDto<CustomerCardResponseDto> page = repository.findPage(null, null, null, 2);
+
+        assertEquals(2, page.getContent().size());
+        assertTrue(page.isHasNext());
+        assertEquals(3, page.getTotalElements());
+        assertEquals(List.of("Bondar", "CARD2"), PageCursor.decode(page.getNextCursor(), 2));
+    }
+
+    @Test
+    @DisplayName("findPage should bind an escaped surname prefix, the phone and the cursor")
+    @SuppressWarnings("unchecked")
+    void findPage_withFilters_shouldBindKeyset() {
+        Object[][] bound = new Object[1][];
+        when(jdbcTemplate.query(contains("> (lower(?), ?)"),
+                any(RowMapper.class), any(Object[].class)))
+                .thenAnswer(invocation -> {
+                    Object[] args = invocation.getArguments();
+                    bound[0] = Arrays.copyOfRange(args, 2, args.length);
+                    return List.of(card("CARD3", "Bon_dar"));
+                });
+
+        PageResponseDto<CustomerCardResponseDto> page = repository.findPage("Bon_", "+380501",
+                PageCursor.encode("Bon_a", "CARD2"), 2);
+
+        assertNull(page.getNextCursor());
+        assertNull(page.getTotalElements());
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Long.class), any(Object[].class));
+        assertArrayEquals(new Object[] {"Bon\\_%", "+380501", "Bon_a", "CARD2", 3}, bound[0]);
+    }
+
+    private static CustomerCardResponseDto card(String cardNumber, String surname) {
+        CustomerCardResponseDto dto = new CustomerCardResponseDto();
+        dto.setCard_number(cardNumber);
+        dto.setCust_surname(surname);
+        return dto;
+    }
+}
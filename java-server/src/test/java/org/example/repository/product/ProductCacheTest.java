@@ -0,0 +1,160 @@
+package org.example.repository.product;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import org.example.config.DatabaseNotificationListener;
+import org.example.dto.product.ProductDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@DisplayName("Product Cache Tests")
+class ProductCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DatabaseNotificationListener notificationListener;
+    private ProductCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        notificationListener = mock(DatabaseNotificationListener.class);
+        cache = new ProductCache(100, 60_000, meterRegistry, notificationListener);
+    }
+
+    @Test
+    @DisplayName("hits and misses should be published as cache metrics")
+    void get_shouldRecordHitAndMissMetrics() {
+        cache.get(1, id -> Optional.of(product(1, 10, "Milk")));
+        assertTrue(cache.get(1, id -> Optional.empty()).isPresent());
+
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", "product").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", "product").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("misses should not be cached")
+    void get_missingProduct_shouldNotCacheAbsence() {
+        int[] loads = {0};
+
+        cache.get(99, id -> {
+            loads[0]++;
+            return Optional.empty();
+        });
+        cache.get(99, id -> {
+            loads[0]++;
+            return Optional.empty();
+        });
+
+        assertEquals(2, loads[0]);
+    }
+
+    @Test
+    @DisplayName("invalidate should force the next read to reload with a newer version")
+    void invalidate_shouldForceReload() {
+        cache.get(1, id -> Optional.of(product(1, 10, "Milk")));
+        long before = cache.versionOf(1).orElseThrow();
+
+        cache.invalidate(1);
+
+        assertEquals("Kefir", cache.get(1, id -> Optional.of(product(1, 10, "Kefir")))
+                .orElseThrow().getProduct_name());
+        assertTrue(cache.versionOf(1).orElseThrow() > before);
+    }
+
+    @Test
+    @DisplayName("a load that raced with an invalidation should not be cached")
+    void get_invalidatedDuringLoad_shouldNotPublishStaleValue() {
+        Optional<ProductDto> stale = cache.get(1, id -> {
+            cache.invalidate(1);
+            return Optional.of(product(1, 10, "Milk"));
+        });
+
+        assertEquals("Milk", stale.orElseThrow().getProduct_name());
+        assertTrue(cache.versionOf(1).isEmpty());
+    }
+
+    @Test
+    @DisplayName("invalidate inside a transaction should evict again once it completes")
+    void invalidate_inTransaction_shouldEvictAfterCompletion() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidate(List.of(1));
+            cache.get(1, id -> Optional.of(product(1, 10, "Milk")));
+            assertTrue(cache.versionOf(1).isPresent());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(cache.versionOf(1).isEmpty());
+    }
+
+    @Test
+    @DisplayName("callers should get their own copy of a cached product")
+    void get_mutatedResult_shouldNotChangeCachedProduct() {
+        cache.get(1, id -> Optional.of(product(1, 10, "Milk"))).orElseThrow()
+                .setProduct_name("Changed");
+        ProductDto hit = cache.get(1, id -> Optional.empty()).orElseThrow();
+        hit.setProduct_name("Changed again");
+
+        assertEquals("Milk", cache.get(1, id -> Optional.empty()).orElseThrow()
+                .getProduct_name());
+    }
+
+    @Test
+    @DisplayName("category notification should evict only products of that category")
+    @SuppressWarnings("unchecked")
+    void categoryNotification_shouldEvictProductsOfThatCategory() {
+        ArgumentCaptor<Consumer<String>> handler = ArgumentCaptor.forClass(Consumer.class);
+        verify(notificationListener).subscribe(eq("category_changed"),
+                handler.capture(), any(Runnable.class));
+        cache.get(1, id -> Optional.of(product(1, 10, "Milk")));
+        cache.get(2, id -> Optional.of(product(2, 20, "Bread")));
+
+        handler.getValue().accept("10");
+
+        assertTrue(cache.versionOf(1).isEmpty());
+        assertTrue(cache.versionOf(2).isPresent());
+    }
+
+    @Test
+    @DisplayName("resync after a listener reconnect should drop every product")
+    void resync_shouldDropAllProducts() {
+        ArgumentCaptor<Runnable> resync = ArgumentCaptor.forClass(Runnable.class);
+        verify(notificationListener).subscribe(eq("category_changed"), any(), resync.capture());
+        cache.get(1, id -> Optional.of(product(1, 10, "Milk")));
+        cache.get(2, id -> Optional.of(product(2, 20, "Bread")));
+
+        resync.getValue().run();
+
+        assertTrue(cache.versionOf(1).isEmpty());
+        assertTrue(cache.versionOf(2).isEmpty());
+    }
+
+    private static ProductDto product(int id, int categoryNumber, String name) {
+        ProductDto dto = new ProductDto();
+        dto.setId_product(id);
+        dto.setCategory_number(categoryNumber);
+        dto.setProduct_name(name);
+        return dto;
+    }
+}
@@ -4,12 +4,17 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.sql.PreparedStatement;
 import java.util.List;
 import java.util.Optional;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.config.DatabaseNotificationListener;
 import org.example.dto.page.PageResponseDto;
+import org.example.dto.product.ProductBulkItemDto;
 import org.example.dto.product.ProductDto;
 import org.example.dto.product.ProductRequestDto;
+import org.example.dto.product.ProductSuggestionDto;
 import org.example.exception.custom_exception.EntityNotFoundException;
 import org.example.mapper.product.ProductMapper;
 import org.example.mapper.product.ProductRowMapper;
@@ -20,11 +25,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("Product Repository Tests")
@@ -39,6 +47,10 @@ class ProductRepositoryTest {
     @Mock
     private ProductMapper productMapper;
 
+    @Spy
+    private ProductCache productCache = new ProductCache(100, 60_000,
+            new SimpleMeterRegistry(), mock(DatabaseNotificationListener.class));
+
     @InjectMocks
     private ProductRepository repository;
 
@@ -97,6 +109,20 @@ class ProductRepositoryTest {
         assertEquals("TestProducer", result.get().getProducer());
     }
 
+    @Test
+    @DisplayName("findById should serve repeated lookups from the product cache")
+    void findById_repeatedLookup_shouldQueryOnce() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(rowMapper), eq(1)))
+                .thenReturn(product);
+        when(productMapper.toDto(product)).thenReturn(productDto);
+
+        repository.findById(1);
+        Optional<ProductDto> result = repository.findById(1);
+
+        assertTrue(result.isPresent());
+        verify(jdbcTemplate, times(1)).queryForObject(anyString(), eq(rowMapper), eq(1));
+    }
+
     @Test
     @DisplayName("findById should return empty when product not found")
     void findById_notFound_shouldReturnEmpty() {
@@ -178,6 +204,28 @@ class ProductRepositoryTest {
         assertEquals("TestProducer", result.getProducer());
     }
 
+    @Test
+    @DisplayName("updateProductById should evict the cached product before re-reading it")
+    void updateProductById_cachedProduct_shouldReturnFreshDto() {
+        ProductDto updatedDto = new ProductDto();
+        updatedDto.setProduct_name("Renamed");
+        when(jdbcTemplate.queryForObject(anyString(), eq(rowMapper), eq(1)))
+                .thenReturn(product);
+        when(productMapper.toDto(product)).thenReturn(productDto, updatedDto);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq(1)))
+                .thenReturn(1);
+        when(jdbcTemplate.update(anyString(),
+                eq("TestProduct"), eq("TestProducer"), eq("TestChars"), eq(10), eq(1)))
+                .thenReturn(1);
+        repository.findById(1);
+
+        ProductDto result = repository.updateProductById(1, productRequestDto);
+
+        assertEquals("Renamed", result.getProduct_name());
+        assertEquals("Renamed", repository.findById(1).orElseThrow().getProduct_name());
+        verify(productCache).invalidate(1);
+    }
+
     @Test
     @DisplayName("updateProductById should throw EntityNotFoundException when not found")
     void updateProductById_notFound_shouldThrow() {
@@ -230,6 +278,32 @@ class ProductRepositoryTest {
         assertEquals(1, result.getContent().size());
     }
 
+    @Test
+    @DisplayName("findSold should read the maintained sales summary instead of aggregating sales")
+    void findSold_shouldReadSalesSummary() {
+        when(jdbcTemplate.query(anyString(), eq(rowMapper), anyDouble(), anyLong(), anyInt()))
+                .thenReturn(List.of());
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), anyDouble()))
+                .thenReturn(0);
+
+        repository.findSold(PageRequest.of(0, 10), 100.0);
+
+        verify(jdbcTemplate).query(argThat((String sql) -> sql.contains("FROM product_sales_summary")
+                        && !sql.contains("FROM sale")),
+                eq(rowMapper), eq(100.0), eq(0L), eq(10));
+        verify(jdbcTemplate).queryForObject(argThat((String sql) ->
+                sql.contains("FROM product_sales_summary")), eq(Integer.class), eq(100.0));
+    }
+
+    @Test
+    @DisplayName("rebuildSalesSummary should recompute every product from sale history")
+    void rebuildSalesSummary_shouldRefreshAllProducts() {
+        repository.rebuildSalesSummary();
+
+        verify(jdbcTemplate).execute(
+                "SELECT product_sales_summary_refresh(ARRAY(SELECT id_product FROM product))");
+    }
+
     @Test
     @DisplayName("findSold should return empty page when nothing matches")
     void findSold_noMatches_shouldReturnEmptyPage() {
@@ -292,6 +366,34 @@ class ProductRepositoryTest {
         assertTrue(result.getContent().isEmpty());
     }
 
+    @Test
+    @DisplayName("suggest should rank prefix matches first and escape LIKE wildcards")
+    void suggest_prefixRanking_shouldBindEscapedPatterns() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(List.of(new ProductSuggestionDto(1, "Milk_50%")));
+
+        List<ProductSuggestionDto> result = repository.suggest("Milk_50%", 10, false);
+
+        assertEquals(1, result.size());
+        verify(jdbcTemplate).query(argThat((String sql) -> !sql.contains("similarity(")),
+                any(RowMapper.class),
+                eq("%Milk\\_50\\%%"), eq("Milk\\_50\\%%"), eq(10));
+    }
+
+    @Test
+    @DisplayName("suggest with similarity should match trigram neighbours and rank by similarity")
+    void suggest_similarity_shouldUseTrigramOperator() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(List.of());
+
+        repository.suggest("Mlik", 5, true);
+
+        verify(jdbcTemplate).query(argThat((String sql) -> sql.contains("product_name % ?")
+                        && sql.contains("similarity(product_name, ?) DESC")),
+                any(RowMapper.class),
+                eq("%Mlik%"), eq("Mlik"), eq("Mlik%"), eq("Mlik"), eq(5));
+    }
+
     @Test
     @DisplayName("findByCategoryId should return products in category")
     void findByCategoryId_existingCategory_shouldReturnProducts() {
@@ -433,4 +535,48 @@ class ProductRepositoryTest {
 
         assertFalse(repository.existsByIdProduct(1));
     }
+
+    @Test
+    @DisplayName("insertAll should batch insert with pre-allocated ids in input order")
+    @SuppressWarnings("unchecked")
+    void insertAll_shouldUsePreallocatedIds() throws Exception {
+        when(jdbcTemplate.queryForList(contains("nextval"), eq(Integer.class), eq(2)))
+                .thenReturn(List.of(101, 102));
+        when(jdbcTemplate.batchUpdate(contains("INSERT INTO product"), anyList(), eq(1000),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    List<Object> rows = invocation.getArgument(1);
+                    ParameterizedPreparedStatementSetter<Object> setter = invocation.getArgument(3);
+                    PreparedStatement ps = mock(PreparedStatement.class);
+                    setter.setValues(ps, rows.get(1));
+                    verify(ps).setInt(1, 102);
+                    verify(ps).setString(3, "Second");
+                    return new int[][] {{1, 1}};
+                });
+        ProductRequestDto second = new ProductRequestDto();
+        second.setProduct_name("Second");
+        second.setCategory_number(10);
+
+        List<Integer> ids = repository.insertAll(List.of(productRequestDto, second));
+
+        assertEquals(List.of(101, 102), ids);
+    }
+
+    @Test
+    @DisplayName("updateAll should flatten batch counts and evict updated products")
+    @SuppressWarnings("unchecked")
+    void updateAll_shouldReturnCountsPerItem() {
+        ProductBulkItemDto first = new ProductBulkItemDto();
+        first.setId_product(1);
+        ProductBulkItemDto second = new ProductBulkItemDto();
+        second.setId_product(2);
+        when(jdbcTemplate.batchUpdate(contains("UPDATE product"), anyList(), eq(1000),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][] {{1, 0}});
+
+        int[] counts = repository.updateAll(List.of(first, second));
+
+        assertArrayEquals(new int[] {1, 0}, counts);
+        verify(productCache).invalidate(List.of(1, 2));
+    }
 }
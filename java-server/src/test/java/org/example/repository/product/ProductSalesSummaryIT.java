@@ -0,0 +1,146 @@
+package org.example.repository.product;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import org.example.Migrations;
+import org.example.dto.page.PageResponseDto;
+import org.example.dto.product.ProductDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@SpringBootTest(properties = "FRONT_URL=http://localhost:3000")
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+class ProductSalesSummaryIT {
+
+    private static final String LEGACY_SOLD = """
+            SELECT p.id_product,
+                   SUM(s1.product_number) AS sold_number,
+                   SUM(s1.selling_price * s1.product_number) AS total_sold
+            FROM product p
+            INNER JOIN store_product sp1 ON sp1.id_product = p.id_product
+            INNER JOIN sale s1 ON s1.UPC = sp1.UPC
+            WHERE NOT EXISTS(
+                    SELECT 1 FROM store_product sp3
+                    WHERE sp3.id_product = p.id_product
+                    AND NOT EXISTS(SELECT 1 FROM sale s2 WHERE s2.UPC = sp3.UPC))
+            GROUP BY p.id_product
+            ORDER BY p.id_product
+            """;
+
+    private static final String SUMMARY_SOLD = """
+            SELECT id_product, sold_number, total_sold
+            FROM product_sales_summary
+            WHERE all_sold
+            ORDER BY id_product
+            """;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DROP SCHEMA public CASCADE; CREATE SCHEMA public");
+        Migrations.applyAll(jdbcTemplate);
+        jdbcTemplate.execute("""
+                INSERT INTO employee VALUES ('EMP1', 'Doe', 'Jane', NULL, 'CASHIER', 1000,
+                    '1990-01-01', '2020-01-01', '+380000000000', 'Kyiv', 'Main', '01001', 'x');
+                INSERT INTO customer_card VALUES ('CARD1', 'Roe', 'Ann', NULL, '+380000000001',
+                    NULL, NULL, NULL, 5);
+                INSERT INTO category VALUES (1, 'Dairy');
+                INSERT INTO product VALUES (1, 1, 'Milk', 'Zlagoda', '1L'),
+                                           (2, 1, 'Kefir', 'Zlagoda', '1L');
+                INSERT INTO store_product VALUES
+                    ('000000000001', NULL, 1, 10, 100, false, false),
+                    ('000000000002', NULL, 1, 8, 100, true, false),
+                    ('000000000003', NULL, 2, 20, 100, false, false);
+                INSERT INTO checks VALUES
+                    ('CHK1', 'EMP1', 'CARD1', CURRENT_DATE, 0, 0),
+                    ('CHK2', 'EMP1', 'CARD1', CURRENT_DATE, 0, 0),
+                    ('CHK3', 'EMP1', 'CARD1', CURRENT_DATE, 0, 0);
+                """);
+    }
+
+    @Test
+    @DisplayName("summary should follow sale inserts and deletes and match the legacy aggregation")
+    void summary_shouldTrackSalesIncrementally() {
+        jdbcTemplate.update("""
+                INSERT INTO sale VALUES (2, '000000000001', 'CHK1', 10),
+                                        (1, '000000000001', 'CHK2', 10),
+                                        (3, '000000000003', 'CHK1', 20)
+                """);
+        assertEquals(List.of(2L), soldIds());
+        assertSummaryMatchesLegacy();
+
+        jdbcTemplate.update("INSERT INTO sale VALUES (5, '000000000002', 'CHK3', 8)");
+        assertEquals(List.of(1L, 2L), soldIds());
+        assertSummaryMatchesLegacy();
+
+        PageResponseDto<ProductDto> page = productRepository.findSold(PageRequest.of(0, 10), 65);
+        assertEquals(1, page.getContent().size());
+        assertEquals(1, page.getContent().get(0).getId_product());
+        assertEquals(70, page.getContent().get(0).getTotal_sold());
+
+        jdbcTemplate.update("DELETE FROM checks WHERE check_number IN ('CHK1', 'CHK3')");
+        assertEquals(List.of(), soldIds());
+        assertSummaryMatchesLegacy();
+
+        jdbcTemplate.update("UPDATE store_product SET id_product = 1 WHERE UPC = '000000000003'");
+        jdbcTemplate.update("INSERT INTO sale VALUES (1, '000000000002', 'CHK1', 8), "
+                + "(1, '000000000003', 'CHK1', 20)");
+        assertEquals(List.of(1L), soldIds());
+        assertSummaryMatchesLegacy();
+    }
+
+    @Test
+    @DisplayName("rebuildSalesSummary should restore a corrupted summary from sale history")
+    void rebuildSalesSummary_shouldRecomputeFromHistory() {
+        jdbcTemplate.update("INSERT INTO sale VALUES (3, '000000000003', 'CHK1', 20)");
+        jdbcTemplate.update("UPDATE product_sales_summary SET total_sold = 0, sold_upc_count = 0");
+
+        productRepository.rebuildSalesSummary();
+
+        assertEquals(List.of(2L), soldIds());
+        assertSummaryMatchesLegacy();
+    }
+
+    private List<Long> soldIds() {
+        return jdbcTemplate.queryForList(
+                "SELECT id_product FROM product_sales_summary WHERE all_sold ORDER BY id_product",
+                Long.class);
+    }
+
+    private void assertSummaryMatchesLegacy() {
+        List<Map<String, Object>> legacy = jdbcTemplate.queryForList(LEGACY_SOLD);
+        List<Map<String, Object>> summary = jdbcTemplate.queryForList(SUMMARY_SOLD);
+        assertEquals(legacy.size(), summary.size());
+        for (int i = 0; i < legacy.size(); i++) {
+            assertEquals(((Number) legacy.get(i).get("id_product")).longValue(),
+                    ((Number) summary.get(i).get("id_product")).longValue());
+            assertEquals(((Number) legacy.get(i).get("sold_number")).longValue(),
+                    ((Number) summary.get(i).get("sold_number")).longValue());
+            assertEquals(0, ((BigDecimal) legacy.get(i).get("total_sold"))
+                    .compareTo((BigDecimal) summary.get(i).get("total_sold")));
+        }
+    }
+}
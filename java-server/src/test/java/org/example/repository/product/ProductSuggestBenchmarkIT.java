@@ -0,0 +1,94 @@
+package org.example.repository.product;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.example.dto.product.ProductSuggestionDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@SpringBootTest(properties = "FRONT_URL=http://localhost:3000")
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@Sql(scripts = "classpath:database/schema.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+@Sql(scripts = "classpath:database/clear.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_CLASS)
+class ProductSuggestBenchmarkIT {
+
+    private static final int PRODUCTS = 1_000_000;
+    private static final int RUNS = 50;
+    private static final Path TRGM_MIGRATION =
+            Path.of("../migrations/000012_create_product_name_trgm_index.up.sql");
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("suggest over 1M products should use the trigram index and beat the sequential scan")
+    void suggest_millionProducts_shouldUseTrigramIndex() throws Exception {
+        jdbcTemplate.update(
+                """
+                INSERT INTO product (id_product, category_number, producer, product_name,
+                                     product_characteristics)
+                SELECT 100 + n, 1 + n % 3, 'Producer ' || n % 100, 'Item ' || md5(n::text),
+                       'generated'
+                FROM generate_series(1, ?) AS n
+                """,
+                PRODUCTS);
+        jdbcTemplate.update("INSERT INTO product (id_product, category_number, producer, "
+                + "product_name, product_characteristics) "
+                + "VALUES (50, 1, 'Zlagoda', 'Milkshake', '0.5L')");
+        jdbcTemplate.execute("ANALYZE product");
+
+        long seqScanNanos = timeSuggest();
+
+        for (String statement : Files.readString(TRGM_MIGRATION).split(";")) {
+            if (!statement.isBlank()) {
+                jdbcTemplate.execute(statement);
+            }
+        }
+        jdbcTemplate.execute("ANALYZE product");
+
+        long indexedNanos = timeSuggest();
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN SELECT id_product FROM product WHERE product_name ILIKE '%ilksh%'",
+                String.class));
+        List<ProductSuggestionDto> typo = productRepository.suggest("Mikshake", 5, true);
+
+        assertTrue(plan.contains("idx_product_name_trgm"), plan);
+        assertTrue(indexedNanos < seqScanNanos,
+                "indexed suggest took " + indexedNanos / RUNS + " ns/op, sequential scan took "
+                        + seqScanNanos / RUNS + " ns/op");
+        assertFalse(typo.isEmpty());
+        assertEquals("Milkshake", typo.get(0).getProduct_name());
+    }
+
+    private long timeSuggest() {
+        productRepository.suggest("ilksh", 10, false);
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            List<ProductSuggestionDto> suggestions = productRepository.suggest("ilksh", 10, false);
+            assertEquals("Milkshake", suggestions.get(0).getProduct_name());
+        }
+        return System.nanoTime() - start;
+    }
+}
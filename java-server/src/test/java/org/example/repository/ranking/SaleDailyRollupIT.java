@@ -0,0 +1,140 @@
+package org.example.repository.ranking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.example.Migrations;
+import org.example.dto.ranking.CategoryRankingDto;
+import org.example.dto.ranking.ProductRankingDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@SpringBootTest(properties = "FRONT_URL=http://localhost:3000")
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+class SaleDailyRollupIT {
+
+    private static final String RAW_DAILY = """
+            SELECT c.print_date AS day, s.UPC AS upc,
+                   SUM(s.product_number) AS units,
+                   SUM(s.selling_price * s.product_number) AS revenue
+            FROM sale s
+            JOIN checks c ON c.check_number = s.check_number
+            GROUP BY c.print_date, s.UPC
+            ORDER BY day, upc
+            """;
+
+    private static final String ROLLUP_DAILY = """
+            SELECT day, UPC AS upc, units, revenue
+            FROM sale_daily_rollup
+            WHERE units <> 0
+            ORDER BY day, upc
+            """;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private SalesRankingRepository rankingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DROP SCHEMA public CASCADE; CREATE SCHEMA public");
+        Migrations.applyAll(jdbcTemplate);
+        jdbcTemplate.execute("""
+                INSERT INTO employee VALUES ('EMP1', 'Doe', 'Jane', NULL, 'CASHIER', 1000,
+                    '1990-01-01', '2020-01-01', '+380000000000', 'Kyiv', 'Main', '01001', 'x');
+                INSERT INTO customer_card VALUES ('CARD1', 'Roe', 'Ann', NULL, '+380000000001',
+                    NULL, NULL, NULL, 5);
+                INSERT INTO category VALUES (1, 'Dairy'), (2, 'Bakery');
+                INSERT INTO product VALUES (1, 1, 'Milk', 'Zlagoda', '1L'),
+                                           (2, 2, 'Bread', 'Zlagoda', '500g');
+                INSERT INTO store_product VALUES
+                    ('000000000001', NULL, 1, 10, 100, false, false),
+                    ('000000000002', NULL, 2, 5, 100, false, false);
+                INSERT INTO checks VALUES
+                    ('CHK1', 'EMP1', 'CARD1', CURRENT_DATE, 0, 0),
+                    ('CHK2', 'EMP1', 'CARD1', CURRENT_DATE - 10, 0, 0),
+                    ('CHK3', 'EMP1', 'CARD1', CURRENT_DATE - 40, 0, 0);
+                """);
+    }
+
+    @Test
+    @DisplayName("rollup should follow sale and check changes and match raw sales per day")
+    void rollup_shouldTrackSalesIncrementally() {
+        jdbcTemplate.update("""
+                INSERT INTO sale VALUES (2, '000000000001', 'CHK1', 10),
+                                        (7, '000000000002', 'CHK1', 5),
+                                        (3, '000000000001', 'CHK2', 10),
+                                        (9, '000000000002', 'CHK3', 5)
+                """);
+        assertRollupMatchesSales();
+
+        jdbcTemplate.update("UPDATE sale SET product_number = 4 WHERE check_number = 'CHK2'");
+        assertRollupMatchesSales();
+
+        jdbcTemplate.update("UPDATE checks SET print_date = CURRENT_DATE - 1 "
+                + "WHERE check_number = 'CHK3'");
+        assertRollupMatchesSales();
+
+        jdbcTemplate.update("UPDATE checks SET check_number = 'CHK9', print_date = CURRENT_DATE - 2 "
+                + "WHERE check_number = 'CHK1'");
+        assertRollupMatchesSales();
+
+        jdbcTemplate.update("DELETE FROM sale WHERE check_number = 'CHK2'");
+        jdbcTemplate.update("DELETE FROM checks WHERE check_number = 'CHK3'");
+        assertRollupMatchesSales();
+    }
+
+    @Test
+    @DisplayName("rankings should only count sales inside the window")
+    void rankings_shouldRespectWindow() {
+        jdbcTemplate.update("""
+                INSERT INTO sale VALUES (2, '000000000001', 'CHK1', 10),
+                                        (3, '000000000001', 'CHK2', 10),
+                                        (9, '000000000002', 'CHK3', 5)
+                """);
+        LocalDate today = LocalDate.now();
+
+        List<ProductRankingDto> week = rankingRepository.findTopProducts(
+                today.minusDays(6), today, 10);
+        List<CategoryRankingDto> quarter = rankingRepository.findTopCategories(
+                today.minusDays(89), today, 10);
+
+        assertEquals(1, week.size());
+        assertEquals(2, week.get(0).getUnits());
+        assertEquals(List.of(2, 1), quarter.stream()
+                .map(CategoryRankingDto::getCategory_number).toList());
+        assertEquals(0, new BigDecimal("45").compareTo(quarter.get(0).getRevenue()));
+    }
+
+    private void assertRollupMatchesSales() {
+        List<Map<String, Object>> raw = jdbcTemplate.queryForList(RAW_DAILY);
+        List<Map<String, Object>> rollup = jdbcTemplate.queryForList(ROLLUP_DAILY);
+        assertEquals(raw.size(), rollup.size());
+        for (int i = 0; i < raw.size(); i++) {
+            assertEquals(raw.get(i).get("day"), rollup.get(i).get("day"));
+            assertEquals(raw.get(i).get("upc"), rollup.get(i).get("upc"));
+            assertEquals(((Number) raw.get(i).get("units")).longValue(),
+                    ((Number) rollup.get(i).get("units")).longValue());
+            assertEquals(0, ((BigDecimal) raw.get(i).get("revenue"))
+                    .compareTo((BigDecimal) rollup.get(i).get("revenue")));
+        }
+    }
+}
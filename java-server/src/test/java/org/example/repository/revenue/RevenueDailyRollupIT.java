@@ -0,0 +1,150 @@
+package org.example.repository.revenue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.example.Migrations;
+import org.example.dto.revenue.DailyRevenueDto;
+import org.example.dto.revenue.EmployeeRevenueDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@SpringBootTest(properties = "FRONT_URL=http://localhost:3000")
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+class RevenueDailyRollupIT {
+
+    private static final String RAW_DAILY = """
+            SELECT print_date AS day, id_employee, COUNT(*) AS checks,
+                   SUM(sum_total) AS sum_total, SUM(vat) AS vat
+            FROM checks
+            GROUP BY print_date, id_employee
+            ORDER BY day, id_employee
+            """;
+
+    private static final String ROLLUP_DAILY = """
+            SELECT day, id_employee, checks, sum_total, vat
+            FROM revenue_daily_rollup
+            WHERE checks <> 0
+            ORDER BY day, id_employee
+            """;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private RevenueRollupRepository revenueRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DROP SCHEMA public CASCADE; CREATE SCHEMA public");
+        Migrations.applyAll(jdbcTemplate);
+        jdbcTemplate.execute("""
+                INSERT INTO employee VALUES
+                    ('EMP1', 'Doe', 'Jane', NULL, 'CASHIER', 1000,
+                     '1990-01-01', '2020-01-01', '+380000000000', 'Kyiv', 'Main', '01001', 'x'),
+                    ('EMP2', 'Roe', 'John', NULL, 'CASHIER', 1000,
+                     '1990-01-01', '2020-01-01', '+380000000002', 'Kyiv', 'Main', '01001', 'x');
+                INSERT INTO customer_card VALUES ('CARD1', 'Roe', 'Ann', NULL, '+380000000001',
+                    NULL, NULL, NULL, 5);
+                """);
+    }
+
+    @Test
+    @DisplayName("rollup should follow check changes and match the checks table per day")
+    void rollup_shouldTrackChecksIncrementally() {
+        jdbcTemplate.update("""
+                INSERT INTO checks VALUES
+                    ('CHK1', 'EMP1', 'CARD1', CURRENT_DATE, 100, 20),
+                    ('CHK2', 'EMP1', 'CARD1', CURRENT_DATE, 50, 10),
+                    ('CHK3', 'EMP2', 'CARD1', CURRENT_DATE - 1, 30, 6)
+                """);
+        assertRollupMatchesChecks();
+
+        jdbcTemplate.update("UPDATE checks SET sum_total = 60, vat = 12 "
+                + "WHERE check_number = 'CHK2'");
+        assertRollupMatchesChecks();
+
+        jdbcTemplate.update("UPDATE checks SET id_employee = 'EMP2', print_date = CURRENT_DATE - 2 "
+                + "WHERE check_number = 'CHK1'");
+        assertRollupMatchesChecks();
+
+        jdbcTemplate.update("DELETE FROM checks WHERE check_number = 'CHK3'");
+        assertRollupMatchesChecks();
+    }
+
+    @Test
+    @DisplayName("rebuild should restore a rollup that drifted from the checks table")
+    void rebuild_shouldRecomputeFromChecks() {
+        jdbcTemplate.update("""
+                INSERT INTO checks VALUES
+                    ('CHK1', 'EMP1', 'CARD1', CURRENT_DATE, 100, 20),
+                    ('CHK2', 'EMP2', 'CARD1', CURRENT_DATE - 3, 30, 6)
+                """);
+        jdbcTemplate.update("UPDATE revenue_daily_rollup SET checks = 99, sum_total = 1");
+
+        revenueRepository.rebuild();
+
+        assertRollupMatchesChecks();
+    }
+
+    @Test
+    @DisplayName("queries should aggregate a year of daily revenue per day and per cashier")
+    void queries_shouldAggregateYear() {
+        jdbcTemplate.update("""
+                INSERT INTO checks
+                SELECT 'C' || d || e, 'EMP' || e, 'CARD1', CURRENT_DATE - d, 10 * e, 2 * e
+                FROM generate_series(0, 364) AS d, generate_series(1, 2) AS e
+                """);
+        LocalDate today = LocalDate.now();
+
+        List<DailyRevenueDto> daily = revenueRepository.findDaily(
+                today.minusDays(364), today, null);
+        List<DailyRevenueDto> cashierDaily = revenueRepository.findDaily(
+                today.minusDays(6), today, "EMP2");
+        List<EmployeeRevenueDto> employees = revenueRepository.findByEmployee(
+                today.minusDays(364), today);
+
+        assertEquals(365, daily.size());
+        assertEquals(2, daily.get(0).getChecks());
+        assertEquals(0, new BigDecimal("30").compareTo(daily.get(0).getSum_total()));
+        assertEquals(7, cashierDaily.size());
+        assertEquals(0, new BigDecimal("20").compareTo(cashierDaily.get(0).getSum_total()));
+        assertEquals(List.of("EMP2", "EMP1"),
+                employees.stream().map(EmployeeRevenueDto::getId_employee).toList());
+        assertEquals(365, employees.get(0).getChecks());
+        assertEquals("Roe", employees.get(0).getEmpl_surname());
+    }
+
+    private void assertRollupMatchesChecks() {
+        List<Map<String, Object>> raw = jdbcTemplate.queryForList(RAW_DAILY);
+        List<Map<String, Object>> rollup = jdbcTemplate.queryForList(ROLLUP_DAILY);
+        assertEquals(raw.size(), rollup.size());
+        for (int i = 0; i < raw.size(); i++) {
+            assertEquals(raw.get(i).get("day"), rollup.get(i).get("day"));
+            assertEquals(raw.get(i).get("id_employee"), rollup.get(i).get("id_employee"));
+            assertEquals(((Number) raw.get(i).get("checks")).longValue(),
+                    ((Number) rollup.get(i).get("checks")).longValue());
+            assertEquals(0, ((BigDecimal) raw.get(i).get("sum_total"))
+                    .compareTo((BigDecimal) rollup.get(i).get("sum_total")));
+            assertEquals(0, ((BigDecimal) raw.get(i).get("vat"))
+                    .compareTo((BigDecimal) rollup.get(i).get("vat")));
+        }
+    }
+}
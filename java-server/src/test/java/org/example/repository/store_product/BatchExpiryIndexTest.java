@@ -0,0 +1,89 @@
+package org.example.repository.store_product;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Batch Expiry Index Tests")
+class BatchExpiryIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private BatchExpiryIndex index;
+
+    @Test
+    @DisplayName("expiringBetween should load the batch table once and serve day ranges from memory")
+    void expiringBetween_shouldLoadOnceAndFilterByDay() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn(1L, 2L);
+        when(rs.getString("UPC")).thenReturn("111111111111", "222222222222");
+        when(rs.getObject("delivery_date", LocalDate.class)).thenReturn(TODAY);
+        when(rs.getObject("expiring_date", LocalDate.class))
+                .thenReturn(TODAY.plusDays(2), TODAY.plusDays(20));
+        when(rs.getInt("quantity")).thenReturn(5, 7);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1, RowCallbackHandler.class);
+            handler.processRow(rs);
+            handler.processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+        List<ExpiringBatch> soon = index.expiringBetween(TODAY, TODAY.plusDays(5));
+        List<ExpiringBatch> later = index.expiringBetween(TODAY, TODAY.plusDays(30));
+
+        assertEquals(1, soon.size());
+        assertEquals("111111111111", soon.get(0).UPC());
+        assertEquals(2, later.size());
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    @DisplayName("add and removeExpiredBefore should keep the index current")
+    void addAndRemoveExpired_shouldUpdateBuckets() {
+        index.rebuild();
+        index.add(new ExpiringBatch(1L, "111111111111", TODAY, TODAY.minusDays(1), 5));
+        index.add(new ExpiringBatch(2L, "222222222222", TODAY, TODAY.plusDays(1), 5));
+
+        index.removeExpiredBefore(TODAY);
+
+        assertEquals(0, index.expiringBetween(TODAY.minusDays(10), TODAY).size());
+        assertEquals(1, index.expiringBetween(TODAY, TODAY.plusDays(1)).size());
+    }
+
+    @Test
+    @DisplayName("warmUp should leave the index to load lazily when the batch table is unavailable")
+    void warmUp_databaseUnavailable_shouldLoadLazily() {
+        doThrow(new DataAccessResourceFailureException("no table"))
+                .doNothing()
+                .when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+        index.warmUp();
+        index.expiringBetween(TODAY, TODAY.plusDays(5));
+
+        verify(jdbcTemplate, times(2)).query(anyString(), any(RowCallbackHandler.class));
+    }
+}
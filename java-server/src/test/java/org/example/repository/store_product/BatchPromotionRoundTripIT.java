@@ -0,0 +1,87 @@
+package org.example.repository.store_product;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import org.example.Migrations;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@SpringBootTest(properties = "FRONT_URL=http://localhost:3000")
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+class BatchPromotionRoundTripIT {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private BatchRepository batchRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DROP SCHEMA public CASCADE; CREATE SCHEMA public");
+        Migrations.applyAll(jdbcTemplate);
+        jdbcTemplate.execute("""
+                INSERT INTO category VALUES (1, 'Dairy');
+                INSERT INTO product VALUES (1, 1, 'Milk', 'Zlagoda', '1L');
+                INSERT INTO store_product (UPC, UPC_prom, id_product, selling_price,
+                                           products_number, promotional_product, is_deleted,
+                                           regular_price)
+                VALUES ('000000000001', NULL, 1, 1.02, 20, false, false, 1.02);
+                INSERT INTO batch (UPC, delivery_date, expiring_date, quantity, selling_price)
+                VALUES ('000000000001', CURRENT_DATE, CURRENT_DATE + 30, 20, 1.02);
+                """);
+    }
+
+    @Test
+    @DisplayName("promote/demote cycles should restore a price that does not divide evenly")
+    void recomputePromotions_roundTrip_shouldNotDriftPrice() {
+        for (int cycle = 0; cycle < 3; cycle++) {
+            setExpiry("CURRENT_DATE + 2");
+            assertEquals(1, batchRepository.recomputePromotions().promoted());
+            assertEquals(new BigDecimal("0.8200"), sellingPrice());
+
+            setExpiry("CURRENT_DATE + 30");
+            assertEquals(1, batchRepository.recomputePromotions().demoted());
+            assertEquals(new BigDecimal("1.0200"), sellingPrice());
+        }
+    }
+
+    @Test
+    @DisplayName("a manual reprice during a promotion should be kept when the promotion ends")
+    void recomputePromotions_repricedDuringPromotion_shouldDemoteFromNewPrice() {
+        setExpiry("CURRENT_DATE + 2");
+        batchRepository.recomputePromotions();
+        jdbcTemplate.update("UPDATE store_product SET selling_price = 2.00 WHERE UPC = '000000000001'");
+
+        setExpiry("CURRENT_DATE + 30");
+        batchRepository.recomputePromotions();
+
+        assertEquals(new BigDecimal("2.5000"), sellingPrice());
+    }
+
+    private void setExpiry(String expression) {
+        jdbcTemplate.update("UPDATE batch SET expiring_date = " + expression
+                + " WHERE UPC = '000000000001'");
+    }
+
+    private BigDecimal sellingPrice() {
+        return jdbcTemplate.queryForObject(
+                "SELECT selling_price FROM store_product WHERE UPC = '000000000001'",
+                BigDecimal.class);
+    }
+}
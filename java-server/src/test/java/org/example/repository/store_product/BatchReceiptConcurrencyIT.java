@@ -0,0 +1,134 @@
+package org.example.repository.store_product;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.example.dto.store_product.batch.BatchRequestDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@SpringBootTest(properties = "FRONT_URL=http://localhost:3000")
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@Sql(scripts = "classpath:database/schema.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+@Sql(scripts = "classpath:database/add-products.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+@Sql(scripts = "classpath:database/add-store-products.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+@Sql(scripts = "classpath:database/clear.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_CLASS)
+class BatchReceiptConcurrencyIT {
+
+    private static final int THREADS = 8;
+    private static final int RECEIPTS_PER_THREAD = 25;
+    private static final int QUANTITY = 2;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private BatchRepository batchRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("parallel receipts of one UPC should not lose stock and beat the multi-statement flow")
+    void parallelReceipts_shouldKeepTotalsAndCutLatency() throws Exception {
+        int initialQuantity = quantityOf("000000000001");
+        int initialBatches = batchCountOf("000000000001");
+
+        long cteNanos = runInParallel(() -> batchRepository.save(batch("000000000001")));
+
+        int receipts = THREADS * RECEIPTS_PER_THREAD;
+        assertEquals(initialQuantity + receipts * QUANTITY, quantityOf("000000000001"));
+        assertEquals(initialBatches + receipts, batchCountOf("000000000001"));
+
+        long legacyNanos = runInParallel(() -> legacyReceive(batch("000000000003")));
+
+        assertTrue(cteNanos < legacyNanos,
+                "single-statement receipt took " + cteNanos / receipts
+                        + " ns/op, multi-statement flow took " + legacyNanos / receipts + " ns/op");
+    }
+
+    private long runInParallel(Runnable receipt) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Callable<Object>> tasks = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                tasks.add(() -> {
+                    for (int j = 0; j < RECEIPTS_PER_THREAD; j++) {
+                        receipt.run();
+                    }
+                    return null;
+                });
+            }
+            long start = System.nanoTime();
+            for (Future<Object> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+            return System.nanoTime() - start;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void legacyReceive(BatchRequestDto requestDto) {
+        BigDecimal priceWithVat = requestDto.getPrice()
+                .multiply(new BigDecimal("1.20"))
+                .setScale(2, RoundingMode.HALF_UP);
+        jdbcTemplate.update(
+                """
+                INSERT INTO batch (UPC, delivery_date, expiring_date, quantity, selling_price)
+                VALUES (?, ?, ?, ?, ?)
+                """,
+                requestDto.getUPC(), requestDto.getDelivery_date(), requestDto.getExpiring_date(),
+                requestDto.getQuantity(), priceWithVat);
+        int quantity = quantityOf(requestDto.getUPC());
+        jdbcTemplate.update(
+                "UPDATE store_product SET selling_price = ?, promotional_product = ? WHERE UPC = ?",
+                priceWithVat, false, requestDto.getUPC());
+        jdbcTemplate.update("UPDATE batch SET selling_price = ? WHERE UPC = ?",
+                priceWithVat, requestDto.getUPC());
+        jdbcTemplate.update("UPDATE store_product SET products_number = ? WHERE UPC = ?",
+                quantity + requestDto.getQuantity(), requestDto.getUPC());
+        quantityOf(requestDto.getUPC());
+    }
+
+    private BatchRequestDto batch(String upc) {
+        BatchRequestDto requestDto = new BatchRequestDto();
+        requestDto.setUPC(upc);
+        requestDto.setDelivery_date(Date.valueOf(LocalDate.now()));
+        requestDto.setExpiring_date(Date.valueOf(LocalDate.now().plusDays(30)));
+        requestDto.setQuantity(QUANTITY);
+        requestDto.setPrice(new BigDecimal("10.00"));
+        return requestDto;
+    }
+
+    private int quantityOf(String upc) {
+        return jdbcTemplate.queryForObject(
+                "SELECT products_number FROM store_product WHERE UPC = ?", Integer.class, upc);
+    }
+
+    private int batchCountOf(String upc) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM batch WHERE UPC = ?", Integer.class, upc);
+    }
+}
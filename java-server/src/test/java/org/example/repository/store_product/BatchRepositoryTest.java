@@ -1,27 +1,34 @@
 package org.example.repository.store_product;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.sql.ResultSet;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
-import java.util.Optional;
 import org.example.dto.store_product.batch.BatchRequestDto;
 import org.example.exception.custom_exception.EntityNotFoundException;
 import org.example.exception.custom_exception.InvalidProductException;
+import org.example.mapper.store_product.StoreProductRowMapper;
 import org.example.model.store_product.StoreProduct;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -32,6 +39,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("Batch Repository Tests")
@@ -41,7 +50,16 @@ class BatchRepositoryTest {
     private JdbcTemplate jdbcTemplate;
 
     @Mock
-    private StoreProductRepository storeProductRepository;
+    private StoreProductRowMapper storeProductRowMapper;
+
+    @Mock
+    private StoreProductCounters counters;
+
+    @Mock
+    private StoreProductPriceCache priceCache;
+
+    @Mock
+    private BatchExpiryIndex expiryIndex;
 
     @InjectMocks
     private BatchRepository repository;
@@ -69,210 +87,245 @@ class BatchRepositoryTest {
         storeProduct.setPromotional_product(false);
     }
 
+    private List<Object[]> stubReceipt(boolean wasPromotional) throws Exception {
+        List<Object[]> boundParams = new ArrayList<>();
+        when(jdbcTemplate.query(contains("WITH received AS"), any(RowMapper.class), any(Object[].class)))
+                .thenAnswer(invocation -> {
+                    Object[] args = invocation.getArguments();
+                    boundParams.add(Arrays.copyOfRange(args, 2, args.length));
+                    ResultSet rs = mock(ResultSet.class);
+                    when(rs.getBoolean("was_promotional")).thenReturn(wasPromotional);
+                    when(rs.getLong("batch_id")).thenReturn(7L);
+                    when(rs.getObject("delivery_date", LocalDate.class)).thenReturn(LocalDate.now());
+                    when(rs.getObject("expiring_date", LocalDate.class))
+                            .thenReturn(LocalDate.now().plusDays(30));
+                    return List.of(invocation.getArgument(1, RowMapper.class).mapRow(rs, 0));
+                });
+        when(storeProductRowMapper.mapRow(any(ResultSet.class), anyInt())).thenReturn(storeProduct);
+        return boundParams;
+    }
+
     @Test
-    @DisplayName("save should insert batch and update store product quantity")
-    void save_validBatch_shouldInsertAndUpdateQuantity() {
-        when(storeProductRepository.findAllInfoByUPC(eq("123456789012")))
-                .thenReturn(Optional.of(storeProduct))
-                .thenReturn(Optional.of(storeProduct));
-        when(jdbcTemplate.update(anyString(), anyString(), any(), any(), anyInt(), any()))
-                .thenReturn(1);
-        when(jdbcTemplate.update(anyString(), any(), anyString()))
-                .thenReturn(1);
-        when(jdbcTemplate.update(anyString(), anyInt(), anyString()))
-                .thenReturn(1);
+    @DisplayName("save should receive batch in one statement and return the updated store product")
+    void save_validBatch_shouldReceiveInOneStatement() throws Exception {
+        List<Object[]> boundParams = stubReceipt(false);
 
         StoreProduct result = repository.save(batchRequestDto);
 
         assertNotNull(result);
         assertEquals("123456789012", result.getUPC());
-        verify(jdbcTemplate, times(1)).update(
-                contains("INSERT INTO batch"),
-                eq("123456789012"),
-                any(),
-                any(),
-                eq(20),
-                any()
-        );
-        verify(jdbcTemplate, times(1)).update(
-                contains("UPDATE store_product SET products_number"),
-                eq(70),
-                eq("123456789012")
-        );
+        assertEquals(1, boundParams.size());
+        Object[] params = boundParams.get(0);
+        assertEquals(20, params[0]);
+        assertEquals("123456789012", params[10]);
+        assertEquals(20, params[13]);
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+        verify(priceCache).invalidate("123456789012");
+        verify(expiryIndex).add(argThat(batch -> batch.id() == 7L
+                && batch.expiringDate().equals(LocalDate.now().plusDays(30))));
     }
 
     @Test
-    @DisplayName("save should calculate VAT correctly")
-    void save_shouldCalculateVAT() {
-        when(storeProductRepository.findAllInfoByUPC(eq("123456789012")))
-                .thenReturn(Optional.of(storeProduct))
-                .thenReturn(Optional.of(storeProduct));
-        when(jdbcTemplate.update(anyString(), anyString(), any(), any(), anyInt(), any()))
-                .thenReturn(1);
+    @DisplayName("save should calculate VAT and promotional prices")
+    void save_shouldCalculateVATAndPromotionalPrice() throws Exception {
+        List<Object[]> boundParams = stubReceipt(false);
 
         repository.save(batchRequestDto);
 
-        verify(jdbcTemplate).update(
-                anyString(),
-                eq("123456789012"),
-                any(),
-                any(),
-                eq(20),
-                eq(new BigDecimal("12.00"))
-        );
+        // Price with VAT = 10.00 * 1.20 = 12.00
+        // Promotional price = 12.00 * 0.8 = 9.60
+        assertEquals(new BigDecimal("9.60"), boundParams.get(0)[7]);
+        assertEquals(new BigDecimal("12.00"), boundParams.get(0)[8]);
+        assertEquals(new BigDecimal("12.00"), boundParams.get(0)[9]);
     }
 
     @Test
-    @DisplayName("save should set promotional when quantity >= 10 and expiring soon")
-    void save_expiringBatch_shouldSetPromotional() {
+    @DisplayName("save should allow promotion when batch expires within 5 days")
+    void save_expiringBatch_shouldAllowPromotion() throws Exception {
         LocalDate expiringDate = LocalDate.now().plusDays(3);
         batchRequestDto.setExpiring_date(Date.from(expiringDate.atStartOfDay(ZoneId.systemDefault()).toInstant()));
-        batchRequestDto.setQuantity(15);
-
-        when(storeProductRepository.findAllInfoByUPC(eq("123456789012")))
-                .thenReturn(Optional.of(storeProduct))
-                .thenReturn(Optional.of(storeProduct));
-        when(jdbcTemplate.update(anyString(), anyString(), any(), any(), anyInt(), any()))
-                .thenReturn(1);
+        List<Object[]> boundParams = stubReceipt(false);
 
         repository.save(batchRequestDto);
 
-        verify(storeProductRepository, times(1)).updateProductPriceAndPromotion(
-                eq("123456789012"),
-                any(BigDecimal.class),
-                eq(true)
-        );
+        Object[] params = boundParams.get(0);
+        assertEquals(true, params[1]);
+        assertEquals(10, params[3]);
+        assertEquals(true, params[4]);
+        assertEquals(10, params[6]);
     }
 
     @Test
-    @DisplayName("save should not set promotional when quantity < 10 even if expiring soon")
-    void save_lowQuantityExpiring_shouldNotSetPromotional() {
-        LocalDate expiringDate = LocalDate.now().plusDays(3);
+    @DisplayName("save should not allow promotion when expiring date > 5 days")
+    void save_notExpiringYet_shouldNotAllowPromotion() throws Exception {
+        LocalDate expiringDate = LocalDate.now().plusDays(10);
         batchRequestDto.setExpiring_date(Date.from(expiringDate.atStartOfDay(ZoneId.systemDefault()).toInstant()));
-        batchRequestDto.setQuantity(5);
-        storeProduct.setProducts_number(3);
-
-        when(storeProductRepository.findAllInfoByUPC(eq("123456789012")))
-                .thenReturn(Optional.of(storeProduct))
-                .thenReturn(Optional.of(storeProduct));
-        when(jdbcTemplate.update(anyString(), anyString(), any(), any(), anyInt(), any()))
-                .thenReturn(1);
+        List<Object[]> boundParams = stubReceipt(false);
 
         repository.save(batchRequestDto);
 
-        verify(storeProductRepository, times(1)).updateProductPriceAndPromotion(
-                eq("123456789012"),
-                any(BigDecimal.class),
-                eq(false)
-        );
+        assertEquals(false, boundParams.get(0)[1]);
+        assertEquals(false, boundParams.get(0)[4]);
     }
 
     @Test
-    @DisplayName("save should not set promotional when expiring date > 5 days")
-    void save_notExpiringYet_shouldNotSetPromotional() {
-        LocalDate expiringDate = LocalDate.now().plusDays(10);
-        batchRequestDto.setExpiring_date(Date.from(expiringDate.atStartOfDay(ZoneId.systemDefault()).toInstant()));
-        batchRequestDto.setQuantity(15);
-
-        when(storeProductRepository.findAllInfoByUPC(eq("123456789012")))
-                .thenReturn(Optional.of(storeProduct))
-                .thenReturn(Optional.of(storeProduct));
-        when(jdbcTemplate.update(anyString(), anyString(), any(), any(), anyInt(), any()))
-                .thenReturn(1);
+    @DisplayName("save should record promotion change in counters")
+    void save_becamePromotional_shouldUpdateCounters() throws Exception {
+        storeProduct.setPromotional_product(true);
+        stubReceipt(false);
 
         repository.save(batchRequestDto);
 
-        verify(storeProductRepository, times(1)).updateProductPriceAndPromotion(
-                eq("123456789012"),
-                any(BigDecimal.class),
-                eq(false)
-        );
+        verify(counters).recordPromotionChange(false, true);
     }
 
     @Test
     @DisplayName("save should throw EntityNotFoundException when store product not found")
     void save_storeProductNotFound_shouldThrowException() {
-        when(storeProductRepository.findAllInfoByUPC(eq("123456789012")))
-                .thenReturn(Optional.empty());
-        when(jdbcTemplate.update(anyString(), anyString(), any(), any(), anyInt(), any()))
-                .thenReturn(1);
+        when(jdbcTemplate.query(contains("WITH received AS"), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(List.of());
 
         assertThrows(EntityNotFoundException.class, () -> repository.save(batchRequestDto));
+        verify(priceCache, never()).invalidate(anyString());
+        verify(expiryIndex, never()).add(any());
     }
 
     @Test
     @DisplayName("save should throw InvalidProductException on data integrity violation")
     void save_invalidProduct_shouldThrowException() {
-        when(jdbcTemplate.update(anyString(), anyString(), any(), any(), anyInt(), any()))
+        when(jdbcTemplate.query(contains("WITH received AS"), any(RowMapper.class), any(Object[].class)))
                 .thenThrow(DataIntegrityViolationException.class);
 
         assertThrows(InvalidProductException.class, () -> repository.save(batchRequestDto));
     }
 
     @Test
-    @DisplayName("deleteExpired should delete expired batches and update quantities")
-    void deleteExpired_shouldDeleteExpiredBatches() {
-        Object[] expiredBatch1 = {"123456789012", 10};
-        Object[] expiredBatch2 = {"987654321098", 5};
-
-        when(jdbcTemplate.query(anyString(), any(org.springframework.jdbc.core.RowMapper.class)))
-                .thenReturn(List.of(expiredBatch1, expiredBatch2));
-        when(jdbcTemplate.update(contains("UPDATE store_product"), anyInt(), anyString()))
-                .thenReturn(1);
-        when(jdbcTemplate.update(contains("DELETE FROM batch")))
-                .thenReturn(2);
-
-        repository.deleteExpired();
-
-        verify(jdbcTemplate, times(1)).update(
-                contains("UPDATE store_product SET products_number"),
-                eq(10),
-                eq("123456789012")
-        );
-        verify(jdbcTemplate, times(1)).update(
-                contains("UPDATE store_product SET products_number"),
-                eq(5),
-                eq("987654321098")
-        );
-        verify(jdbcTemplate, times(1)).update(contains("DELETE FROM batch"));
+    @DisplayName("saveAll should receive a delivery in one statement aggregated per UPC")
+    void saveAll_duplicateUPCs_shouldAggregatePerStoreProduct() throws Exception {
+        BatchRequestDto secondLine = new BatchRequestDto();
+        secondLine.setUPC("123456789012");
+        secondLine.setDelivery_date(batchRequestDto.getDelivery_date());
+        secondLine.setExpiring_date(batchRequestDto.getExpiring_date());
+        secondLine.setQuantity(5);
+        secondLine.setPrice(new BigDecimal("11.00"));
+        List<Object[]> boundParams = new ArrayList<>();
+        when(jdbcTemplate.query(contains("WITH delivery AS"), any(RowMapper.class), any(Object[].class)))
+                .thenAnswer(invocation -> {
+                    Object[] args = invocation.getArguments();
+                    boundParams.add(Arrays.copyOfRange(args, 2, args.length));
+                    ResultSet rs = mock(ResultSet.class);
+                    when(rs.getBoolean("was_promotional")).thenReturn(true);
+                    when(rs.getLong("batch_id")).thenReturn(7L, 8L);
+                    RowMapper<?> mapper = invocation.getArgument(1, RowMapper.class);
+                    return List.of(mapper.mapRow(rs, 0), mapper.mapRow(rs, 1));
+                });
+        when(storeProductRowMapper.mapRow(any(ResultSet.class), anyInt())).thenReturn(storeProduct);
+
+        List<StoreProduct> result = repository.saveAll(List.of(batchRequestDto, secondLine));
+
+        assertEquals(1, result.size());
+        assertEquals(1, boundParams.size());
+        Object[] params = boundParams.get(0);
+        assertArrayEquals(new String[] {"123456789012"}, (String[]) params[0]);
+        assertArrayEquals(new Integer[] {25}, (Integer[]) params[1]);
+        assertArrayEquals(new String[] {"13.20"}, (String[]) params[4]);
+        assertArrayEquals(new String[] {"123456789012", "123456789012"}, (String[]) params[5]);
+        assertArrayEquals(new Integer[] {20, 5}, (Integer[]) params[8]);
+        verify(counters, times(1)).recordPromotionChange(true, false);
+        verify(priceCache, times(1)).invalidate("123456789012");
+        verify(expiryIndex, times(2)).add(any(ExpiringBatch.class));
     }
 
     @Test
-    @DisplayName("deleteExpired should handle empty expired batches")
-    void deleteExpired_noExpiredBatches_shouldNotUpdateQuantities() {
-        when(jdbcTemplate.query(anyString(), any(org.springframework.jdbc.core.RowMapper.class)))
-                .thenReturn(List.of());
-        when(jdbcTemplate.update(contains("DELETE FROM batch")))
-                .thenReturn(0);
-
-        repository.deleteExpired();
+    @DisplayName("saveAll should throw InvalidProductException on data integrity violation")
+    void saveAll_invalidBatch_shouldThrowException() {
+        when(jdbcTemplate.query(contains("WITH delivery AS"), any(RowMapper.class), any(Object[].class)))
+                .thenThrow(new DataIntegrityViolationException("bad batch"));
+
+        assertThrows(InvalidProductException.class,
+                () -> repository.saveAll(List.of(batchRequestDto)));
+        verify(priceCache, never()).invalidate(anyString());
+    }
 
-        verify(jdbcTemplate, never()).update(contains("UPDATE store_product"), anyInt(), anyString());
-        verify(jdbcTemplate, times(1)).update(contains("DELETE FROM batch"));
+    @Test
+    @DisplayName("deleteExpired should purge in one aggregated statement and invalidate touched UPCs")
+    void deleteExpired_shouldDeleteExpiredBatches() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString("UPC")).thenReturn("123456789012", "987654321098");
+        when(rs.getInt("batches")).thenReturn(2, 1);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1, RowCallbackHandler.class);
+            handler.processRow(rs);
+            handler.processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(contains("FOR UPDATE SKIP LOCKED"),
+                any(RowCallbackHandler.class), eq(500));
+
+        ExpiredBatchPurge purge = repository.deleteExpired();
+
+        assertEquals(3, purge.batchesDeleted());
+        assertEquals(2, purge.storeProductsUpdated());
+        verify(expiryIndex).removeExpiredBefore(LocalDate.now());
+        verify(jdbcTemplate, times(1)).query(contains("SUM(quantity)"),
+                any(RowCallbackHandler.class), eq(500));
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+        verify(priceCache).invalidate("123456789012");
+        verify(priceCache).invalidate("987654321098");
     }
 
     @Test
-    @DisplayName("save should apply promotional discount correctly")
-    void save_promotionalBatch_shouldApplyDiscount() {
-        LocalDate expiringDate = LocalDate.now().plusDays(3);
-        batchRequestDto.setExpiring_date(Date.from(expiringDate.atStartOfDay(ZoneId.systemDefault()).toInstant()));
-        batchRequestDto.setQuantity(15);
-        batchRequestDto.setPrice(new BigDecimal("10.00"));
+    @DisplayName("deleteExpired should keep purging while chunks come back full")
+    void deleteExpired_fullChunk_shouldPurgeNextChunk() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString("UPC")).thenReturn("123456789012");
+        when(rs.getInt("batches")).thenReturn(500, 7);
+        doAnswer(invocation -> {
+            invocation.getArgument(1, RowCallbackHandler.class).processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(contains("FOR UPDATE SKIP LOCKED"),
+                any(RowCallbackHandler.class), eq(500));
+
+        ExpiredBatchPurge purge = repository.deleteExpired();
+
+        assertEquals(507, purge.batchesDeleted());
+        assertEquals(1, purge.storeProductsUpdated());
+        verify(jdbcTemplate, times(2)).query(contains("FOR UPDATE SKIP LOCKED"),
+                any(RowCallbackHandler.class), eq(500));
+    }
 
-        when(storeProductRepository.findAllInfoByUPC(eq("123456789012")))
-                .thenReturn(Optional.of(storeProduct))
-                .thenReturn(Optional.of(storeProduct));
-        when(jdbcTemplate.update(anyString(), anyString(), any(), any(), anyInt(), any()))
-                .thenReturn(1);
+    @Test
+    @DisplayName("deleteExpired should handle empty expired batches")
+    void deleteExpired_noExpiredBatches_shouldNotUpdateQuantities() {
+        ExpiredBatchPurge purge = repository.deleteExpired();
 
-        repository.save(batchRequestDto);
+        assertEquals(0, purge.batchesDeleted());
+        verify(jdbcTemplate, times(1)).query(contains("FOR UPDATE SKIP LOCKED"),
+                any(RowCallbackHandler.class), eq(500));
+        verify(priceCache, never()).invalidate(anyString());
+    }
 
-        // Price with VAT = 10.00 * 1.20 = 12.00
-        // Promotional price = 12.00 * 0.8 = 9.60
-        verify(storeProductRepository, times(1)).updateProductPriceAndPromotion(
-                eq("123456789012"),
-                eq(new BigDecimal("9.60")),
-                eq(true)
-        );
+    @Test
+    @DisplayName("recomputePromotions should flip promotion in one pass and report changed rows")
+    void recomputePromotions_shouldReportPromotedAndDemoted() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString("UPC")).thenReturn("123456789012", "987654321098");
+        when(rs.getBoolean("promotional_product")).thenReturn(true, false);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1, RowCallbackHandler.class);
+            handler.processRow(rs);
+            handler.processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(contains("WITH expiring AS"), any(RowCallbackHandler.class),
+                eq(5), eq(new BigDecimal("0.8")), eq(new BigDecimal("0.8")), eq(10),
+                eq(new BigDecimal("0.8")));
+
+        PromotionRecompute result = repository.recomputePromotions();
+
+        assertEquals(1, result.promoted());
+        assertEquals(1, result.demoted());
+        verify(counters).recordPromotionChange(false, true);
+        verify(counters).recordPromotionChange(true, false);
+        verify(priceCache).invalidate("123456789012");
+        verify(priceCache).invalidate("987654321098");
     }
 }
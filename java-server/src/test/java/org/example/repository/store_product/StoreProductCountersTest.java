@@ -0,0 +1,137 @@
+package org.example.repository.store_product;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Store Product Counters Tests")
+class StoreProductCountersTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private StoreProductCounters counters;
+
+    private Runnable duringCount = () -> { };
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            duringCount.run();
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getLong("active")).thenReturn(10L);
+            when(rs.getLong("promotional")).thenReturn(4L);
+            invocation.getArgument(1, RowCallbackHandler.class).processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    @DisplayName("first read should reconcile with the database only once")
+    void read_shouldLoadLazilyOnce() {
+        assertEquals(10, counters.active());
+        assertEquals(4, counters.promotional());
+        assertEquals(6, counters.nonPromotional());
+
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    @DisplayName("recorded writes should adjust live totals")
+    void recordedWrites_shouldAdjustTotals() {
+        counters.reconcile();
+
+        counters.recordInsert(true);
+        counters.recordInsert(false);
+        counters.recordDelete(false);
+        counters.recordPromotionChange(true, false);
+        counters.recordPromotionChange(false, false);
+
+        assertEquals(11, counters.active());
+        assertEquals(4, counters.promotional());
+        assertEquals(7, counters.nonPromotional());
+    }
+
+    @Test
+    @DisplayName("reconcile should overwrite drifted totals")
+    void reconcile_shouldResetDrift() {
+        counters.reconcile();
+        counters.recordInsert(true);
+
+        counters.reconcile();
+
+        assertEquals(10, counters.active());
+        assertEquals(4, counters.promotional());
+    }
+
+    @Test
+    @DisplayName("writes inside a transaction should only count once it commits")
+    void recordedWrites_inTransaction_shouldApplyAfterCommit() {
+        counters.reconcile();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            counters.recordInsert(true);
+            counters.recordInsert(false);
+            assertEquals(10, counters.active());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(12, counters.active());
+        assertEquals(5, counters.promotional());
+    }
+
+    @Test
+    @DisplayName("writes inside a transaction that rolls back should not count")
+    void recordedWrites_rolledBack_shouldBeDropped() {
+        counters.reconcile();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            counters.recordInsert(true);
+        } finally {
+            TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(10, counters.active());
+        assertEquals(4, counters.promotional());
+        assertNull(TransactionSynchronizationManager.getResource(counters));
+    }
+
+    @Test
+    @DisplayName("reconcile should keep writes that committed while it was counting")
+    void reconcile_concurrentWrite_shouldBeKept() {
+        duringCount = () -> counters.recordInsert(true);
+
+        counters.reconcile();
+
+        assertEquals(11, counters.active());
+        assertEquals(5, counters.promotional());
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.repository.store_product;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.util.Optional;
+import org.example.dto.store_product.product.StoreProductPriceAndQuantityDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@DisplayName("Store Product Price Cache Tests")
+class StoreProductPriceCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private StoreProductPriceCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new StoreProductPriceCache(100, 60_000, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("misses should not be cached")
+    void get_missingProduct_shouldNotCacheAbsence() {
+        int[] loads = {0};
+
+        cache.get("123456789012", upc -> {
+            loads[0]++;
+            return Optional.empty();
+        });
+        cache.get("123456789012", upc -> {
+            loads[0]++;
+            return Optional.empty();
+        });
+
+        assertEquals(2, loads[0]);
+    }
+
+    @Test
+    @DisplayName("hits and misses should be published as cache metrics")
+    void get_shouldRecordHitAndMissMetrics() {
+        StoreProductPriceAndQuantityDto dto = new StoreProductPriceAndQuantityDto();
+        dto.setSelling_price(new BigDecimal("12.00"));
+
+        cache.get("123456789012", upc -> Optional.of(dto));
+        assertTrue(cache.get("123456789012", upc -> Optional.empty()).isPresent());
+
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", "store-product-price").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", "store-product-price").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("invalidate should force the next read to reload")
+    void invalidate_shouldForceReload() {
+        StoreProductPriceAndQuantityDto stale = new StoreProductPriceAndQuantityDto();
+        stale.setProducts_number(5);
+        StoreProductPriceAndQuantityDto fresh = new StoreProductPriceAndQuantityDto();
+        fresh.setProducts_number(25);
+
+        cache.get("123456789012", upc -> Optional.of(stale));
+        cache.invalidate("123456789012");
+
+        assertEquals(25, cache.get("123456789012", upc -> Optional.of(fresh))
+                .orElseThrow().getProducts_number());
+    }
+
+    @Test
+    @DisplayName("invalidate inside a transaction should evict again once it completes")
+    void invalidate_inTransaction_shouldEvictAfterCompletion() {
+        StoreProductPriceAndQuantityDto stale = new StoreProductPriceAndQuantityDto();
+        stale.setProducts_number(5);
+        StoreProductPriceAndQuantityDto fresh = new StoreProductPriceAndQuantityDto();
+        fresh.setProducts_number(25);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidate("123456789012");
+            cache.get("123456789012", upc -> Optional.of(stale));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(25, cache.get("123456789012", upc -> Optional.of(fresh))
+                .orElseThrow().getProducts_number());
+    }
+}
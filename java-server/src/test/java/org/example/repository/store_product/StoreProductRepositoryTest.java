@@ -1,8 +1,10 @@
 package org.example.repository.store_product;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -10,17 +12,29 @@ import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import org.example.dto.page.PageCursor;
 import org.example.dto.page.PageResponseDto;
 import org.example.dto.store_product.product.*;
 import org.example.exception.custom_exception.EntityNotFoundException;
+import org.example.exception.custom_exception.InvalidParameterException;
 import org.example.exception.custom_exception.InvalidProductException;
 import org.example.mapper.store_product.StoreProductMapper;
 import org.example.mapper.store_product.StoreProductRowMapper;
@@ -29,14 +43,21 @@ import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 
 @ExtendWith(MockitoExtension.class)
@@ -47,6 +68,9 @@ class StoreProductRepositoryTest {
     @Mock private JdbcTemplate jdbcTemplate;
     @Mock private StoreProductRowMapper rowMapper;
     @Mock private StoreProductMapper mapper;
+    @Mock private StoreProductCounters counters;
+    @Spy private StoreProductPriceCache priceCache =
+            new StoreProductPriceCache(100, 60_000, new SimpleMeterRegistry());
 
     @InjectMocks
     private StoreProductRepository repository;
@@ -109,7 +133,7 @@ class StoreProductRepositoryTest {
         StoreProductWithNameDto dto = createStoreProductWithNameDto(false);
         when(jdbcTemplate.query(anyString(), any(RowMapper.class), anyLong(), anyInt()))
                 .thenReturn(List.of(dto));
-        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(1);
+        when(counters.active()).thenReturn(1L);
 
         PageResponseDto<StoreProductWithNameDto> result = repository.findAll(pageable);
 
@@ -124,7 +148,7 @@ class StoreProductRepositoryTest {
         StoreProductWithNameDto dto = createStoreProductWithNameDto(false);
         when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(10L), eq(10)))
                 .thenReturn(List.of(dto));
-        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(11);
+        when(counters.active()).thenReturn(11L);
 
         PageResponseDto<StoreProductWithNameDto> result = repository.findAll(PageRequest.of(1, 10));
 
@@ -132,6 +156,56 @@ class StoreProductRepositoryTest {
         assertFalse(result.isHasNext());
     }
 
+    @Test
+    @DisplayName("findPage without cursor should fetch one extra row and return continuation cursor")
+    void findPage_firstPage_shouldReturnNextCursor() {
+        StoreProductWithNameDto first = createStoreProductWithNameDto(false);
+        StoreProductWithNameDto second = createStoreProductWithNameDto(false);
+        second.setUPC("123456789013");
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(2)))
+                .thenReturn(List.of(first, second));
+        when(counters.active()).thenReturn(5L);
+
+        PageResponseDto<StoreProductWithNameDto> result =
+                repository.findPage(StoreProductSortKey.NAME, null, null, 1);
+
+        assertEquals(1, result.getContent().size());
+        assertTrue(result.isHasNext());
+        assertEquals(5, result.getTotalElements());
+        assertEquals(List.of("NAME", "Test Product", "123456789012"),
+                PageCursor.decode(result.getNextCursor(), 3));
+    }
+
+    @Test
+    @DisplayName("findPage with cursor should seek past (sort key, UPC)")
+    void findPage_withCursor_shouldSeekPastPosition() {
+        String cursor = PageCursor.encode("QUANTITY", "50", "123456789012");
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class),
+                eq(true), eq(50), eq(50), eq("123456789012"), eq(11)))
+                .thenReturn(List.of(createStoreProductWithNameDto(true)));
+        when(counters.promotional()).thenReturn(1L);
+
+        PageResponseDto<StoreProductWithNameDto> result =
+                repository.findPage(StoreProductSortKey.QUANTITY, true, cursor, 10);
+
+        assertEquals(1, result.getContent().size());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+        verify(jdbcTemplate).query(
+                contains("(sp.products_number, sp.UPC) > (?, ?)"),
+                any(RowMapper.class),
+                eq(true), eq(50), eq(50), eq("123456789012"), eq(11));
+    }
+
+    @Test
+    @DisplayName("findPage should reject cursor issued for another sort order")
+    void findPage_foreignCursor_shouldThrowException() {
+        String cursor = PageCursor.encode("NAME", "Milk", "123456789012");
+
+        assertThrows(InvalidParameterException.class,
+                () -> repository.findPage(StoreProductSortKey.UPC, null, cursor, 10));
+    }
+
     @Test
     @DisplayName("findAllNoPagination should return list of store products")
     void findAllNoPagination_shouldReturnStoreProducts() {
@@ -150,7 +224,7 @@ class StoreProductRepositoryTest {
         StoreProductWithNameDto dto = createStoreProductWithNameDto(false);
         when(jdbcTemplate.query(anyString(), any(RowMapper.class), anyLong(), anyInt()))
                 .thenReturn(List.of(dto));
-        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(1);
+        when(counters.active()).thenReturn(1L);
 
         PageResponseDto<StoreProductWithNameDto> result = repository.findAllSortedByName(pageable);
 
@@ -165,7 +239,7 @@ class StoreProductRepositoryTest {
         StoreProductWithNameDto dto = createStoreProductWithNameDto(false);
         when(jdbcTemplate.query(anyString(), any(RowMapper.class), anyLong(), anyInt()))
                 .thenReturn(List.of(dto));
-        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(1);
+        when(counters.active()).thenReturn(1L);
 
         PageResponseDto<StoreProductWithNameDto> result = repository.findAllSortedByQuantity(pageable);
 
@@ -179,7 +253,7 @@ class StoreProductRepositoryTest {
         StoreProductWithNameDto dto = createStoreProductWithNameDto(true);
         when(jdbcTemplate.query(anyString(), any(RowMapper.class), anyLong(), anyInt()))
                 .thenReturn(List.of(dto));
-        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(1);
+        when(counters.promotional()).thenReturn(1L);
 
         PageResponseDto<StoreProductWithNameDto> result =
                 repository.findPromotionalSortedByQuantity(pageable);
@@ -194,7 +268,7 @@ class StoreProductRepositoryTest {
         StoreProductWithNameDto dto = createStoreProductWithNameDto(false);
         when(jdbcTemplate.query(anyString(), any(RowMapper.class), anyLong(), anyInt()))
                 .thenReturn(List.of(dto));
-        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(1);
+        when(counters.nonPromotional()).thenReturn(1L);
 
         PageResponseDto<StoreProductWithNameDto> result =
                 repository.findNonPromotionalSortedByQuantity(pageable);
@@ -209,7 +283,7 @@ class StoreProductRepositoryTest {
         StoreProductWithNameDto dto = createStoreProductWithNameDto(true);
         when(jdbcTemplate.query(anyString(), any(RowMapper.class), anyLong(), anyInt()))
                 .thenReturn(List.of(dto));
-        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(1);
+        when(counters.promotional()).thenReturn(1L);
 
         PageResponseDto<StoreProductWithNameDto> result =
                 repository.findPromotionalSortedByName(pageable);
@@ -225,7 +299,7 @@ class StoreProductRepositoryTest {
         StoreProductWithNameDto dto = createStoreProductWithNameDto(false);
         when(jdbcTemplate.query(anyString(), any(RowMapper.class), anyLong(), anyInt()))
                 .thenReturn(List.of(dto));
-        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(1);
+        when(counters.nonPromotional()).thenReturn(1L);
 
         PageResponseDto<StoreProductWithNameDto> result =
                 repository.findNonPromotionalSortedByName(pageable);
@@ -308,6 +382,149 @@ class StoreProductRepositoryTest {
         assertTrue(repository.findPriceAndQuantityByUPC("999999999999").isEmpty());
     }
 
+    @Test
+    @DisplayName("streamAllWithName should read keyset chunks with a fetch size until one comes back short")
+    void streamAllWithName_shouldStreamRowsInChunks() throws Exception {
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(connection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(statement);
+        when(rs.getString("UPC")).thenReturn("123456789012");
+        when(rs.getString("product_name")).thenReturn("Test Product");
+        when(rs.getBoolean("promotional_product")).thenReturn(true);
+        int[] chunks = {0};
+        doAnswer(invocation -> {
+            invocation.getArgument(0, PreparedStatementCreator.class)
+                    .createPreparedStatement(connection);
+            int rows = chunks[0]++ == 0 ? 500 : 1;
+            for (int i = 0; i < rows; i++) {
+                invocation.getArgument(1, RowCallbackHandler.class).processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class),
+                any(RowCallbackHandler.class));
+        List<StoreProductWithNameDto> streamed = new ArrayList<>();
+
+        repository.streamAllWithName(streamed::add);
+
+        assertEquals(2, chunks[0]);
+        verify(statement, times(2)).setFetchSize(500);
+        verify(statement).setInt(1, 500);
+        verify(statement).setBoolean(1, true);
+        verify(statement).setString(2, "123456789012");
+        verify(statement).setInt(3, 500);
+        assertEquals(501, streamed.size());
+        assertEquals("Test Product", streamed.get(0).getProduct_name());
+    }
+
+    @Test
+    @DisplayName("importAll should COPY priced rows into staging and merge them in one statement")
+    void importAll_shouldCopyAndMerge() throws Exception {
+        Connection connection = mock(Connection.class);
+        PGConnection pgConnection = mock(PGConnection.class);
+        CopyManager copyManager = mock(CopyManager.class);
+        CopyIn copyIn = mock(CopyIn.class);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+        when(copyManager.copyIn(contains("COPY store_product_import"))).thenReturn(copyIn);
+        when(copyIn.endCopy()).thenReturn(2L);
+        StringBuilder copiedCsv = new StringBuilder();
+        doAnswer(invocation -> {
+            copiedCsv.append(new String(invocation.getArgument(0, byte[].class), 0,
+                    invocation.getArgument(2, Integer.class), StandardCharsets.UTF_8));
+            return null;
+        }).when(copyIn).writeToCopy(any(byte[].class), anyInt(), anyInt());
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenAnswer(invocation ->
+                invocation.getArgument(0, ConnectionCallback.class).doInConnection(connection));
+        ResultSet merged = mock(ResultSet.class);
+        when(merged.getString("reason")).thenReturn(null, "Store product already exists");
+        when(merged.getInt("line_no")).thenReturn(2);
+        when(merged.getString("UPC")).thenReturn("123456789013");
+        when(merged.getBoolean("promotional_product")).thenReturn(true);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1, RowCallbackHandler.class);
+            handler.processRow(merged);
+            handler.processRow(merged);
+            return null;
+        }).when(jdbcTemplate).query(contains("INSERT INTO store_product"),
+                any(RowCallbackHandler.class));
+        StoreProductRequestDto promotional = createRequestDto(true);
+        StoreProductRequestDto duplicate = createRequestDto(false);
+        duplicate.setUPC("123456789013");
+        duplicate.setUPC_prom("123456789012");
+
+        StoreProductImportResultDto result = repository.importAll(List.of(
+                new StoreProductImportRow(1, promotional),
+                new StoreProductImportRow(2, duplicate)).iterator());
+
+        verify(jdbcTemplate).execute(contains("CREATE TEMP TABLE store_product_import"));
+        assertEquals("""
+                1,"123456789012",,1,9.60,50,true
+                2,"123456789013","123456789012",1,12.00,50,false
+                """, copiedCsv.toString());
+        assertEquals(2, result.getReceived());
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getRejected().size());
+        assertEquals(2, result.getRejected().get(0).getLine());
+        verify(counters).recordInsert(true);
+    }
+
+    @Test
+    @DisplayName("findLookupItemsByUPCs should bind all UPCs as one array parameter")
+    void findLookupItemsByUPCs_shouldQueryOnce() {
+        StoreProductLookupItemDto item = new StoreProductLookupItemDto();
+        item.setUPC("123456789012");
+        List<Object[]> boundParams = new ArrayList<>();
+        when(jdbcTemplate.query(contains("= ANY(?)"), any(RowMapper.class), any(Object[].class)))
+                .thenAnswer(invocation -> {
+                    boundParams.add(Arrays.copyOfRange(invocation.getArguments(), 2,
+                            invocation.getArguments().length));
+                    return List.of(item);
+                });
+
+        List<StoreProductLookupItemDto> result =
+                repository.findLookupItemsByUPCs(List.of("123456789012", "999999999999"));
+
+        assertEquals(1, result.size());
+        assertEquals(1, boundParams.size());
+        assertArrayEquals(new Object[]{new String[]{"123456789012", "999999999999"}},
+                boundParams.get(0));
+    }
+
+    @Test
+    @DisplayName("findPriceAndQuantityByUPC should serve repeated scans from cache")
+    void findPriceAndQuantityByUPC_repeatedScan_shouldHitCache() {
+        StoreProductPriceAndQuantityDto dto = new StoreProductPriceAndQuantityDto();
+        dto.setSelling_price(new BigDecimal("12.00"));
+        dto.setProducts_number(50);
+        when(jdbcTemplate.queryForObject(anyString(), any(RowMapper.class),
+                eq("123456789012")))
+                .thenReturn(dto);
+
+        repository.findPriceAndQuantityByUPC("123456789012");
+        repository.findPriceAndQuantityByUPC("123456789012");
+
+        verify(jdbcTemplate, times(1)).queryForObject(anyString(), any(RowMapper.class),
+                eq("123456789012"));
+    }
+
+    @Test
+    @DisplayName("updateProductPriceAndPromotion should evict cached price")
+    void updateProductPriceAndPromotion_shouldInvalidateCachedPrice() {
+        StoreProductPriceAndQuantityDto dto = new StoreProductPriceAndQuantityDto();
+        dto.setSelling_price(new BigDecimal("12.00"));
+        when(jdbcTemplate.queryForObject(anyString(), any(RowMapper.class),
+                eq("123456789012")))
+                .thenReturn(dto);
+        repository.findPriceAndQuantityByUPC("123456789012");
+
+        repository.updateProductPriceAndPromotion("123456789012", new BigDecimal("9.60"), true);
+        repository.findPriceAndQuantityByUPC("123456789012");
+
+        verify(jdbcTemplate, times(2)).queryForObject(anyString(), any(RowMapper.class),
+                eq("123456789012"));
+    }
+
     @Test
     @DisplayName("save should insert new store product with VAT calculated")
     void save_newStoreProduct_shouldReturnSavedProduct() {
@@ -319,6 +536,7 @@ class StoreProductRepositoryTest {
 
         assertNotNull(result);
         assertEquals("123456789012", result.getUPC());
+        verify(counters).recordInsert(false);
     }
 
     @Test
@@ -330,6 +548,7 @@ class StoreProductRepositoryTest {
                 .thenReturn(storeProduct);
 
         assertNotNull(repository.save(requestDto));
+        verify(counters).recordInsert(true);
     }
 
     @Test
@@ -347,9 +566,9 @@ class StoreProductRepositoryTest {
     void updateByUPC_existingProduct_shouldReturnDto() {
         when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq("123456789012")))
                 .thenReturn(1);
-        when(jdbcTemplate.update(anyString(), any(), anyInt(), any(), anyInt(),
-                anyBoolean(), eq("123456789012")))
-                .thenReturn(1);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(), anyInt(), any(),
+                anyInt(), anyBoolean(), eq("123456789012")))
+                .thenReturn(List.of(true));
         when(jdbcTemplate.queryForObject(anyString(), eq(rowMapper), eq("123456789012")))
                 .thenReturn(storeProduct);
         when(mapper.toDto(storeProduct)).thenReturn(storeProductDto);
@@ -358,6 +577,7 @@ class StoreProductRepositoryTest {
 
         assertNotNull(result);
         assertEquals("123456789012", result.getUPC());
+        verify(counters).recordPromotionChange(true, false);
     }
 
     @Test
@@ -375,8 +595,8 @@ class StoreProductRepositoryTest {
     void updateByUPC_invalidProduct_shouldThrowException() {
         when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq("123456789012")))
                 .thenReturn(1);
-        when(jdbcTemplate.update(anyString(), any(), anyInt(), any(), anyInt(),
-                anyBoolean(), eq("123456789012")))
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(), anyInt(), any(),
+                anyInt(), anyBoolean(), eq("123456789012")))
                 .thenThrow(DataIntegrityViolationException.class);
 
         assertThrows(InvalidProductException.class,
@@ -388,9 +608,9 @@ class StoreProductRepositoryTest {
     void updateByUPC_updateFailed_shouldThrowException() {
         when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq("123456789012")))
                 .thenReturn(1);
-        when(jdbcTemplate.update(anyString(), any(), anyInt(), any(), anyInt(),
-                anyBoolean(), eq("123456789012")))
-                .thenReturn(0);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(), anyInt(), any(),
+                anyInt(), anyBoolean(), eq("123456789012")))
+                .thenReturn(List.of());
 
         assertThrows(EntityNotFoundException.class,
                 () -> repository.updateByUPC("123456789012", requestDto));
@@ -401,9 +621,9 @@ class StoreProductRepositoryTest {
     void updateByUPC_notFoundAfterUpdate_shouldThrowException() {
         when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq("123456789012")))
                 .thenReturn(1);
-        when(jdbcTemplate.update(anyString(), any(), anyInt(), any(), anyInt(),
-                anyBoolean(), eq("123456789012")))
-                .thenReturn(1);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(), anyInt(), any(),
+                anyInt(), anyBoolean(), eq("123456789012")))
+                .thenReturn(List.of(true));
         when(jdbcTemplate.queryForObject(anyString(), eq(rowMapper), eq("123456789012")))
                 .thenThrow(EmptyResultDataAccessException.class);
 
@@ -414,11 +634,14 @@ class StoreProductRepositoryTest {
     @Test
     @DisplayName("softDeleteByUPC should mark product as deleted")
     void softDeleteByUPC_shouldMarkAsDeleted() {
-        when(jdbcTemplate.update(anyString(), eq("123456789012"))).thenReturn(1);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq("123456789012")))
+                .thenReturn(List.of(true));
 
         repository.softDeleteByUPC("123456789012");
 
-        verify(jdbcTemplate, times(1)).update(anyString(), eq("123456789012"));
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowMapper.class),
+                eq("123456789012"));
+        verify(counters).recordDelete(true);
     }
 
     @Test
@@ -449,12 +672,14 @@ class StoreProductRepositoryTest {
     @DisplayName("updateProductPriceAndPromotion should update price and promotional status")
     void updateProductPriceAndPromotion_shouldUpdate() {
         BigDecimal newPrice = new BigDecimal("15.00");
-        when(jdbcTemplate.update(anyString(), eq(newPrice), eq(true), eq("123456789012")))
-                .thenReturn(1);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(newPrice), eq(true),
+                eq("123456789012")))
+                .thenReturn(List.of(false));
 
         repository.updateProductPriceAndPromotion("123456789012", newPrice, true);
 
-        verify(jdbcTemplate, times(1)).update(anyString(), eq(newPrice), eq(true),
-                eq("123456789012"));
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowMapper.class), eq(newPrice),
+                eq(true), eq("123456789012"));
+        verify(counters).recordPromotionChange(false, true);
     }
 }
@@ -0,0 +1,76 @@
+package org.example.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@DisplayName("Jwt Util Tests")
+class JwtUtilTest {
+
+    private static final String SECRET =
+            "test-secret-key-for-testing-purposes-only-minimum-length-of-sixty-four-bytes-x";
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        UserDetailsService userDetailsService = mock(UserDetailsService.class);
+        when(userDetailsService.loadUserByUsername("EMP001")).thenReturn(User.builder()
+                .username("EMP001")
+                .password("")
+                .authorities(new SimpleGrantedAuthority("MANAGER"))
+                .build());
+        meterRegistry = new SimpleMeterRegistry();
+        jwtUtil = new JwtUtil(SECRET, 100, userDetailsService, meterRegistry);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 60_000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 120_000L);
+        ReflectionTestUtils.setField(jwtUtil, "issuer", "test-issuer");
+        ReflectionTestUtils.setField(jwtUtil, "audience", "test-audience");
+        jwtUtil.buildParser();
+    }
+
+    @Test
+    @DisplayName("verify should return the subject and roles and reuse them for the same token")
+    void verify_repeatedToken_shouldHitCache() {
+        String token = jwtUtil.generateAccessToken("EMP001");
+
+        JwtUtil.VerifiedToken first = jwtUtil.verify(token).orElseThrow();
+        JwtUtil.VerifiedToken second = jwtUtil.verify(token).orElseThrow();
+
+        assertSame(first, second);
+        assertEquals("EMP001", first.username());
+        assertEquals(List.of("MANAGER"), first.roles());
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", "jwt").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("verify should reject tampered and expired tokens")
+    void verify_invalidTokens_shouldBeEmpty() {
+        String token = jwtUtil.generateAccessToken("EMP001");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", -1_000L);
+        String expired = jwtUtil.generateAccessToken("EMP001");
+
+        assertTrue(jwtUtil.verify(token + "x").isEmpty());
+        assertTrue(jwtUtil.verify(expired).isEmpty());
+        assertFalse(jwtUtil.isValidToken("not-a-token"));
+        assertThrows(JwtException.class, () -> jwtUtil.getUsername(expired));
+    }
+}
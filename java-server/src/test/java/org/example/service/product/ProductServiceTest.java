@@ -10,11 +10,17 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.example.dto.page.PageResponseDto;
+import org.example.dto.product.ProductBulkItemDto;
+import org.example.dto.product.ProductBulkResultDto;
 import org.example.dto.product.ProductDto;
 import org.example.dto.product.ProductRequestDto;
+import org.example.dto.product.ProductSuggestionDto;
+import org.example.exception.custom_exception.InvalidParameterException;
 import org.example.mapper.product.ProductMapper;
 import org.example.model.product.Product;
 import org.example.repository.product.ProductRepository;
@@ -239,4 +245,65 @@ class ProductServiceTest {
         verify(repository).findByCategoryIdSortedByName(10, pageable);
         verify(repository, never()).findByCategoryId(anyInt(), any());
     }
+
+    @Test
+    @DisplayName("suggest should trim the query and delegate to repository")
+    void suggest_validQuery_shouldDelegate() {
+        List<ProductSuggestionDto> suggestions = List.of(new ProductSuggestionDto(1, "Milk"));
+        when(repository.suggest("Mil", 10, false)).thenReturn(suggestions);
+
+        assertEquals(suggestions, service.suggest("  Mil ", 10, false));
+    }
+
+    @Test
+    @DisplayName("suggest should reject blank query and out of range limit")
+    void suggest_invalidParameters_shouldThrowException() {
+        assertThrows(InvalidParameterException.class, () -> service.suggest(" ", 10, false));
+        assertThrows(InvalidParameterException.class, () -> service.suggest("Mil", 0, false));
+        assertThrows(InvalidParameterException.class, () -> service.suggest("Mil", 51, false));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("rebuildSalesSummary should delegate to repository")
+    void rebuildSalesSummary_shouldDelegate() {
+        service.rebuildSalesSummary();
+
+        verify(repository).rebuildSalesSummary();
+    }
+
+    @Test
+    @DisplayName("saveAll should return ids in input order and reject unknown categories")
+    void saveAll_mixedItems_shouldReturnIdsInInputOrder() {
+        ProductBulkItemDto first = bulkItem(null, 10, "Milk");
+        ProductBulkItemDto unknownCategory = bulkItem(null, 99, "Bread");
+        ProductBulkItemDto existing = bulkItem(7, 10, "Kefir");
+        ProductBulkItemDto missing = bulkItem(8, 10, "Cheese");
+        ProductBulkItemDto second = bulkItem(null, 10, "Butter");
+        when(repository.findExistingCategoryNumbers(Set.of(10, 99))).thenReturn(Set.of(10));
+        when(repository.insertAll(List.of(first, second))).thenReturn(List.of(101, 102));
+        when(repository.updateAll(List.of(existing, missing))).thenReturn(new int[] {1, 0});
+
+        ProductBulkResultDto result = service.saveAll(
+                List.of(first, unknownCategory, existing, missing, second));
+
+        assertEquals(2, result.getInserted());
+        assertEquals(1, result.getUpdated());
+        assertEquals(Arrays.asList(101, null, 7, null, 102), result.getIds());
+        assertEquals(2, result.getRejected().size());
+        assertEquals(2, result.getRejected().get(0).getLine());
+        assertEquals("Invalid category: 99", result.getRejected().get(0).getReason());
+        assertEquals(4, result.getRejected().get(1).getLine());
+        assertEquals("Product not found: 8", result.getRejected().get(1).getReason());
+    }
+
+    private static ProductBulkItemDto bulkItem(Integer id, int categoryNumber, String name) {
+        ProductBulkItemDto item = new ProductBulkItemDto();
+        item.setId_product(id);
+        item.setCategory_number(categoryNumber);
+        item.setProduct_name(name);
+        item.setProducer("Producer");
+        item.setProduct_characteristics("Chars");
+        return item;
+    }
 }
@@ -0,0 +1,77 @@
+package org.example.service.ranking;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.time.LocalDate;
+import org.example.exception.custom_exception.InvalidParameterException;
+import org.example.repository.ranking.SalesRankingRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Ranking Service Tests")
+class RankingServiceTest {
+
+    @Mock
+    private SalesRankingRepository rankingRepository;
+
+    @InjectMocks
+    private RankingServiceImpl service;
+
+    @Test
+    @DisplayName("default window should be the last 7 days including today")
+    void getTopProducts_noWindow_shouldUseLastSevenDays() {
+        LocalDate today = LocalDate.now();
+
+        service.getTopProducts(null, null, null, 10);
+
+        verify(rankingRepository).findTopProducts(today.minusDays(6), today, 10);
+    }
+
+    @Test
+    @DisplayName("days should select a window ending today")
+    void getTopCategories_days_shouldEndToday() {
+        LocalDate today = LocalDate.now();
+
+        service.getTopCategories(90, null, null, 5);
+
+        verify(rankingRepository).findTopCategories(today.minusDays(89), today, 5);
+    }
+
+    @Test
+    @DisplayName("custom range should be passed through as is")
+    void getTopCategories_customRange_shouldBeUsed() {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 3, 30);
+
+        service.getTopCategories(null, from, to, 10);
+
+        verify(rankingRepository).findTopCategories(from, to, 10);
+    }
+
+    @Test
+    @DisplayName("invalid windows and limits should be rejected")
+    void getTopProducts_invalidParameters_shouldThrowException() {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+
+        assertThrows(InvalidParameterException.class,
+                () -> service.getTopProducts(14, null, null, 10));
+        assertThrows(InvalidParameterException.class,
+                () -> service.getTopProducts(7, from, from, 10));
+        assertThrows(InvalidParameterException.class,
+                () -> service.getTopProducts(null, from, null, 10));
+        assertThrows(InvalidParameterException.class,
+                () -> service.getTopProducts(null, from, from.minusDays(1), 10));
+        assertThrows(InvalidParameterException.class,
+                () -> service.getTopProducts(null, from, from.plusDays(90), 10));
+        assertThrows(InvalidParameterException.class,
+                () -> service.getTopProducts(null, null, null, 0));
+        verifyNoInteractions(rankingRepository);
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.service.revenue;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.time.LocalDate;
+import org.example.exception.custom_exception.InvalidParameterException;
+import org.example.repository.revenue.RevenueRollupRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Revenue Service Tests")
+class RevenueServiceTest {
+
+    @Mock
+    private RevenueRollupRepository revenueRepository;
+
+    @InjectMocks
+    private RevenueServiceImpl service;
+
+    @Test
+    @DisplayName("default range should be the last 30 days including today")
+    void getDaily_noRange_shouldUseLastThirtyDays() {
+        LocalDate today = LocalDate.now();
+
+        service.getDaily(null, null, "EMP1");
+
+        verify(revenueRepository).findDaily(today.minusDays(29), today, "EMP1");
+    }
+
+    @Test
+    @DisplayName("a whole leap year should be accepted")
+    void getByEmployee_leapYear_shouldBeUsed() {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 12, 31);
+
+        service.getByEmployee(from, to);
+
+        verify(revenueRepository).findByEmployee(from, to);
+    }
+
+    @Test
+    @DisplayName("reversed and overlong ranges should be rejected")
+    void getDaily_invalidRange_shouldThrowException() {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+
+        assertThrows(InvalidParameterException.class,
+                () -> service.getDaily(from, from.minusDays(1), null));
+        assertThrows(InvalidParameterException.class,
+                () -> service.getDaily(from, from.plusDays(366), null));
+        verifyNoInteractions(revenueRepository);
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.service.store_product;
+
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Batch Expiry Job Tests")
+class BatchExpiryJobTest {
+
+    @Mock
+    private BatchService batchService;
+
+    @InjectMocks
+    private BatchExpiryJob job;
+
+    @Test
+    @DisplayName("purgeExpired should run the same purge as the manual endpoint")
+    void purgeExpired_shouldDelegateToService() {
+        job.purgeExpired();
+
+        verify(batchService).removeExpired();
+    }
+}
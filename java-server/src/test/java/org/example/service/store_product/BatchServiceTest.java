@@ -3,27 +3,37 @@ package org.example.service.store_product;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.Date;
+import java.util.List;
+import org.example.dto.store_product.batch.BatchBulkResultDto;
 import org.example.dto.store_product.batch.BatchRequestDto;
+import org.example.dto.store_product.batch.ExpiringStoreProductDto;
 import org.example.dto.store_product.product.StoreProductDto;
+import org.example.exception.custom_exception.InvalidParameterException;
 import org.example.mapper.store_product.StoreProductMapper;
 import org.example.model.store_product.StoreProduct;
+import org.example.repository.store_product.BatchExpiryIndex;
 import org.example.repository.store_product.BatchRepository;
+import org.example.repository.store_product.ExpiredBatchPurge;
+import org.example.repository.store_product.ExpiringBatch;
+import org.example.repository.store_product.PromotionRecompute;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,6 +46,12 @@ class BatchServiceTest {
     @Mock
     private StoreProductMapper storeProductMapper;
 
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private BatchExpiryIndex expiryIndex;
+
     @InjectMocks
     private BatchServiceImpl service;
 
@@ -103,7 +119,7 @@ class BatchServiceTest {
     @Test
     @DisplayName("removeExpired should call repository deleteExpired")
     void removeExpired_shouldCallRepository() {
-        doNothing().when(batchRepository).deleteExpired();
+        when(batchRepository.deleteExpired()).thenReturn(new ExpiredBatchPurge(0, 0));
 
         service.removeExpired();
 
@@ -111,11 +127,15 @@ class BatchServiceTest {
     }
 
     @Test
-    @DisplayName("removeExpired should not throw exception")
-    void removeExpired_shouldNotThrowException() {
-        doNothing().when(batchRepository).deleteExpired();
+    @DisplayName("removeExpired should record duration and affected rows")
+    void removeExpired_shouldRecordMetrics() {
+        when(batchRepository.deleteExpired()).thenReturn(new ExpiredBatchPurge(12, 4));
 
         assertDoesNotThrow(() -> service.removeExpired());
+
+        assertEquals(1, meterRegistry.timer("batch.expiry.duration").count());
+        assertEquals(12.0, meterRegistry.counter("batch.expiry.batches.deleted").count());
+        assertEquals(4.0, meterRegistry.counter("batch.expiry.store.products.updated").count());
     }
 
     @Test
@@ -130,4 +150,58 @@ class BatchServiceTest {
         assertEquals(storeProduct.getUPC(), result.getUPC());
         assertEquals(storeProduct.getSelling_price(), result.getSelling_price());
     }
+
+    @Test
+    @DisplayName("saveAll should return received store products and reject unknown lines")
+    void saveAll_unknownUPC_shouldReportRejectedLine() {
+        BatchRequestDto unknown = new BatchRequestDto();
+        unknown.setUPC("000000000000");
+        when(batchRepository.saveAll(List.of(batchRequestDto, unknown)))
+                .thenReturn(List.of(storeProduct));
+        when(storeProductMapper.toDto(storeProduct)).thenReturn(storeProductDto);
+
+        BatchBulkResultDto result = service.saveAll(List.of(batchRequestDto, unknown));
+
+        assertEquals(1, result.getReceived());
+        assertEquals(List.of(storeProductDto), result.getProducts());
+        assertEquals(1, result.getRejected().size());
+        assertEquals(2, result.getRejected().get(0).getLine());
+        assertEquals("000000000000", result.getRejected().get(0).getUPC());
+    }
+
+    @Test
+    @DisplayName("recomputePromotions should record duration and changed rows")
+    void recomputePromotions_shouldRecordMetrics() {
+        when(batchRepository.recomputePromotions()).thenReturn(new PromotionRecompute(5, 2));
+
+        service.recomputePromotions();
+
+        assertEquals(1, meterRegistry.timer("batch.promotion.duration").count());
+        assertEquals(5.0, meterRegistry.counter("batch.promotion.promoted").count());
+        assertEquals(2.0, meterRegistry.counter("batch.promotion.demoted").count());
+    }
+
+    @Test
+    @DisplayName("findExpiring should group indexed batches by UPC soonest first")
+    void findExpiring_shouldGroupByUPC() {
+        LocalDate today = LocalDate.now();
+        when(expiryIndex.expiringBetween(today, today.plusDays(7))).thenReturn(List.of(
+                new ExpiringBatch(1L, "222222222222", today, today.plusDays(1), 5),
+                new ExpiringBatch(2L, "111111111111", today, today.plusDays(2), 3),
+                new ExpiringBatch(3L, "222222222222", today, today.plusDays(6), 4)));
+
+        List<ExpiringStoreProductDto> result = service.findExpiring(7);
+
+        assertEquals(2, result.size());
+        assertEquals("222222222222", result.get(0).getUPC());
+        assertEquals(9, result.get(0).getQuantity());
+        assertEquals(2, result.get(0).getBatches().size());
+        assertEquals("111111111111", result.get(1).getUPC());
+    }
+
+    @Test
+    @DisplayName("findExpiring should reject negative days")
+    void findExpiring_negativeDays_shouldThrowException() {
+        assertThrows(InvalidParameterException.class, () -> service.findExpiring(-1));
+    }
 }
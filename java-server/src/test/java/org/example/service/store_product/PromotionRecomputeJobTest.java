@@ -0,0 +1,29 @@
+package org.example.service.store_product;
+
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Promotion Recompute Job Tests")
+class PromotionRecomputeJobTest {
+
+    @Mock
+    private BatchService batchService;
+
+    @InjectMocks
+    private PromotionRecomputeJob job;
+
+    @Test
+    @DisplayName("recomputePromotions should delegate to service")
+    void recomputePromotions_shouldDelegateToService() {
+        job.recomputePromotions();
+
+        verify(batchService).recomputePromotions();
+    }
+}
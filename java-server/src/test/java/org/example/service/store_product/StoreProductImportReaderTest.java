@@ -0,0 +1,98 @@
+package org.example.service.store_product;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import org.example.repository.store_product.StoreProductImportRow;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Store Product Import Reader Tests")
+class StoreProductImportReaderTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .enable(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES)
+            .build();
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    private StoreProductImportReader reader(String body, StoreProductImportFormat format) {
+        return new StoreProductImportReader(new BufferedReader(new StringReader(body)),
+                format, objectMapper, validator);
+    }
+
+    private List<StoreProductImportRow> drain(StoreProductImportReader reader) {
+        List<StoreProductImportRow> rows = new ArrayList<>();
+        reader.forEachRemaining(rows::add);
+        return rows;
+    }
+
+    @Test
+    @DisplayName("CSV rows should be parsed after skipping the header line")
+    void csv_validRows_shouldBeParsed() {
+        StoreProductImportReader reader = reader("""
+                upc,upc_prom,id_product,selling_price,products_number,promotional_product
+                000000000001,,1,10.00,5,false
+                000000000002,000000000001,2,20.50,7,TRUE
+                """, StoreProductImportFormat.CSV);
+
+        List<StoreProductImportRow> rows = drain(reader);
+
+        assertEquals(2, rows.size());
+        assertEquals(2, rows.get(0).line());
+        assertEquals("000000000002", rows.get(1).product().getUPC());
+        assertEquals("000000000001", rows.get(1).product().getUPC_prom());
+        assertEquals(new BigDecimal("20.50"), rows.get(1).product().getSelling_price());
+        assertTrue(rows.get(1).product().isPromotional_product());
+        assertEquals(2, reader.getReceived());
+        assertTrue(reader.getRejected().isEmpty());
+    }
+
+    @Test
+    @DisplayName("malformed and invalid CSV rows should be rejected with their line numbers")
+    void csv_invalidRows_shouldBeRejected() {
+        StoreProductImportReader reader = reader("""
+                000000000001,,1,10.00,5,false
+                000000000002,,x,10.00,5,false
+                000000000003,,1,10.00,0,false
+                0000000000040,,1,10.00,5,false
+                000000000005,,1,10.00,5
+                """, StoreProductImportFormat.CSV);
+
+        List<StoreProductImportRow> rows = drain(reader);
+
+        assertEquals(1, rows.size());
+        assertEquals(5, reader.getReceived());
+        assertEquals(List.of(2, 3, 4, 5),
+                reader.getRejected().stream().map(r -> r.getLine()).toList());
+        assertTrue(reader.getRejected().get(1).getReason().contains("products_number"));
+    }
+
+    @Test
+    @DisplayName("NDJSON rows should be parsed and blank lines ignored")
+    void ndjson_rows_shouldBeParsed() {
+        StoreProductImportReader reader = reader("""
+                {"upc":"000000000001","id_product":1,"selling_price":10.00,"products_number":5,"promotional_product":false}
+
+                {"upc":"000000000002",
+                """, StoreProductImportFormat.NDJSON);
+
+        List<StoreProductImportRow> rows = drain(reader);
+
+        assertEquals(1, rows.size());
+        assertEquals("000000000001", rows.get(0).product().getUPC());
+        assertEquals(1, reader.getRejected().size());
+        assertEquals(3, reader.getRejected().get(0).getLine());
+        assertFalse(reader.hasNext());
+    }
+}
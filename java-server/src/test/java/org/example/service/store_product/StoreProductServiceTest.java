@@ -3,25 +3,42 @@ package org.example.service.store_product;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import org.example.dto.page.PageResponseDto;
 import org.example.dto.store_product.product.StoreProductCharacteristicsDto;
 import org.example.dto.store_product.product.StoreProductDto;
+import org.example.dto.store_product.product.StoreProductImportRejectDto;
+import org.example.dto.store_product.product.StoreProductImportResultDto;
+import org.example.dto.store_product.product.StoreProductLookupItemDto;
+import org.example.dto.store_product.product.StoreProductLookupResponseDto;
 import org.example.dto.store_product.product.StoreProductPriceAndQuantityDto;
 import org.example.dto.store_product.product.StoreProductRequestDto;
 import org.example.dto.store_product.product.StoreProductWithNameDto;
 import org.example.exception.custom_exception.EntityNotFoundException;
 import org.example.mapper.store_product.StoreProductMapper;
 import org.example.model.store_product.StoreProduct;
+import org.example.repository.store_product.StoreProductImportRow;
 import org.example.repository.store_product.StoreProductRepository;
+import org.example.repository.store_product.StoreProductSortKey;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -38,6 +55,8 @@ class StoreProductServiceTest {
 
     @Mock private StoreProductRepository repository;
     @Mock private StoreProductMapper mapper;
+    @Mock private ObjectMapper objectMapper;
+    @Mock private Validator validator;
 
     @InjectMocks
     private StoreProductServiceImpl service;
@@ -340,14 +359,72 @@ class StoreProductServiceTest {
     }
 
     @Test
-    @DisplayName("getAllWithNameNoPagination should return all products with names")
-    void getAllWithNameNoPagination_shouldReturnAllProducts() {
-        when(repository.findAllWithNameNoPagination()).thenReturn(List.of(withNameDto));
+    @DisplayName("streamAllWithName should pass every product with name to the consumer")
+    void streamAllWithName_shouldStreamAllProducts() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<StoreProductWithNameDto>>getArgument(0).accept(withNameDto);
+            return null;
+        }).when(repository).streamAllWithName(any());
+        List<StoreProductWithNameDto> result = new ArrayList<>();
 
-        List<StoreProductWithNameDto> result = service.getAllWithNameNoPagination();
+        service.streamAllWithName(result::add);
 
         assertEquals(1, result.size());
         assertEquals("Test Product", result.get(0).getProduct_name());
-        verify(repository).findAllWithNameNoPagination();
+        verify(repository).streamAllWithName(any());
+    }
+
+    @Test
+    @DisplayName("getAll with cursor should delegate to keyset page engine")
+    void getAll_withCursor_shouldUseKeysetEngine() {
+        PageResponseDto<StoreProductWithNameDto> page =
+                PageResponseDto.of(List.of(withNameDto), 10, 1, false);
+        when(repository.findPage(StoreProductSortKey.QUANTITY, false, "", 10)).thenReturn(page);
+
+        assertEquals(page, service.getAll("quantity", false, "", 10));
+        verify(repository).findPage(StoreProductSortKey.QUANTITY, false, "", 10);
+    }
+
+    @Test
+    @DisplayName("lookup should resolve a basket in one query and report misses in request order")
+    void lookup_shouldReturnItemsAndMisses() {
+        StoreProductLookupItemDto item = new StoreProductLookupItemDto();
+        item.setUPC("123456789012");
+        item.setProduct_name("Test Product");
+        when(repository.findLookupItemsByUPCs(anyCollection())).thenReturn(List.of(item));
+
+        StoreProductLookupResponseDto result =
+                service.lookup(List.of("999999999999", "123456789012", "999999999999"));
+
+        assertEquals(1, result.getItems().size());
+        assertEquals("Test Product", result.getItems().get(0).getProduct_name());
+        assertEquals(List.of("999999999999"), result.getMisses());
+        verify(repository).findLookupItemsByUPCs(
+                argThat(upcs -> upcs.size() == 2));
+    }
+
+    @Test
+    @DisplayName("importProducts should stream valid rows to the repository and merge rejects by line")
+    void importProducts_shouldMergeParseAndDatabaseRejects() {
+        List<StoreProductImportRow> copied = new ArrayList<>();
+        when(repository.importAll(any())).thenAnswer(invocation -> {
+            invocation.<Iterator<StoreProductImportRow>>getArgument(0).forEachRemaining(copied::add);
+            return new StoreProductImportResultDto(1, 0, List.of(
+                    new StoreProductImportRejectDto(1, "000000000001", "Store product already exists")));
+        });
+        String csv = """
+                000000000001,,1,10.00,5,false
+                000000000002,,1,ten,5,false
+                """;
+
+        StoreProductImportResultDto result = service.importProducts(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                StoreProductImportFormat.CSV);
+
+        assertEquals(1, copied.size());
+        assertEquals(2, result.getReceived());
+        assertEquals(0, result.getImported());
+        assertEquals(List.of(1, 2),
+                result.getRejected().stream().map(StoreProductImportRejectDto::getLine).toList());
     }
 }
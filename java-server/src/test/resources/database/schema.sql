@@ -53,6 +53,7 @@ CREATE TABLE IF NOT EXISTS store_product (
     products_number INT NOT NULL,
     promotional_product BOOLEAN NOT NULL,
     is_deleted BOOLEAN NOT NULL,
+    regular_price DECIMAL(13,4) NULL,
 
     FOREIGN KEY (UPC_prom)
     REFERENCES store_product(UPC)
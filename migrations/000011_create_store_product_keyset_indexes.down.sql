@@ -0,0 +1,5 @@
+DROP INDEX IF EXISTS idx_product_name_id;
+DROP INDEX IF EXISTS idx_store_product_id_product_upc;
+DROP INDEX IF EXISTS idx_store_product_prom_quantity_upc;
+DROP INDEX IF EXISTS idx_store_product_prom_upc;
+DROP INDEX IF EXISTS idx_store_product_quantity_upc;
@@ -0,0 +1,18 @@
+CREATE INDEX IF NOT EXISTS idx_store_product_quantity_upc
+    ON store_product (products_number, UPC)
+    WHERE is_deleted = false;
+
+CREATE INDEX IF NOT EXISTS idx_store_product_prom_upc
+    ON store_product (promotional_product, UPC)
+    WHERE is_deleted = false;
+
+CREATE INDEX IF NOT EXISTS idx_store_product_prom_quantity_upc
+    ON store_product (promotional_product, products_number, UPC)
+    WHERE is_deleted = false;
+
+CREATE INDEX IF NOT EXISTS idx_store_product_id_product_upc
+    ON store_product (id_product, UPC)
+    WHERE is_deleted = false;
+
+CREATE INDEX IF NOT EXISTS idx_product_name_id
+    ON product (product_name, id_product);
@@ -0,0 +1,10 @@
+DROP TRIGGER IF EXISTS trg_store_product_product_sales_summary ON store_product;
+DROP TRIGGER IF EXISTS trg_sale_update_product_sales_summary ON sale;
+DROP TRIGGER IF EXISTS trg_sale_delete_product_sales_summary ON sale;
+DROP TRIGGER IF EXISTS trg_sale_insert_product_sales_summary ON sale;
+DROP FUNCTION IF EXISTS product_sales_summary_on_store_product();
+DROP FUNCTION IF EXISTS product_sales_summary_on_sale_update();
+DROP FUNCTION IF EXISTS product_sales_summary_on_sale_delete();
+DROP FUNCTION IF EXISTS product_sales_summary_on_sale_insert();
+DROP FUNCTION IF EXISTS product_sales_summary_refresh(BIGINT[]);
+DROP TABLE IF EXISTS product_sales_summary;
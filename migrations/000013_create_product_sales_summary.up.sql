@@ -0,0 +1,163 @@
+CREATE TABLE IF NOT EXISTS product_sales_summary (
+    id_product BIGINT PRIMARY KEY,
+    sold_number BIGINT NOT NULL DEFAULT 0,
+    total_sold DECIMAL(17,4) NOT NULL DEFAULT 0,
+    upc_count INT NOT NULL DEFAULT 0,
+    sold_upc_count INT NOT NULL DEFAULT 0,
+    all_sold BOOLEAN GENERATED ALWAYS AS (upc_count > 0 AND sold_upc_count = upc_count) STORED,
+    FOREIGN KEY (id_product) REFERENCES product(id_product) ON UPDATE CASCADE ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_product_sales_summary_total_sold
+    ON product_sales_summary (total_sold, id_product)
+    WHERE all_sold;
+
+-- Recomputes the listed products from sale. Summary rows are locked first so the
+-- aggregate below runs on a snapshot that includes every concurrently committed sale.
+CREATE OR REPLACE FUNCTION product_sales_summary_refresh(p_ids BIGINT[]) RETURNS VOID AS $$
+BEGIN
+    PERFORM 1
+    FROM product_sales_summary
+    WHERE id_product = ANY(p_ids)
+    ORDER BY id_product
+    FOR UPDATE;
+
+    INSERT INTO product_sales_summary AS s (id_product, sold_number, total_sold,
+                                            upc_count, sold_upc_count)
+    SELECT p.id_product,
+           COALESCE(SUM(u.sold_number), 0),
+           COALESCE(SUM(u.total_sold), 0),
+           COUNT(sp.UPC),
+           COUNT(u.UPC)
+    FROM product p
+    LEFT JOIN store_product sp ON sp.id_product = p.id_product
+    LEFT JOIN (
+        SELECT sa.UPC,
+               SUM(sa.product_number) AS sold_number,
+               SUM(sa.selling_price * sa.product_number) AS total_sold
+        FROM sale sa
+        JOIN store_product spa ON spa.UPC = sa.UPC
+        WHERE spa.id_product = ANY(p_ids)
+        GROUP BY sa.UPC
+    ) u ON u.UPC = sp.UPC
+    WHERE p.id_product = ANY(p_ids)
+    GROUP BY p.id_product
+    ORDER BY p.id_product
+    ON CONFLICT (id_product) DO UPDATE
+    SET sold_number = EXCLUDED.sold_number,
+        total_sold = EXCLUDED.total_sold,
+        upc_count = EXCLUDED.upc_count,
+        sold_upc_count = EXCLUDED.sold_upc_count;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Inserted sales add their units and revenue; a UPC counts as sold once all of its
+-- sale rows are the ones just inserted. Totals are applied first so the rows are
+-- locked before the first-sale check takes its snapshot.
+CREATE OR REPLACE FUNCTION product_sales_summary_on_sale_insert() RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO product_sales_summary AS s (id_product, sold_number, total_sold)
+    SELECT sp.id_product,
+           SUM(n.product_number),
+           SUM(n.selling_price * n.product_number)
+    FROM new_rows n
+    JOIN store_product sp ON sp.UPC = n.UPC
+    GROUP BY sp.id_product
+    ORDER BY sp.id_product
+    ON CONFLICT (id_product) DO UPDATE
+    SET sold_number = s.sold_number + EXCLUDED.sold_number,
+        total_sold = s.total_sold + EXCLUDED.total_sold;
+
+    UPDATE product_sales_summary s
+    SET sold_upc_count = s.sold_upc_count + f.upcs
+    FROM (
+        SELECT sp.id_product, COUNT(*) AS upcs
+        FROM (SELECT UPC, COUNT(*) AS added FROM new_rows GROUP BY UPC) a
+        JOIN store_product sp ON sp.UPC = a.UPC
+        WHERE (SELECT COUNT(*)
+               FROM (SELECT 1 FROM sale sa WHERE sa.UPC = a.UPC LIMIT a.added + 1) x
+              ) = a.added
+        GROUP BY sp.id_product
+    ) f
+    WHERE s.id_product = f.id_product;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION product_sales_summary_on_sale_delete() RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE product_sales_summary s
+    SET sold_number = s.sold_number - d.sold_number,
+        total_sold = s.total_sold - d.total_sold
+    FROM (
+        SELECT sp.id_product,
+               SUM(o.product_number) AS sold_number,
+               SUM(o.selling_price * o.product_number) AS total_sold
+        FROM old_rows o
+        JOIN store_product sp ON sp.UPC = o.UPC
+        GROUP BY sp.id_product
+        ORDER BY sp.id_product
+    ) d
+    WHERE s.id_product = d.id_product;
+
+    UPDATE product_sales_summary s
+    SET sold_upc_count = s.sold_upc_count - l.upcs
+    FROM (
+        SELECT sp.id_product, COUNT(*) AS upcs
+        FROM (SELECT DISTINCT UPC FROM old_rows) o
+        JOIN store_product sp ON sp.UPC = o.UPC
+        WHERE NOT EXISTS (SELECT 1 FROM sale sa WHERE sa.UPC = o.UPC)
+        GROUP BY sp.id_product
+    ) l
+    WHERE s.id_product = l.id_product;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION product_sales_summary_on_sale_update() RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM product_sales_summary_refresh(ARRAY(
+        SELECT DISTINCT sp.id_product::BIGINT
+        FROM store_product sp
+        WHERE sp.UPC IN (SELECT UPC FROM old_rows UNION SELECT UPC FROM new_rows)
+    ));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION product_sales_summary_on_store_product() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO product_sales_summary AS s (id_product, upc_count)
+        VALUES (NEW.id_product, 1)
+        ON CONFLICT (id_product) DO UPDATE
+        SET upc_count = s.upc_count + 1;
+    ELSIF TG_OP = 'DELETE' THEN
+        PERFORM product_sales_summary_refresh(ARRAY[OLD.id_product]::BIGINT[]);
+    ELSIF OLD.id_product <> NEW.id_product THEN
+        PERFORM product_sales_summary_refresh(ARRAY[OLD.id_product, NEW.id_product]::BIGINT[]);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_sale_insert_product_sales_summary
+    AFTER INSERT ON sale
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION product_sales_summary_on_sale_insert();
+
+CREATE TRIGGER trg_sale_delete_product_sales_summary
+    AFTER DELETE ON sale
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION product_sales_summary_on_sale_delete();
+
+CREATE TRIGGER trg_sale_update_product_sales_summary
+    AFTER UPDATE ON sale
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION product_sales_summary_on_sale_update();
+
+CREATE TRIGGER trg_store_product_product_sales_summary
+    AFTER INSERT OR UPDATE OF id_product OR DELETE ON store_product
+    FOR EACH ROW EXECUTE FUNCTION product_sales_summary_on_store_product();
+
+SELECT product_sales_summary_refresh(ARRAY(SELECT id_product FROM product));
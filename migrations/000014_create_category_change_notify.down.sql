@@ -0,0 +1,2 @@
+DROP TRIGGER IF EXISTS trg_category_notify_changed ON category;
+DROP FUNCTION IF EXISTS category_notify_changed();
@@ -0,0 +1,10 @@
+CREATE OR REPLACE FUNCTION category_notify_changed() RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM pg_notify('category_changed', OLD.category_number::text);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_category_notify_changed
+    AFTER UPDATE OR DELETE ON category
+    FOR EACH ROW EXECUTE FUNCTION category_notify_changed();
@@ -0,0 +1,14 @@
+-- Built from product_sales_summary rather than sale, so a refresh costs one pass
+-- over products instead of the whole sale history.
+CREATE MATERIALIZED VIEW IF NOT EXISTS category_sales_leaderboard AS
+SELECT c.category_number,
+       c.category_name,
+       SUM(s.sold_number) AS total_sold
+FROM category c
+INNER JOIN product p ON p.category_number = c.category_number
+INNER JOIN product_sales_summary s ON s.id_product = p.id_product
+GROUP BY c.category_number, c.category_name
+HAVING SUM(s.sold_number) > 0;
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_category_sales_leaderboard_category
+    ON category_sales_leaderboard (category_number);
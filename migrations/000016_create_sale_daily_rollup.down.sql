@@ -0,0 +1,12 @@
+DROP TRIGGER IF EXISTS trg_checks_redate_sale_daily_rollup ON checks;
+DROP TRIGGER IF EXISTS trg_checks_delete_sale_daily_rollup ON checks;
+DROP TRIGGER IF EXISTS trg_sale_update_sale_daily_rollup ON sale;
+DROP TRIGGER IF EXISTS trg_sale_delete_sale_daily_rollup ON sale;
+DROP TRIGGER IF EXISTS trg_sale_insert_sale_daily_rollup ON sale;
+DROP FUNCTION IF EXISTS sale_daily_rollup_on_check_redate();
+DROP FUNCTION IF EXISTS sale_daily_rollup_on_check_delete();
+DROP FUNCTION IF EXISTS sale_daily_rollup_on_sale_update();
+DROP FUNCTION IF EXISTS sale_daily_rollup_on_sale_delete();
+DROP FUNCTION IF EXISTS sale_daily_rollup_on_sale_insert();
+DROP FUNCTION IF EXISTS sale_daily_rollup_add(DATE, VARCHAR, BIGINT, DECIMAL);
+DROP TABLE IF EXISTS sale_daily_rollup;
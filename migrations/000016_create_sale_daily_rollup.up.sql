@@ -0,0 +1,136 @@
+CREATE TABLE IF NOT EXISTS sale_daily_rollup (
+    day DATE NOT NULL,
+    UPC VARCHAR(12) NOT NULL,
+    units BIGINT NOT NULL DEFAULT 0,
+    revenue DECIMAL(17,4) NOT NULL DEFAULT 0,
+    PRIMARY KEY (day, UPC)
+);
+
+CREATE OR REPLACE FUNCTION sale_daily_rollup_add(p_day DATE, p_upc VARCHAR,
+                                                 p_units BIGINT, p_revenue DECIMAL)
+    RETURNS VOID AS $$
+BEGIN
+    INSERT INTO sale_daily_rollup AS r (day, UPC, units, revenue)
+    VALUES (p_day, p_upc, p_units, p_revenue)
+    ON CONFLICT (day, UPC) DO UPDATE
+    SET units = r.units + EXCLUDED.units,
+        revenue = r.revenue + EXCLUDED.revenue;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION sale_daily_rollup_on_sale_insert() RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO sale_daily_rollup AS r (day, UPC, units, revenue)
+    SELECT c.print_date, n.UPC,
+           SUM(n.product_number), SUM(n.selling_price * n.product_number)
+    FROM new_rows n
+    JOIN checks c ON c.check_number = n.check_number
+    GROUP BY c.print_date, n.UPC
+    ORDER BY c.print_date, n.UPC
+    ON CONFLICT (day, UPC) DO UPDATE
+    SET units = r.units + EXCLUDED.units,
+        revenue = r.revenue + EXCLUDED.revenue;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Sales removed by deleting their check are subtracted by the check trigger below;
+-- here the check is already gone and the join skips them.
+CREATE OR REPLACE FUNCTION sale_daily_rollup_on_sale_delete() RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO sale_daily_rollup AS r (day, UPC, units, revenue)
+    SELECT c.print_date, o.UPC,
+           -SUM(o.product_number), -SUM(o.selling_price * o.product_number)
+    FROM old_rows o
+    JOIN checks c ON c.check_number = o.check_number
+    GROUP BY c.print_date, o.UPC
+    ORDER BY c.print_date, o.UPC
+    ON CONFLICT (day, UPC) DO UPDATE
+    SET units = r.units + EXCLUDED.units,
+        revenue = r.revenue + EXCLUDED.revenue;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- When check_number changes through the cascade from checks, the old number no
+-- longer resolves and the sale keeps the day of the renamed check.
+CREATE OR REPLACE FUNCTION sale_daily_rollup_on_sale_update() RETURNS TRIGGER AS $$
+DECLARE
+    new_day DATE;
+    old_day DATE;
+BEGIN
+    SELECT print_date INTO new_day FROM checks WHERE check_number = NEW.check_number;
+    SELECT print_date INTO old_day FROM checks WHERE check_number = OLD.check_number;
+    old_day := COALESCE(old_day, new_day);
+    PERFORM sale_daily_rollup_add(old_day, OLD.UPC, -OLD.product_number,
+                                  -(OLD.selling_price * OLD.product_number));
+    PERFORM sale_daily_rollup_add(new_day, NEW.UPC, NEW.product_number,
+                                  NEW.selling_price * NEW.product_number);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION sale_daily_rollup_on_check_delete() RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO sale_daily_rollup AS r (day, UPC, units, revenue)
+    SELECT OLD.print_date, s.UPC, -SUM(s.product_number), -SUM(s.selling_price * s.product_number)
+    FROM sale s
+    WHERE s.check_number = OLD.check_number
+    GROUP BY s.UPC
+    ORDER BY s.UPC
+    ON CONFLICT (day, UPC) DO UPDATE
+    SET units = r.units + EXCLUDED.units,
+        revenue = r.revenue + EXCLUDED.revenue;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION sale_daily_rollup_on_check_redate() RETURNS TRIGGER AS $$
+DECLARE
+    moved RECORD;
+BEGIN
+    FOR moved IN
+        SELECT s.UPC, SUM(s.product_number) AS units,
+               SUM(s.selling_price * s.product_number) AS revenue
+        FROM sale s
+        WHERE s.check_number = NEW.check_number
+        GROUP BY s.UPC
+        ORDER BY s.UPC
+    LOOP
+        PERFORM sale_daily_rollup_add(OLD.print_date, moved.UPC, -moved.units, -moved.revenue);
+        PERFORM sale_daily_rollup_add(NEW.print_date, moved.UPC, moved.units, moved.revenue);
+    END LOOP;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_sale_insert_sale_daily_rollup
+    AFTER INSERT ON sale
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION sale_daily_rollup_on_sale_insert();
+
+CREATE TRIGGER trg_sale_delete_sale_daily_rollup
+    AFTER DELETE ON sale
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION sale_daily_rollup_on_sale_delete();
+
+CREATE TRIGGER trg_sale_update_sale_daily_rollup
+    AFTER UPDATE ON sale
+    FOR EACH ROW EXECUTE FUNCTION sale_daily_rollup_on_sale_update();
+
+CREATE TRIGGER trg_checks_delete_sale_daily_rollup
+    BEFORE DELETE ON checks
+    FOR EACH ROW EXECUTE FUNCTION sale_daily_rollup_on_check_delete();
+
+CREATE TRIGGER trg_checks_redate_sale_daily_rollup
+    AFTER UPDATE OF print_date ON checks
+    FOR EACH ROW
+    WHEN (OLD.print_date IS DISTINCT FROM NEW.print_date)
+    EXECUTE FUNCTION sale_daily_rollup_on_check_redate();
+
+INSERT INTO sale_daily_rollup (day, UPC, units, revenue)
+SELECT c.print_date, s.UPC, SUM(s.product_number), SUM(s.selling_price * s.product_number)
+FROM sale s
+JOIN checks c ON c.check_number = s.check_number
+GROUP BY c.print_date, s.UPC
+ON CONFLICT (day, UPC) DO NOTHING;
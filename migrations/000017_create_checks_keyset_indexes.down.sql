@@ -0,0 +1,2 @@
+DROP INDEX IF EXISTS idx_checks_employee_print_date_number;
+DROP INDEX IF EXISTS idx_checks_print_date_number;
@@ -0,0 +1,5 @@
+CREATE INDEX IF NOT EXISTS idx_checks_print_date_number
+    ON checks (print_date, check_number);
+
+CREATE INDEX IF NOT EXISTS idx_checks_employee_print_date_number
+    ON checks (id_employee, print_date, check_number);
@@ -0,0 +1,3 @@
+DROP TRIGGER IF EXISTS trg_sale_notify_changed ON sale;
+DROP TRIGGER IF EXISTS trg_check_notify_changed ON checks;
+DROP FUNCTION IF EXISTS check_notify_changed();
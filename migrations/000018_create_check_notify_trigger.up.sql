@@ -0,0 +1,14 @@
+CREATE OR REPLACE FUNCTION check_notify_changed() RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM pg_notify('check_changed', OLD.check_number);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_check_notify_changed
+    AFTER UPDATE OR DELETE ON checks
+    FOR EACH ROW EXECUTE FUNCTION check_notify_changed();
+
+CREATE TRIGGER trg_sale_notify_changed
+    AFTER UPDATE OR DELETE ON sale
+    FOR EACH ROW EXECUTE FUNCTION check_notify_changed();
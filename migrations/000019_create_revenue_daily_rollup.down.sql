@@ -0,0 +1,8 @@
+DROP TRIGGER IF EXISTS trg_checks_update_revenue_daily_rollup ON checks;
+DROP TRIGGER IF EXISTS trg_checks_delete_revenue_daily_rollup ON checks;
+DROP TRIGGER IF EXISTS trg_checks_insert_revenue_daily_rollup ON checks;
+DROP FUNCTION IF EXISTS revenue_daily_rollup_on_check_update();
+DROP FUNCTION IF EXISTS revenue_daily_rollup_on_check_delete();
+DROP FUNCTION IF EXISTS revenue_daily_rollup_on_check_insert();
+DROP FUNCTION IF EXISTS revenue_daily_rollup_add(DATE, VARCHAR, BIGINT, DECIMAL, DECIMAL);
+DROP TABLE IF EXISTS revenue_daily_rollup;
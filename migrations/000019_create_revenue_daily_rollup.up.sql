@@ -0,0 +1,90 @@
+CREATE TABLE IF NOT EXISTS revenue_daily_rollup (
+    day DATE NOT NULL,
+    id_employee VARCHAR(10) NOT NULL,
+    checks BIGINT NOT NULL DEFAULT 0,
+    sum_total DECIMAL(17,4) NOT NULL DEFAULT 0,
+    vat DECIMAL(17,4) NOT NULL DEFAULT 0,
+    PRIMARY KEY (day, id_employee)
+);
+
+CREATE INDEX IF NOT EXISTS idx_revenue_daily_rollup_employee_day
+    ON revenue_daily_rollup (id_employee, day);
+
+CREATE OR REPLACE FUNCTION revenue_daily_rollup_add(p_day DATE, p_employee VARCHAR,
+                                                    p_checks BIGINT, p_sum_total DECIMAL,
+                                                    p_vat DECIMAL)
+    RETURNS VOID AS $$
+BEGIN
+    INSERT INTO revenue_daily_rollup AS r (day, id_employee, checks, sum_total, vat)
+    VALUES (p_day, p_employee, p_checks, p_sum_total, p_vat)
+    ON CONFLICT (day, id_employee) DO UPDATE
+    SET checks = r.checks + EXCLUDED.checks,
+        sum_total = r.sum_total + EXCLUDED.sum_total,
+        vat = r.vat + EXCLUDED.vat;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION revenue_daily_rollup_on_check_insert() RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO revenue_daily_rollup AS r (day, id_employee, checks, sum_total, vat)
+    SELECT n.print_date, n.id_employee, COUNT(*), SUM(n.sum_total), SUM(n.vat)
+    FROM new_rows n
+    GROUP BY n.print_date, n.id_employee
+    ORDER BY n.print_date, n.id_employee
+    ON CONFLICT (day, id_employee) DO UPDATE
+    SET checks = r.checks + EXCLUDED.checks,
+        sum_total = r.sum_total + EXCLUDED.sum_total,
+        vat = r.vat + EXCLUDED.vat;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION revenue_daily_rollup_on_check_delete() RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO revenue_daily_rollup AS r (day, id_employee, checks, sum_total, vat)
+    SELECT o.print_date, o.id_employee, -COUNT(*), -SUM(o.sum_total), -SUM(o.vat)
+    FROM old_rows o
+    GROUP BY o.print_date, o.id_employee
+    ORDER BY o.print_date, o.id_employee
+    ON CONFLICT (day, id_employee) DO UPDATE
+    SET checks = r.checks + EXCLUDED.checks,
+        sum_total = r.sum_total + EXCLUDED.sum_total,
+        vat = r.vat + EXCLUDED.vat;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION revenue_daily_rollup_on_check_update() RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM revenue_daily_rollup_add(OLD.print_date, OLD.id_employee, -1,
+                                     -OLD.sum_total, -OLD.vat);
+    PERFORM revenue_daily_rollup_add(NEW.print_date, NEW.id_employee, 1,
+                                     NEW.sum_total, NEW.vat);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_checks_insert_revenue_daily_rollup
+    AFTER INSERT ON checks
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION revenue_daily_rollup_on_check_insert();
+
+CREATE TRIGGER trg_checks_delete_revenue_daily_rollup
+    AFTER DELETE ON checks
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION revenue_daily_rollup_on_check_delete();
+
+CREATE TRIGGER trg_checks_update_revenue_daily_rollup
+    AFTER UPDATE OF print_date, id_employee, sum_total, vat ON checks
+    FOR EACH ROW
+    WHEN (OLD.print_date IS DISTINCT FROM NEW.print_date
+        OR OLD.id_employee IS DISTINCT FROM NEW.id_employee
+        OR OLD.sum_total IS DISTINCT FROM NEW.sum_total
+        OR OLD.vat IS DISTINCT FROM NEW.vat)
+    EXECUTE FUNCTION revenue_daily_rollup_on_check_update();
+
+INSERT INTO revenue_daily_rollup (day, id_employee, checks, sum_total, vat)
+SELECT print_date, id_employee, COUNT(*), SUM(sum_total), SUM(vat)
+FROM checks
+GROUP BY print_date, id_employee
+ON CONFLICT (day, id_employee) DO NOTHING;
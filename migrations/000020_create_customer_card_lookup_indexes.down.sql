@@ -0,0 +1,2 @@
+DROP INDEX IF EXISTS idx_customer_card_phone;
+DROP INDEX IF EXISTS idx_customer_card_surname_card;
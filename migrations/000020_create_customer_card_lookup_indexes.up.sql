@@ -0,0 +1,5 @@
+CREATE INDEX IF NOT EXISTS idx_customer_card_surname_card
+    ON customer_card ((lower(customer_surname)) COLLATE "C", card_number COLLATE "C");
+
+CREATE INDEX IF NOT EXISTS idx_customer_card_phone
+    ON customer_card (phone_number);
@@ -0,0 +1,2 @@
+DROP TRIGGER IF EXISTS trg_customer_card_notify_changed ON customer_card;
+DROP FUNCTION IF EXISTS customer_card_notify_changed();
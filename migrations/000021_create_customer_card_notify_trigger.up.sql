@@ -0,0 +1,15 @@
+CREATE OR REPLACE FUNCTION customer_card_notify_changed() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP <> 'INSERT' THEN
+        PERFORM pg_notify('customer_card_changed', OLD.card_number);
+    END IF;
+    IF TG_OP = 'INSERT' OR (TG_OP = 'UPDATE' AND NEW.card_number <> OLD.card_number) THEN
+        PERFORM pg_notify('customer_card_changed', NEW.card_number);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_customer_card_notify_changed
+    AFTER INSERT OR UPDATE OR DELETE ON customer_card
+    FOR EACH ROW EXECUTE FUNCTION customer_card_notify_changed();
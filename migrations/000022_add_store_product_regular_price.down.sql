@@ -0,0 +1,2 @@
+ALTER TABLE store_product
+    DROP COLUMN IF EXISTS regular_price;
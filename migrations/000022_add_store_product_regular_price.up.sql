@@ -0,0 +1,6 @@
+ALTER TABLE store_product
+    ADD COLUMN IF NOT EXISTS regular_price DECIMAL(13,4) NULL;
+
+UPDATE store_product
+SET regular_price = selling_price
+WHERE promotional_product = false;